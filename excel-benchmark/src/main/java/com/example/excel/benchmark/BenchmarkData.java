@@ -0,0 +1,177 @@
+package com.example.excel.benchmark;
+
+import java.io.File;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+
+import com.example.comm.User;
+import com.example.excel.ExcelWriter;
+import com.example.excel.util.WorkbookUtil;
+
+/**
+ * 基准测试数据，按行号生成固定的数据，同样的行数和列宽每次生成的内容一样。
+ * 读取测试用的文件生成在临时目录下，已存在时直接使用。
+ */
+public final class BenchmarkData {
+	// 窄表，User类13列
+	public static final String NARROW = "narrow";
+	// 宽表，WideUser类50列
+	public static final String WIDE = "wide";
+	// 生成数据的开始时间
+	private static final long BASE_TIME = 1500000000000L;
+	private static final String[] SCHOOLS = { "华中科技大学", "武汉大学", "清华大学", "北京大学", "浙江大学" };
+	private static final String[] LOCATIONS = { "武汉", "北京", "上海", "深圳", "杭州", "成都" };
+
+	/**
+	 * 不给外部提供创建实例
+	 */
+	private BenchmarkData() {
+	}
+
+	/**
+	 * 数据类
+	 *
+	 * @param shape
+	 * @return
+	 */
+	public static Class<?> type(String shape) {
+		return WIDE.equals(shape) ? WideUser.class : User.class;
+	}
+
+	/**
+	 * 按需生成数据的迭代器，不在内存中保留全部数据
+	 *
+	 * @param shape
+	 * @param rows
+	 * @return
+	 */
+	public static Iterator<?> rows(String shape, int rows) {
+		return WIDE.equals(shape) ? iterator(rows, BenchmarkData::wideUser) : iterator(rows, BenchmarkData::user);
+	}
+
+	/**
+	 * 读取测试用的xlsx文件，不存在时生成
+	 *
+	 * @param shape
+	 * @param rows
+	 * @return
+	 * @throws Exception
+	 */
+	public static synchronized File file(String shape, int rows) throws Exception {
+		File dir = new File(System.getProperty("java.io.tmpdir"), "excel-benchmark");
+		if (!dir.isDirectory() && !dir.mkdirs()) {
+			throw new Exception("不能创建目录" + dir.getPath());
+		}
+		File file = new File(dir, shape + "-" + rows + WorkbookUtil.XLSX);
+		if (!file.isFile()) {
+			File tempFile = new File(dir, shape + "-" + rows + ".tmp" + WorkbookUtil.XLSX);
+			ExcelWriter.build().doWrite(rows(shape, rows)).writeOut(tempFile.getPath());
+			if (!tempFile.renameTo(file)) {
+				throw new Exception("不能生成文件" + file.getPath());
+			}
+		}
+		return file;
+	}
+
+	public static User user(int i) {
+		User user = new User();
+		user.setId(String.valueOf(100000 + i));
+		user.setName("用户" + i);
+		user.setAge(20 + i % 40);
+		user.setLocation(LOCATIONS[i % LOCATIONS.length]);
+		user.setEmail("user" + i + "@163.com");
+		user.setJob("工程师");
+		user.setTime(new Date(BASE_TIME + i * 60000L));
+		user.setIntro("积极能干");
+		user.setReference("用户" + i / 10);
+		user.setGraduateSchool(SCHOOLS[i % SCHOOLS.length]);
+		user.setProfessional("计算机信息");
+		user.setDegree("本科");
+		user.setGraduateTime(new Date(BASE_TIME - i * 86400000L));
+		return user;
+	}
+
+	public static WideUser wideUser(int i) {
+		WideUser user = new WideUser();
+		user.setCol0("编号" + i);
+		user.setCol1(LOCATIONS[i % LOCATIONS.length]);
+		user.setCol2(i);
+		user.setCol3(i * 1.25);
+		user.setCol4(new Date(BASE_TIME + i * 60000L));
+		user.setCol5("名称" + i);
+		user.setCol6(SCHOOLS[i % SCHOOLS.length]);
+		user.setCol7(i % 100);
+		user.setCol8(i / 3.0);
+		user.setCol9(new Date(BASE_TIME - i * 60000L));
+		user.setCol10("描述" + i % 1000);
+		user.setCol11("类型" + i % 7);
+		user.setCol12(i * 7);
+		user.setCol13(i % 1000 * 0.01);
+		user.setCol14(new Date(BASE_TIME));
+		user.setCol15("备注" + i);
+		user.setCol16(LOCATIONS[i % 3]);
+		user.setCol17(i % 12);
+		user.setCol18(i * 0.5);
+		user.setCol19(new Date(BASE_TIME + i * 1000L));
+		user.setCol20("地址" + i % 500);
+		user.setCol21("部门" + i % 20);
+		user.setCol22(i % 365);
+		user.setCol23(i * 3.3);
+		user.setCol24(new Date(BASE_TIME + i * 86400000L));
+		user.setCol25("邮箱" + i + "@163.com");
+		user.setCol26("状态" + i % 4);
+		user.setCol27(i % 2);
+		user.setCol28(i % 10000 / 100.0);
+		user.setCol29(new Date(BASE_TIME - i * 1000L));
+		user.setCol30("项目" + i % 50);
+		user.setCol31("级别" + i % 5);
+		user.setCol32(i % 60);
+		user.setCol33(i * 0.75);
+		user.setCol34(new Date(BASE_TIME + i * 3600000L));
+		user.setCol35("城市" + i % 300);
+		user.setCol36("渠道" + i % 9);
+		user.setCol37(i % 24);
+		user.setCol38(i * 2.5);
+		user.setCol39(new Date(BASE_TIME - i * 3600000L));
+		user.setCol40("标签" + i % 80);
+		user.setCol41("来源" + i % 6);
+		user.setCol42(i % 1000);
+		user.setCol43(i * 0.1);
+		user.setCol44(new Date(BASE_TIME + i * 7200000L));
+		user.setCol45("说明" + i);
+		user.setCol46(SCHOOLS[i % 2]);
+		user.setCol47(i % 31);
+		user.setCol48(i * 4.2);
+		user.setCol49(new Date(BASE_TIME - i * 7200000L));
+		return user;
+	}
+
+	/**
+	 * 按行号生成数据的迭代器
+	 *
+	 * @param <T>
+	 * @param rows
+	 * @param generator
+	 * @return
+	 */
+	private static <T> Iterator<T> iterator(int rows, IntFunction<T> generator) {
+		return new Iterator<T>() {
+			private int index = 0;
+
+			@Override
+			public boolean hasNext() {
+				return index < rows;
+			}
+
+			@Override
+			public T next() {
+				if (index >= rows) {
+					throw new NoSuchElementException();
+				}
+				return generator.apply(index++);
+			}
+		};
+	}
+}
@@ -0,0 +1,45 @@
+package com.example.excel.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 运行基准测试，默认加上内存分配和堆内存峰值统计，结果以JSON格式写到jmh-result.json，用于不同提交之间对比。
+ * 支持JMH的所有命令行参数，例如：
+ * java -jar target/benchmarks.jar ReadBenchmark -p rows=1000 -rf json -rff read.json
+ */
+public final class BenchmarkRunner {
+
+	/**
+	 * 不给外部提供创建实例
+	 */
+	private BenchmarkRunner() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+		if (commandLineOptions.shouldHelp() || commandLineOptions.shouldList()) {
+			Runner runner = new Runner(commandLineOptions);
+			if (commandLineOptions.shouldHelp()) {
+				commandLineOptions.showHelp();
+			} else {
+				runner.list();
+			}
+			return;
+		}
+		OptionsBuilder builder = new OptionsBuilder();
+		builder.parent(commandLineOptions);
+		builder.addProfiler(GCProfiler.class);
+		builder.addProfiler(PeakHeapProfiler.class);
+		if (!commandLineOptions.getResultFormat().hasValue()) {
+			builder.resultFormat(ResultFormatType.JSON);
+		}
+		if (!commandLineOptions.getResult().hasValue()) {
+			builder.result("jmh-result.json");
+		}
+		new Runner(builder.build()).run();
+	}
+}
@@ -0,0 +1,59 @@
+package com.example.excel.benchmark;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.excel.ExcelReader;
+
+/**
+ * 加载整个工作簿读取的基准测试，单个sheet表最多读取100000行，所以不测试1000000行。
+ * mode：list 逐行解析；parallel 按行分段并行解析
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+public class ReadBenchmark {
+	@Param({ "1000", "100000" })
+	public int rows;
+
+	@Param({ BenchmarkData.NARROW, BenchmarkData.WIDE })
+	public String shape;
+
+	@Param({ "list", "parallel" })
+	public String mode;
+
+	private File file;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		file = BenchmarkData.file(shape, rows);
+	}
+
+	@Benchmark
+	public List<?> read(RowCounters counters) throws Exception {
+		ExcelReader excelReader = ExcelReader.build(file);
+		if ("parallel".equals(mode)) {
+			excelReader.withParallelBinding(4096);
+		}
+		List<?> list = excelReader.doRead(BenchmarkData.type(shape));
+		counters.rows += list.size();
+		return list;
+	}
+}
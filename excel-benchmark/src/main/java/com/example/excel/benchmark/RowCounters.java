@@ -0,0 +1,22 @@
+package com.example.excel.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 读写的行数，按测试时间折算成每秒读写的行数输出
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class RowCounters {
+	// 读写的行数
+	public long rows;
+
+	@Setup(Level.Iteration)
+	public void reset() {
+		rows = 0;
+	}
+}
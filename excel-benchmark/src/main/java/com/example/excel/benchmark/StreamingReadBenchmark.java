@@ -0,0 +1,68 @@
+package com.example.excel.benchmark;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.example.excel.ExcelReader;
+import com.example.excel.util.ImportPipeline;
+
+/**
+ * 流式读取的基准测试。
+ * mode：handler 逐行交给行处理器；import 流水线导入，解析和处理器在不同线程
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+public class StreamingReadBenchmark {
+	@Param({ "1000", "100000", "1000000" })
+	public int rows;
+
+	@Param({ BenchmarkData.NARROW, BenchmarkData.WIDE })
+	public String shape;
+
+	@Param({ "handler", "import" })
+	public String mode;
+
+	private File file;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		file = BenchmarkData.file(shape, rows);
+	}
+
+	@Benchmark
+	public int read(RowCounters counters, Blackhole blackhole) throws Exception {
+		return read(BenchmarkData.type(shape), counters, blackhole);
+	}
+
+	private <T> int read(Class<T> clazz, RowCounters counters, Blackhole blackhole) throws Exception {
+		ExcelReader excelReader = ExcelReader.buildStreaming(file);
+		int count;
+		if ("import".equals(mode)) {
+			// 处理器在其他线程执行，不能使用Blackhole
+			count = excelReader.doImport(clazz, null, (rowIndex, t) -> {
+			}, ImportPipeline.build()).getImportedRows();
+		} else {
+			count = excelReader.doRead(clazz, (rowIndex, t) -> blackhole.consume(t));
+		}
+		counters.rows += count;
+		return count;
+	}
+}
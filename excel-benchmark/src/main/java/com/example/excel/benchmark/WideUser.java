@@ -0,0 +1,511 @@
+package com.example.excel.benchmark;
+
+import java.util.Date;
+
+import com.example.excel.util.Excel;
+
+/**
+ * 宽表测试数据，50列，字符串、整数、小数和日期列交替出现
+ */
+public class WideUser {
+	@Excel(order = 0, name = { "基本信息", "列0" })
+	private String col0;
+	@Excel(order = 1, name = { "基本信息", "列1" })
+	private String col1;
+	@Excel(order = 2, name = { "基本信息", "列2" })
+	private int col2;
+	@Excel(order = 3, name = { "基本信息", "列3" })
+	private double col3;
+	@Excel(order = 4, name = { "基本信息", "列4" }, fmt = "yyyy-MM-dd")
+	private Date col4;
+	@Excel(order = 5, name = { "基本信息", "列5" })
+	private String col5;
+	@Excel(order = 6, name = { "基本信息", "列6" })
+	private String col6;
+	@Excel(order = 7, name = { "基本信息", "列7" })
+	private int col7;
+	@Excel(order = 8, name = { "基本信息", "列8" })
+	private double col8;
+	@Excel(order = 9, name = { "基本信息", "列9" }, fmt = "yyyy-MM-dd")
+	private Date col9;
+	@Excel(order = 10, name = { "基本信息", "列10" })
+	private String col10;
+	@Excel(order = 11, name = { "基本信息", "列11" })
+	private String col11;
+	@Excel(order = 12, name = { "基本信息", "列12" })
+	private int col12;
+	@Excel(order = 13, name = { "基本信息", "列13" })
+	private double col13;
+	@Excel(order = 14, name = { "基本信息", "列14" }, fmt = "yyyy-MM-dd")
+	private Date col14;
+	@Excel(order = 15, name = { "基本信息", "列15" })
+	private String col15;
+	@Excel(order = 16, name = { "基本信息", "列16" })
+	private String col16;
+	@Excel(order = 17, name = { "基本信息", "列17" })
+	private int col17;
+	@Excel(order = 18, name = { "基本信息", "列18" })
+	private double col18;
+	@Excel(order = 19, name = { "基本信息", "列19" }, fmt = "yyyy-MM-dd")
+	private Date col19;
+	@Excel(order = 20, name = { "基本信息", "列20" })
+	private String col20;
+	@Excel(order = 21, name = { "基本信息", "列21" })
+	private String col21;
+	@Excel(order = 22, name = { "基本信息", "列22" })
+	private int col22;
+	@Excel(order = 23, name = { "基本信息", "列23" })
+	private double col23;
+	@Excel(order = 24, name = { "基本信息", "列24" }, fmt = "yyyy-MM-dd")
+	private Date col24;
+	@Excel(order = 25, name = { "扩展信息", "列25" })
+	private String col25;
+	@Excel(order = 26, name = { "扩展信息", "列26" })
+	private String col26;
+	@Excel(order = 27, name = { "扩展信息", "列27" })
+	private int col27;
+	@Excel(order = 28, name = { "扩展信息", "列28" })
+	private double col28;
+	@Excel(order = 29, name = { "扩展信息", "列29" }, fmt = "yyyy-MM-dd")
+	private Date col29;
+	@Excel(order = 30, name = { "扩展信息", "列30" })
+	private String col30;
+	@Excel(order = 31, name = { "扩展信息", "列31" })
+	private String col31;
+	@Excel(order = 32, name = { "扩展信息", "列32" })
+	private int col32;
+	@Excel(order = 33, name = { "扩展信息", "列33" })
+	private double col33;
+	@Excel(order = 34, name = { "扩展信息", "列34" }, fmt = "yyyy-MM-dd")
+	private Date col34;
+	@Excel(order = 35, name = { "扩展信息", "列35" })
+	private String col35;
+	@Excel(order = 36, name = { "扩展信息", "列36" })
+	private String col36;
+	@Excel(order = 37, name = { "扩展信息", "列37" })
+	private int col37;
+	@Excel(order = 38, name = { "扩展信息", "列38" })
+	private double col38;
+	@Excel(order = 39, name = { "扩展信息", "列39" }, fmt = "yyyy-MM-dd")
+	private Date col39;
+	@Excel(order = 40, name = { "扩展信息", "列40" })
+	private String col40;
+	@Excel(order = 41, name = { "扩展信息", "列41" })
+	private String col41;
+	@Excel(order = 42, name = { "扩展信息", "列42" })
+	private int col42;
+	@Excel(order = 43, name = { "扩展信息", "列43" })
+	private double col43;
+	@Excel(order = 44, name = { "扩展信息", "列44" }, fmt = "yyyy-MM-dd")
+	private Date col44;
+	@Excel(order = 45, name = { "扩展信息", "列45" })
+	private String col45;
+	@Excel(order = 46, name = { "扩展信息", "列46" })
+	private String col46;
+	@Excel(order = 47, name = { "扩展信息", "列47" })
+	private int col47;
+	@Excel(order = 48, name = { "扩展信息", "列48" })
+	private double col48;
+	@Excel(order = 49, name = { "扩展信息", "列49" }, fmt = "yyyy-MM-dd")
+	private Date col49;
+
+	public String getCol0() {
+		return col0;
+	}
+
+	public void setCol0(String col0) {
+		this.col0 = col0;
+	}
+
+	public String getCol1() {
+		return col1;
+	}
+
+	public void setCol1(String col1) {
+		this.col1 = col1;
+	}
+
+	public int getCol2() {
+		return col2;
+	}
+
+	public void setCol2(int col2) {
+		this.col2 = col2;
+	}
+
+	public double getCol3() {
+		return col3;
+	}
+
+	public void setCol3(double col3) {
+		this.col3 = col3;
+	}
+
+	public Date getCol4() {
+		return col4;
+	}
+
+	public void setCol4(Date col4) {
+		this.col4 = col4;
+	}
+
+	public String getCol5() {
+		return col5;
+	}
+
+	public void setCol5(String col5) {
+		this.col5 = col5;
+	}
+
+	public String getCol6() {
+		return col6;
+	}
+
+	public void setCol6(String col6) {
+		this.col6 = col6;
+	}
+
+	public int getCol7() {
+		return col7;
+	}
+
+	public void setCol7(int col7) {
+		this.col7 = col7;
+	}
+
+	public double getCol8() {
+		return col8;
+	}
+
+	public void setCol8(double col8) {
+		this.col8 = col8;
+	}
+
+	public Date getCol9() {
+		return col9;
+	}
+
+	public void setCol9(Date col9) {
+		this.col9 = col9;
+	}
+
+	public String getCol10() {
+		return col10;
+	}
+
+	public void setCol10(String col10) {
+		this.col10 = col10;
+	}
+
+	public String getCol11() {
+		return col11;
+	}
+
+	public void setCol11(String col11) {
+		this.col11 = col11;
+	}
+
+	public int getCol12() {
+		return col12;
+	}
+
+	public void setCol12(int col12) {
+		this.col12 = col12;
+	}
+
+	public double getCol13() {
+		return col13;
+	}
+
+	public void setCol13(double col13) {
+		this.col13 = col13;
+	}
+
+	public Date getCol14() {
+		return col14;
+	}
+
+	public void setCol14(Date col14) {
+		this.col14 = col14;
+	}
+
+	public String getCol15() {
+		return col15;
+	}
+
+	public void setCol15(String col15) {
+		this.col15 = col15;
+	}
+
+	public String getCol16() {
+		return col16;
+	}
+
+	public void setCol16(String col16) {
+		this.col16 = col16;
+	}
+
+	public int getCol17() {
+		return col17;
+	}
+
+	public void setCol17(int col17) {
+		this.col17 = col17;
+	}
+
+	public double getCol18() {
+		return col18;
+	}
+
+	public void setCol18(double col18) {
+		this.col18 = col18;
+	}
+
+	public Date getCol19() {
+		return col19;
+	}
+
+	public void setCol19(Date col19) {
+		this.col19 = col19;
+	}
+
+	public String getCol20() {
+		return col20;
+	}
+
+	public void setCol20(String col20) {
+		this.col20 = col20;
+	}
+
+	public String getCol21() {
+		return col21;
+	}
+
+	public void setCol21(String col21) {
+		this.col21 = col21;
+	}
+
+	public int getCol22() {
+		return col22;
+	}
+
+	public void setCol22(int col22) {
+		this.col22 = col22;
+	}
+
+	public double getCol23() {
+		return col23;
+	}
+
+	public void setCol23(double col23) {
+		this.col23 = col23;
+	}
+
+	public Date getCol24() {
+		return col24;
+	}
+
+	public void setCol24(Date col24) {
+		this.col24 = col24;
+	}
+
+	public String getCol25() {
+		return col25;
+	}
+
+	public void setCol25(String col25) {
+		this.col25 = col25;
+	}
+
+	public String getCol26() {
+		return col26;
+	}
+
+	public void setCol26(String col26) {
+		this.col26 = col26;
+	}
+
+	public int getCol27() {
+		return col27;
+	}
+
+	public void setCol27(int col27) {
+		this.col27 = col27;
+	}
+
+	public double getCol28() {
+		return col28;
+	}
+
+	public void setCol28(double col28) {
+		this.col28 = col28;
+	}
+
+	public Date getCol29() {
+		return col29;
+	}
+
+	public void setCol29(Date col29) {
+		this.col29 = col29;
+	}
+
+	public String getCol30() {
+		return col30;
+	}
+
+	public void setCol30(String col30) {
+		this.col30 = col30;
+	}
+
+	public String getCol31() {
+		return col31;
+	}
+
+	public void setCol31(String col31) {
+		this.col31 = col31;
+	}
+
+	public int getCol32() {
+		return col32;
+	}
+
+	public void setCol32(int col32) {
+		this.col32 = col32;
+	}
+
+	public double getCol33() {
+		return col33;
+	}
+
+	public void setCol33(double col33) {
+		this.col33 = col33;
+	}
+
+	public Date getCol34() {
+		return col34;
+	}
+
+	public void setCol34(Date col34) {
+		this.col34 = col34;
+	}
+
+	public String getCol35() {
+		return col35;
+	}
+
+	public void setCol35(String col35) {
+		this.col35 = col35;
+	}
+
+	public String getCol36() {
+		return col36;
+	}
+
+	public void setCol36(String col36) {
+		this.col36 = col36;
+	}
+
+	public int getCol37() {
+		return col37;
+	}
+
+	public void setCol37(int col37) {
+		this.col37 = col37;
+	}
+
+	public double getCol38() {
+		return col38;
+	}
+
+	public void setCol38(double col38) {
+		this.col38 = col38;
+	}
+
+	public Date getCol39() {
+		return col39;
+	}
+
+	public void setCol39(Date col39) {
+		this.col39 = col39;
+	}
+
+	public String getCol40() {
+		return col40;
+	}
+
+	public void setCol40(String col40) {
+		this.col40 = col40;
+	}
+
+	public String getCol41() {
+		return col41;
+	}
+
+	public void setCol41(String col41) {
+		this.col41 = col41;
+	}
+
+	public int getCol42() {
+		return col42;
+	}
+
+	public void setCol42(int col42) {
+		this.col42 = col42;
+	}
+
+	public double getCol43() {
+		return col43;
+	}
+
+	public void setCol43(double col43) {
+		this.col43 = col43;
+	}
+
+	public Date getCol44() {
+		return col44;
+	}
+
+	public void setCol44(Date col44) {
+		this.col44 = col44;
+	}
+
+	public String getCol45() {
+		return col45;
+	}
+
+	public void setCol45(String col45) {
+		this.col45 = col45;
+	}
+
+	public String getCol46() {
+		return col46;
+	}
+
+	public void setCol46(String col46) {
+		this.col46 = col46;
+	}
+
+	public int getCol47() {
+		return col47;
+	}
+
+	public void setCol47(int col47) {
+		this.col47 = col47;
+	}
+
+	public double getCol48() {
+		return col48;
+	}
+
+	public void setCol48(double col48) {
+		this.col48 = col48;
+	}
+
+	public Date getCol49() {
+		return col49;
+	}
+
+	public void setCol49(Date col49) {
+		this.col49 = col49;
+	}
+}
@@ -0,0 +1,67 @@
+package com.example.excel.benchmark;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.excel.ExcelWriter;
+
+/**
+ * 写xlsx文件的基准测试，数据按需生成，写出的内容只统计字节数不落盘。
+ * mode：sxssf 默认的流式写入；shared 共享字符串去重写入
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+public class WriteBenchmark {
+	@Param({ "1000", "100000", "1000000" })
+	public int rows;
+
+	@Param({ BenchmarkData.NARROW, BenchmarkData.WIDE })
+	public String shape;
+
+	@Param({ "sxssf", "shared" })
+	public String mode;
+
+	@Benchmark
+	public long write(RowCounters counters) throws Exception {
+		ExcelWriter excelWriter = ExcelWriter.build();
+		if ("shared".equals(mode)) {
+			excelWriter.withSharedStrings(65536);
+		}
+		CountingOutputStream out = new CountingOutputStream();
+		excelWriter.doWrite(BenchmarkData.rows(shape, rows)).writeOut(out);
+		counters.rows += rows;
+		return out.count;
+	}
+
+	/**
+	 * 只统计字节数的输出流
+	 */
+	private static final class CountingOutputStream extends OutputStream {
+		private long count;
+
+		@Override
+		public void write(int b) {
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count += len;
+		}
+	}
+}
@@ -0,0 +1,415 @@
+package com.example.excel;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.logging.Logger;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import com.example.excel.util.BeanBinder;
+import com.example.excel.util.Converter;
+import com.example.excel.util.Converters;
+import com.example.excel.util.CsvColumn;
+import com.example.excel.util.CsvScanner;
+import com.example.excel.util.ExcelClassMetadata;
+import com.example.excel.util.FuncUtil;
+import com.example.excel.util.RowHandler;
+import com.example.excel.util.SheetUtil;
+import com.example.excel.util.WorkbookUtil;
+
+/**
+ * csv/tsv文件读取，和excel读取使用相同的注解、列索引和字段映射以及转换器，不经过poi解析。
+ * 文件按字符流逐行扫描，内存占用只和单行数据有关
+ */
+public class CsvReader {
+	private static final Logger logger = Logger.getLogger(CsvReader.class.getName());
+	// 是否自动关闭资源
+	private boolean autoClose = true;
+	// 需要读取的文件
+	private File file;
+	private InputStream inputStream;
+	// 字符集
+	private Charset charset = StandardCharsets.UTF_8;
+	// 分隔符
+	private char separator = ',';
+	// 行扫描器，开始读取时创建
+	private CsvScanner scanner;
+	// 转换器
+	private Converters converters;
+	// 列索引和字段映射
+	private Map<Integer, String> columnFieldMap;
+	// 调用转换器的临时单元格所在的工作簿
+	private Workbook scratchWorkbook;
+
+	/**
+	 * 不对外部提供创建实例
+	 */
+	private CsvReader() {
+		converters = Converters.build();
+	}
+
+	/**
+	 * 从给定的文件读取，tsv文件默认使用制表符分隔
+	 *
+	 * @param fileName
+	 * @return
+	 * @throws Exception
+	 */
+	public static CsvReader build(String fileName) throws Exception {
+		return build(new File(fileName));
+	}
+
+	/**
+	 * 从给定的文件对象读取，tsv文件默认使用制表符分隔
+	 *
+	 * @param file
+	 * @return
+	 * @throws Exception
+	 */
+	public static CsvReader build(File file) throws Exception {
+		if (file == null || !file.isFile()) {
+			throw new Exception("没有文件或输入流可以读取");
+		}
+		CsvReader csvReader = FuncUtil.create(CsvReader::new);
+		csvReader.file = file;
+		if (file.getName().toLowerCase().endsWith(WorkbookUtil.TSV)) {
+			csvReader.separator = '\t';
+		}
+		return csvReader;
+	}
+
+	/**
+	 * 从给定的输入流读取
+	 *
+	 * @param inputStream
+	 * @return
+	 * @throws Exception
+	 */
+	public static CsvReader build(InputStream inputStream) throws Exception {
+		if (inputStream == null) {
+			throw new Exception("没有文件或输入流可以读取");
+		}
+		CsvReader csvReader = FuncUtil.create(CsvReader::new);
+		csvReader.inputStream = inputStream;
+		return csvReader;
+	}
+
+	/**
+	 * 指定分隔符，tsv文件使用制表符
+	 *
+	 * @param separator
+	 * @return
+	 */
+	public CsvReader withSeparator(char separator) {
+		this.separator = separator;
+		return this;
+	}
+
+	/**
+	 * 指定字符集，默认utf-8
+	 *
+	 * @param charset
+	 * @return
+	 */
+	public CsvReader withCharset(Charset charset) {
+		this.charset = charset;
+		return this;
+	}
+
+	/**
+	 * 注册读数据类的字段转换器，单元格中是字段的文本
+	 *
+	 * @param <T>
+	 * @param fieldName
+	 * @param readConverter
+	 * @return
+	 */
+	public <T> CsvReader registerConverter(String fieldName, Converter<Cell, T> readConverter) {
+		mutableConverters().registerConverter(fieldName, readConverter);
+		return this;
+	}
+
+	/**
+	 * 注册读数据类的字段转换器，单元格中是字段的文本
+	 *
+	 * @param <T>
+	 * @param readConverters
+	 * @return
+	 */
+	public <T> CsvReader registerConverters(Map<String, Converter<Cell, T>> readConverters) {
+		if (readConverters != null && !readConverters.isEmpty()) {
+			for (Entry<String, Converter<Cell, T>> entry : readConverters.entrySet()) {
+				mutableConverters().registerConverter(entry.getKey(), entry.getValue());
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * 使用已冻结的转换器，冻结的转换器读完不会被清空，可以在多个实例和线程间共享
+	 *
+	 * @param converters
+	 * @return
+	 */
+	public CsvReader withConverters(Converters converters) {
+		if (converters != null) {
+			this.converters = converters.freeze();
+		}
+		return this;
+	}
+
+	/**
+	 * 可以注册的转换器，当前转换器已冻结时复制一份
+	 *
+	 * @return
+	 */
+	private Converters mutableConverters() {
+		if (converters.isFrozen()) {
+			converters = converters.copy();
+		}
+		return converters;
+	}
+
+	/**
+	 * 指定列索引和字段映射，将字段列表转换成Map，列索引和字段映射
+	 *
+	 * @param fieldNames
+	 * @return
+	 */
+	public CsvReader withColumnField(List<String> fieldNames) {
+		if (columnFieldMap == null) {
+			columnFieldMap = new HashMap<Integer, String>();
+		}
+		columnFieldMap.clear();
+		for (int i = 0, len = fieldNames.size(); i < len; i++) {
+			columnFieldMap.put(i, fieldNames.get(i));
+		}
+		return this;
+	}
+
+	/**
+	 * 指定列索引和字段映射
+	 *
+	 * @param columnFieldMap
+	 * @return
+	 */
+	public CsvReader withColumnField(Map<Integer, String> columnFieldMap) {
+		this.columnFieldMap = columnFieldMap;
+		return this;
+	}
+
+	/**
+	 * 读取数据，第一行作为表头，按注解最后一行表头的名称找到每个字段所在的列
+	 *
+	 * @param <T>
+	 * @param clazz
+	 * @return
+	 * @throws Exception
+	 */
+	public <T> List<T> doRead(Class<T> clazz) throws Exception {
+		List<T> result = new ArrayList<T>();
+		analysisCsv(-1, clazz, (rowIndex, t) -> result.add(t));
+		return result;
+	}
+
+	/**
+	 * 从指定行开始读取数据，按注解的列序号或者指定的列索引和字段映射读取
+	 *
+	 * @param <T>
+	 * @param startRow
+	 * @param clazz
+	 * @return
+	 * @throws Exception
+	 */
+	public <T> List<T> doRead(int startRow, Class<T> clazz) throws Exception {
+		if (startRow < 0) {
+			throw new Exception("没有足够的行可以读取。");
+		}
+		List<T> result = new ArrayList<T>();
+		analysisCsv(startRow, clazz, (rowIndex, t) -> result.add(t));
+		return result;
+	}
+
+	/**
+	 * 读取数据，第一行作为表头，每解析完一行就交给行处理器，不保留结果列表
+	 *
+	 * @param <T>
+	 * @param clazz
+	 * @param rowHandler
+	 * @return 处理的行数
+	 * @throws Exception
+	 */
+	public <T> int doRead(Class<T> clazz, RowHandler<T> rowHandler) throws Exception {
+		return analysisCsv(-1, clazz, rowHandler);
+	}
+
+	/**
+	 * 从指定行开始读取数据，每解析完一行就交给行处理器，不保留结果列表
+	 *
+	 * @param <T>
+	 * @param startRow
+	 * @param clazz
+	 * @param rowHandler
+	 * @return 处理的行数
+	 * @throws Exception
+	 */
+	public <T> int doRead(int startRow, Class<T> clazz, RowHandler<T> rowHandler) throws Exception {
+		if (startRow < 0) {
+			throw new Exception("没有足够的行可以读取。");
+		}
+		return analysisCsv(startRow, clazz, rowHandler);
+	}
+
+	/**
+	 * 逐行解析文件，跳过空行
+	 *
+	 * @param <T>
+	 * @param startRow 开始读取的行号，小于0时第一行作为表头
+	 * @param clazz
+	 * @param rowHandler
+	 * @return 处理的行数
+	 * @throws Exception
+	 */
+	private <T> int analysisCsv(int startRow, Class<T> clazz, RowHandler<T> rowHandler) throws Exception {
+		if (clazz == null) {
+			throw new Exception("必须指定读取数据的类。");
+		}
+		if (rowHandler == null) {
+			throw new Exception("必须指定行数据处理器");
+		}
+		if (startRow < 0 && columnFieldMap != null && !columnFieldMap.isEmpty()) {
+			throw new Exception("指定列索引和字段映射时，必须给定开始读取数据的行索引。");
+		}
+		int count = 0;
+		try {
+			scanner = file != null ? CsvScanner.build(file, charset, separator)
+					: CsvScanner.build(inputStream, charset, separator);
+			Map<Integer, String> columnFields;
+			if (startRow < 0) {
+				if (!scanner.nextRecord()) {
+					throw new Exception("没有足够的行可以读取。");
+				}
+				columnFields = headColumnFieldMap(clazz);
+				startRow = 1;
+			} else if (columnFieldMap != null && !columnFieldMap.isEmpty()) {
+				columnFields = columnFieldMap;
+			} else {
+				columnFields = SheetUtil.columnFieldMap(clazz);
+			}
+			CsvColumn[] columns = CsvColumn.build(clazz, columnFields, converters.snapshot(), this::scratchCell, true);
+			BeanBinder<T> beanBinder = BeanBinder.of(clazz);
+			while (scanner.nextRecord()) {
+				int rowIndex = scanner.getRecordNum();
+				if (rowIndex < startRow || scanner.isBlankRecord()) {
+					continue;
+				}
+				T t = beanBinder.newInstance();
+				try {
+					for (CsvColumn column : columns) {
+						column.bind(t, scanner);
+					}
+				} catch (Exception e) {
+					throw new Exception("第" + (rowIndex + 1) + "行数据解析出现异常，" + e.getMessage(), e);
+				}
+				rowHandler.handle(rowIndex, t);
+				count++;
+			}
+		} catch (Exception e) {
+			logger.info("读取csv文件出现异常");
+			throw new Exception("读取csv文件出现异常，" + e.getMessage(), e);
+		} finally {
+			// 清空当前读转换器
+			converters.clearConverter();
+			// 每次读完就清空列索引和字段的映射，所以每次读之前给定列索引和字段的映射
+			if (columnFieldMap != null) {
+				columnFieldMap.clear();
+			}
+			if (autoClose) {
+				complete();
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * 当前行作为表头，按注解最后一行表头的名称找到字段所在的列
+	 *
+	 * @param clazz
+	 * @return
+	 * @throws Exception 没有一列和注解匹配
+	 */
+	private Map<Integer, String> headColumnFieldMap(Class<?> clazz) throws Exception {
+		Map<String, String> headFieldMap = ExcelClassMetadata.of(clazz).getHeadLastRowFieldMap();
+		Map<Integer, String> columnFields = new HashMap<Integer, String>();
+		for (int i = 0, len = scanner.getFieldCount(); i < len; i++) {
+			String fieldName = headFieldMap.get(scanner.getString(i).trim());
+			if (fieldName != null) {
+				columnFields.put(i, fieldName);
+			}
+		}
+		if (columnFields.isEmpty()) {
+			throw new Exception("第1行没有找到表头");
+		}
+		return columnFields;
+	}
+
+	/**
+	 * 调用转换器的临时单元格，第一次使用时创建，释放资源时关闭所在的工作簿
+	 *
+	 * @return
+	 */
+	private Cell scratchCell() {
+		if (scratchWorkbook == null) {
+			scratchWorkbook = new XSSFWorkbook();
+			scratchWorkbook.createSheet().createRow(0).createCell(0);
+		}
+		return scratchWorkbook.getSheetAt(0).getRow(0).getCell(0);
+	}
+
+	/**
+	 * 设置是否自动关闭资源
+	 *
+	 * @param autoClose
+	 * @return
+	 */
+	public CsvReader withAutoClose(boolean autoClose) {
+		this.autoClose = autoClose;
+		return this;
+	}
+
+	/**
+	 * 释放资源
+	 *
+	 * @return
+	 */
+	public boolean complete() {
+		try {
+			if (scanner != null) {
+				scanner.close();
+				scanner = null;
+			}
+			if (inputStream != null) {
+				inputStream.close();
+			}
+			if (scratchWorkbook != null) {
+				scratchWorkbook.close();
+				scratchWorkbook = null;
+			}
+			logger.fine("资源释放完成");
+		} catch (Exception ex) {
+			logger.warning("关闭IO资源发生异常");
+			ex.printStackTrace();
+			return false;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,430 @@
+package com.example.excel;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import com.example.excel.util.ColIndexFieldMap;
+import com.example.excel.util.ColumnField;
+import com.example.excel.util.Converter;
+import com.example.excel.util.Converters;
+import com.example.excel.util.CsvColumn;
+import com.example.excel.util.ExcelClassMetadata;
+import com.example.excel.util.FuncUtil;
+import com.example.excel.util.SheetUtil;
+import com.example.excel.util.WorkbookUtil;
+
+/**
+ * csv/tsv文件写入，和excel写入使用相同的注解、列索引和字段映射以及转换器，不经过poi。
+ * 每一行先拼接到行缓冲区，缓冲区满后再编码写出，数据边写边输出，不在内存中保留
+ */
+public class CsvWriter {
+	private static final Logger logger = Logger.getLogger(CsvWriter.class.getName());
+	// 行缓冲区超过这个长度就写出
+	private static final int FLUSH_SIZE = 64 * 1024;
+	// 标记是否需要自动释放资源
+	private boolean autoClose = true;
+	// 输出文件
+	private File file;
+	// 输出流
+	private OutputStream outputStream;
+	private Writer writer;
+	// 字符集
+	private Charset charset = StandardCharsets.UTF_8;
+	// 分隔符
+	private char separator = ',';
+	// 是否在文件开头写入BOM，excel打开utf-8的csv文件需要BOM
+	private boolean bom = false;
+	// 转换器集合
+	private Converters converters;
+	// 表头列和字段关系信息
+	private List<ColumnField> columnFieldList;
+	// 表头列索引和字段映射
+	private ColIndexFieldMap colIndexFieldMap;
+	// 调用转换器的临时单元格所在的工作簿
+	private Workbook scratchWorkbook;
+
+	/**
+	 * 不提供外部创建实例
+	 */
+	private CsvWriter() {
+		converters = Converters.build();
+	}
+
+	/**
+	 * 写入给定的文件，tsv文件默认使用制表符分隔
+	 *
+	 * @param fileName
+	 * @return
+	 * @throws Exception
+	 */
+	public static CsvWriter build(String fileName) throws Exception {
+		return build(new File(fileName));
+	}
+
+	/**
+	 * 写入给定的文件对象，tsv文件默认使用制表符分隔
+	 *
+	 * @param file
+	 * @return
+	 * @throws Exception
+	 */
+	public static CsvWriter build(File file) throws Exception {
+		if (file == null) {
+			throw new Exception("没有文件或输出流可以写入");
+		}
+		CsvWriter csvWriter = FuncUtil.create(CsvWriter::new);
+		csvWriter.file = file;
+		if (file.getName().toLowerCase().endsWith(WorkbookUtil.TSV)) {
+			csvWriter.separator = '\t';
+		}
+		return csvWriter;
+	}
+
+	/**
+	 * 写入给定的输出流
+	 *
+	 * @param outputStream
+	 * @return
+	 * @throws Exception
+	 */
+	public static CsvWriter build(OutputStream outputStream) throws Exception {
+		if (outputStream == null) {
+			throw new Exception("没有文件或输出流可以写入");
+		}
+		CsvWriter csvWriter = FuncUtil.create(CsvWriter::new);
+		csvWriter.outputStream = outputStream;
+		return csvWriter;
+	}
+
+	/**
+	 * 指定分隔符，tsv文件使用制表符
+	 *
+	 * @param separator
+	 * @return
+	 */
+	public CsvWriter withSeparator(char separator) {
+		this.separator = separator;
+		return this;
+	}
+
+	/**
+	 * 指定字符集，默认utf-8
+	 *
+	 * @param charset
+	 * @return
+	 */
+	public CsvWriter withCharset(Charset charset) {
+		this.charset = charset;
+		return this;
+	}
+
+	/**
+	 * 是否在文件开头写入BOM
+	 *
+	 * @param bom
+	 * @return
+	 */
+	public CsvWriter withBom(boolean bom) {
+		this.bom = bom;
+		return this;
+	}
+
+	/**
+	 * 设置是否自动关闭资源
+	 *
+	 * @param autoClose
+	 * @return
+	 */
+	public CsvWriter withAutoClose(boolean autoClose) {
+		this.autoClose = autoClose;
+		return this;
+	}
+
+	/**
+	 * 注册写数据类的字段转换器，转换器写入单元格的值作为字段的文本
+	 *
+	 * @param <T>
+	 * @param fieldName
+	 * @param writeConverter
+	 * @return
+	 */
+	public <T> CsvWriter registerConverter(String fieldName, Converter<Cell, T> writeConverter) {
+		mutableConverters().registerConverter(fieldName, writeConverter);
+		return this;
+	}
+
+	/**
+	 * 注册写数据类的字段转换器，转换器写入单元格的值作为字段的文本
+	 *
+	 * @param <T>
+	 * @param writeConverters
+	 * @return
+	 */
+	public <T> CsvWriter registerConverters(Map<String, Converter<Cell, T>> writeConverters) {
+		if (writeConverters != null && !writeConverters.isEmpty()) {
+			for (Entry<String, Converter<Cell, T>> entry : writeConverters.entrySet()) {
+				mutableConverters().registerConverter(entry.getKey(), entry.getValue());
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * 使用已冻结的转换器，冻结的转换器写完不会被清空，可以在多个实例和线程间共享
+	 *
+	 * @param converters
+	 * @return
+	 */
+	public CsvWriter withConverters(Converters converters) {
+		if (converters != null) {
+			this.converters = converters.freeze();
+		}
+		return this;
+	}
+
+	/**
+	 * 可以注册的转换器，当前转换器已冻结时复制一份
+	 *
+	 * @return
+	 */
+	private Converters mutableConverters() {
+		if (converters.isFrozen()) {
+			converters = converters.copy();
+		}
+		return converters;
+	}
+
+	/**
+	 * 注册列名称和字段关系信息列表，表头使用每一列的最后一个名称
+	 *
+	 * @param columnFieldList
+	 * @return
+	 */
+	public CsvWriter registerColumnFieldList(List<ColumnField> columnFieldList) {
+		this.columnFieldList = columnFieldList;
+		if (colIndexFieldMap == null) {
+			colIndexFieldMap = ColIndexFieldMap.build();
+		}
+		colIndexFieldMap.withColnumFieldMap(columnFieldList);
+		return this;
+	}
+
+	/**
+	 * 写入数据，第一行写表头
+	 *
+	 * @param <T>
+	 * @param dataList
+	 * @return
+	 * @throws Exception
+	 */
+	public <T> CsvWriter doWrite(List<T> dataList) throws Exception {
+		if (dataList == null || dataList.isEmpty()) {
+			throw new Exception("没有数据可以写。");
+		}
+		return dataToCsv(dataList.iterator());
+	}
+
+	/**
+	 * 逐条写入迭代器中的数据，第一行写表头
+	 *
+	 * @param <T>
+	 * @param dataIterator
+	 * @return
+	 * @throws Exception
+	 */
+	public <T> CsvWriter doWrite(Iterator<T> dataIterator) throws Exception {
+		return dataToCsv(dataIterator);
+	}
+
+	/**
+	 * 流式写入数据，第一行写表头，写完后关闭流
+	 *
+	 * @param <T>
+	 * @param dataStream
+	 * @return
+	 * @throws Exception
+	 */
+	public <T> CsvWriter doWrite(Stream<T> dataStream) throws Exception {
+		if (dataStream == null) {
+			throw new Exception("没有数据可以写。");
+		}
+		try {
+			return dataToCsv(dataStream.iterator());
+		} finally {
+			dataStream.close();
+		}
+	}
+
+	/**
+	 * 逐行写入数据，按列索引在对应位置写入字段，没有字段的列写空
+	 *
+	 * @param <T>
+	 * @param dataIterator
+	 * @return
+	 * @throws Exception
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> CsvWriter dataToCsv(Iterator<T> dataIterator) throws Exception {
+		if (dataIterator == null || !dataIterator.hasNext()) {
+			logger.warning("没有数据可以写。");
+			throw new Exception("没有数据可以写。");
+		}
+		try {
+			T data = dataIterator.next();
+			Class<T> clazz = (Class<T>) data.getClass();
+			Map<Integer, String> columnMap;
+			Map<Integer, String> headMap;
+			if (columnFieldList != null && !columnFieldList.isEmpty()) {
+				columnMap = colIndexFieldMap.getColumnFieldMap();
+				headMap = new HashMap<Integer, String>();
+				for (ColumnField columnField : columnFieldList) {
+					String[] colNames = columnField.getColNames();
+					if (colNames != null && colNames.length > 0) {
+						headMap.put(columnField.getColIndex(), colNames[colNames.length - 1]);
+					}
+				}
+			} else {
+				columnMap = SheetUtil.columnFieldMap(clazz);
+				headMap = ExcelClassMetadata.of(clazz).getHeadLastRowNameMap();
+			}
+			if (columnMap == null || columnMap.isEmpty()) {
+				logger.warning("没有表格列和字段对应关系。");
+				throw new Exception("没有表格列和字段对应关系，不能写入数据");
+			}
+			CsvColumn[] columns = CsvColumn.build(clazz, columnMap, converters.snapshot(), this::scratchCell, false);
+			int colCount = columns[columns.length - 1].getColIndex() + 1;
+			Writer out = writer();
+			StringBuilder line = new StringBuilder(FLUSH_SIZE + 1024);
+			if (bom) {
+				line.append('\uFEFF');
+			}
+			// 表头行
+			for (int i = 0; i < colCount; i++) {
+				if (i > 0) {
+					line.append(separator);
+				}
+				String name = headMap.get(i);
+				if (name != null) {
+					CsvColumn.appendField(line, name, separator);
+				}
+			}
+			line.append("\r\n");
+			while (true) {
+				int col = 0;
+				for (CsvColumn column : columns) {
+					// 补齐中间没有字段的列
+					for (; col < column.getColIndex(); col++) {
+						if (col > 0) {
+							line.append(separator);
+						}
+					}
+					if (col > 0) {
+						line.append(separator);
+					}
+					column.write(data, line, separator);
+					col++;
+				}
+				line.append("\r\n");
+				if (line.length() >= FLUSH_SIZE) {
+					out.append(line);
+					line.setLength(0);
+				}
+				if (!dataIterator.hasNext()) {
+					break;
+				}
+				data = dataIterator.next();
+			}
+			out.append(line);
+			out.flush();
+			logger.fine("所有数据写入csv文件完毕。");
+		} catch (Exception e) {
+			logger.info("写csv文件出错");
+			throw new Exception("写csv文件出错，" + e.getMessage(), e);
+		} finally {
+			converters.clearConverter();
+			if (colIndexFieldMap != null) {
+				colIndexFieldMap.clear();
+			}
+			if (autoClose) {
+				complete();
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * 输出的字符流，文件使用文件通道写入
+	 *
+	 * @return
+	 * @throws Exception
+	 */
+	private Writer writer() throws Exception {
+		if (writer == null) {
+			if (file != null) {
+				FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+						StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+				writer = Channels.newWriter(channel, charset.newEncoder(), FLUSH_SIZE);
+			} else {
+				writer = new OutputStreamWriter(outputStream, charset);
+			}
+		}
+		return writer;
+	}
+
+	/**
+	 * 调用转换器的临时单元格，第一次使用时创建，释放资源时关闭所在的工作簿
+	 *
+	 * @return
+	 */
+	private Cell scratchCell() {
+		if (scratchWorkbook == null) {
+			scratchWorkbook = new XSSFWorkbook();
+			scratchWorkbook.createSheet().createRow(0).createCell(0);
+		}
+		return scratchWorkbook.getSheetAt(0).getRow(0).getCell(0);
+	}
+
+	/**
+	 * 释放资源
+	 *
+	 * @return
+	 */
+	public boolean complete() {
+		try {
+			if (writer != null) {
+				writer.close();
+				writer = null;
+			} else if (outputStream != null) {
+				outputStream.close();
+			}
+			if (scratchWorkbook != null) {
+				scratchWorkbook.close();
+				scratchWorkbook = null;
+			}
+			logger.fine("资源释放完成");
+		} catch (Exception e) {
+			logger.warning("关闭IO资源发生异常");
+			e.printStackTrace();
+			return false;
+		}
+		return true;
+	}
+}
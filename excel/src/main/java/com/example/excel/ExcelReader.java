@@ -1,18 +1,32 @@
 package com.example.excel;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.InputStream;
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
-import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
@@ -21,25 +35,40 @@ import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import com.example.excel.util.CellUtil;
 import com.example.excel.util.ColIndexFieldMap;
 import com.example.excel.util.ColumnField;
+import com.example.excel.util.ColumnarSheet;
 import com.example.excel.util.Converter;
 import com.example.excel.util.Converters;
+import com.example.excel.util.DateFormatCache;
+import com.example.excel.util.FileUtil;
 import com.example.excel.util.FuncUtil;
+import com.example.excel.util.ImportPipeline;
+import com.example.excel.util.ImportResult;
 import com.example.excel.util.Inspect;
+import com.example.excel.util.RowBinder;
+import com.example.excel.util.RowHandler;
 import com.example.excel.util.RowUtil;
 import com.example.excel.util.SheetUtil;
+import com.example.excel.util.StreamSheet;
 import com.example.excel.util.WorkbookUtil;
+import com.example.excel.util.XlsxStreamReader;
 
 public class ExcelReader {
 	private static final Logger logger = Logger.getLogger(ExcelReader.class.getName());
 	// 单个sheet表的最大行数
 	private static final int MAXROW = 100000;
+	// 默认查找表头的最多行数
+	private static final int HEAD_SCAN_ROWS = 100;
 	// 是否自动关闭资源
 	private boolean autoClose = true;
 	// 需要读取的文件
 	private File file;
 	private InputStream inputStream;
+	// 输入流复制出的临时文件，释放资源时删除
+	private File tempFile;
 	// 工作簿
 	private Workbook workbook;
+	// 流式读取xlsx文件，不为null时不构建工作簿
+	private XlsxStreamReader streamReader;
 	//转换器
 	private Converters converters;
 	// 默认转换器
@@ -50,6 +79,14 @@ public class ExcelReader {
 	private ColIndexFieldMap colIndexFieldMap;
 	// 列索引和字段映射
 	private Map<Integer, String> columnFieldMap;
+	// 按注解查找表头时最多检查的行数
+	private int headScanRows = HEAD_SCAN_ROWS;
+	// 最后一行表头可能的行序号，小于0时不提示
+	private int headRowHint = -1;
+	// 并行解析时每个任务解析的行数，小于1时不并行解析
+	private int parallelChunkRows = 0;
+	// 并行解析行数据的线程池，为null时使用公共的ForkJoinPool
+	private ExecutorService bindExecutor;
 
 	/**
 	 * 不对外部提供创建实例
@@ -60,7 +97,7 @@ public class ExcelReader {
 		converters = Converters.build();
 	}
 	/**
-	 * 获取工作簿
+	 * 获取工作簿，流式读取时没有工作簿，返回null
 	 * @return
 	 */
     public Workbook getWorkbook() {
@@ -76,7 +113,7 @@ public class ExcelReader {
 	 * @return
 	 */
 	public <T> ExcelReader registerConverter(String fieldName, Converter<Cell, T> readConverter) {
-		converters.registerConverter(fieldName, readConverter);
+		mutableConverters().registerConverter(fieldName, readConverter);
 		return this;
 	}
 
@@ -91,12 +128,38 @@ public class ExcelReader {
 	public <T> ExcelReader registerConverters(Map<String, Converter<Cell, T>> readConverters) {
 		if (readConverters != null && !readConverters.isEmpty()) {
 			for (Entry<String, Converter<Cell, T>> entry : readConverters.entrySet()) {
-				converters.registerConverter(entry.getKey(), entry.getValue());
+				mutableConverters().registerConverter(entry.getKey(), entry.getValue());
 			}
 		}
 		return this;
 	}
 
+	/**
+	 * 使用已冻结的转换器，冻结的转换器读写完不会被清空，可以在多个实例和线程间共享；
+	 * 没有冻结的转换器先冻结再使用。之后再注册转换器时复制一份再注册，不影响共享的转换器
+	 * 
+	 * @param converters
+	 * @return
+	 */
+	public ExcelReader withConverters(Converters converters) {
+		if (converters != null) {
+			this.converters = converters.freeze();
+		}
+		return this;
+	}
+
+	/**
+	 * 可以注册的转换器，当前转换器已冻结时复制一份
+	 * 
+	 * @return
+	 */
+	private Converters mutableConverters() {
+		if (converters.isFrozen()) {
+			converters = converters.copy();
+		}
+		return converters;
+	}
+
 	/**
 	 * 指定列索引和字段映射，将字段列表转换成Map，列索引和字段映射
 	 * 
@@ -151,7 +214,7 @@ public class ExcelReader {
 	}
 
 	/**
-	 * 从给定的输入流读取
+	 * 从给定的输入流读取，输入流先复制到临时文件再按文件打开，释放资源时关闭输入流并删除临时文件
 	 * 
 	 * @param inputStream
 	 * @return
@@ -163,6 +226,63 @@ public class ExcelReader {
 		return excelReader.build();
 	}
 
+	/**
+	 * 流式读取给定的xlsx文件，逐行解析sheet表，内存占用只和单行数据有关，不受单个sheet表最大行数限制
+	 * 
+	 * @param fileName
+	 * @return
+	 * @throws Exception
+	 */
+	public static ExcelReader buildStreaming(String fileName) throws Exception {
+		File file = new File(fileName);
+		return buildStreaming(file);
+	}
+
+	/**
+	 * 流式读取给定的xlsx文件对象，逐行解析sheet表，内存占用只和单行数据有关，不受单个sheet表最大行数限制
+	 * 
+	 * @param file
+	 * @return
+	 * @throws Exception
+	 */
+	public static ExcelReader buildStreaming(File file) throws Exception {
+		ExcelReader excelReader = FuncUtil.create(ExcelReader::new);
+		excelReader.streamReader = XlsxStreamReader.build(file);
+		return excelReader;
+	}
+
+	/**
+	 * 流式读取给定的xlsx输入流，输入流先复制到临时文件，释放资源时关闭输入流并删除临时文件
+	 * 
+	 * @param inputStream
+	 * @return
+	 * @throws Exception
+	 */
+	public static ExcelReader buildStreaming(InputStream inputStream) throws Exception {
+		if (inputStream == null) {
+			throw new Exception("没有文件或输入流可以读取");
+		}
+		ExcelReader excelReader = FuncUtil.create(ExcelReader::new);
+		excelReader.inputStream = inputStream;
+		excelReader.tempFile = FileUtil.spool(inputStream, WorkbookUtil.XLSX);
+		try {
+			excelReader.streamReader = XlsxStreamReader.build(excelReader.tempFile);
+		} catch (Exception e) {
+			FileUtil.deleteQuietly(excelReader.tempFile);
+			throw e;
+		}
+		return excelReader;
+	}
+
+	/**
+	 * 输入流复制出的临时文件，没有或者已经删除时为null
+	 * 
+	 * @return
+	 */
+	File getTempFile() {
+		return tempFile;
+	}
+
 	/**
 	 * 根据文件或输入流创建工作簿，优先文件创建工作簿
 	 * 
@@ -173,12 +293,20 @@ public class ExcelReader {
 		if (file != null && file.isFile()) {
 			workbook = WorkbookUtil.createWorkbook(file);
 		} else if (inputStream != null) {
-			workbook = WorkbookUtil.createWorkbook(inputStream);
+			// 按文件打开时压缩包中的内容按需读取，整个输入流不会缓存在内存中
+			tempFile = FileUtil.spool(inputStream, ".tmp");
+			try {
+				workbook = WorkbookUtil.openWorkbook(tempFile);
+			} catch (Exception e) {
+				FileUtil.deleteQuietly(tempFile);
+				tempFile = null;
+				throw e;
+			}
 		} else {
 			throw new Exception("没有文件或输入流可以读取");
 		}
+		// 输入流保留到释放资源时关闭
 		file = null ;
-		inputStream = null;
 		return this;
 	}
 
@@ -191,7 +319,7 @@ public class ExcelReader {
 	 * @throws Exception
 	 */
 	public <T> List<T> doRead(Class<T> clazz) throws Exception {
-		if (workbook.getNumberOfSheets() == 0) {
+		if (numberOfSheets() == 0) {
 			throw new Exception("没有足够的sheet表可以读取");
 		}
 		if(clazz == null) {
@@ -200,12 +328,12 @@ public class ExcelReader {
 		if(columnFieldMap!=null&&!columnFieldMap.isEmpty()) {
 			throw new Exception("指定列索引和字段映射时，必须给定开始读取数据的行索引。");
 		}
-		Sheet sheet = WorkbookUtil.getSheet(workbook);
-		int startRow = SheetUtil.templateHeadLastRowNum(sheet, clazz) + 1;
-		if (startRow < 1) {
-			logger.warning("没有读取到正确的表头");
+		if (streamReader != null) {
+			StreamSheet streamSheet = streamReader.getSheetAt(0);
+			return analysisSheet(streamSheet, headStartRow(streamSheet, clazz), clazz);
 		}
-		return analysisSheet(sheet, startRow, clazz);
+		Sheet sheet = WorkbookUtil.getSheet(workbook);
+		return analysisSheet(sheet, headStartRow(sheet, clazz), clazz);
 	}
 
 	/**
@@ -218,9 +346,12 @@ public class ExcelReader {
 	 * @throws Exception
 	 */
 	public <T> List<T> doRead(int startRow, Class<T> clazz) throws Exception {
-		if (workbook.getNumberOfSheets() == 0) {
+		if (numberOfSheets() == 0) {
 			throw new Exception("没有足够的sheet表可以读取");
 		}
+		if (streamReader != null) {
+			return analysisSheet(streamReader.getSheetAt(0), startRow, clazz);
+		}
 		Sheet sheet = WorkbookUtil.getSheet(workbook);
 		return analysisSheet(sheet, startRow, clazz);
 	}
@@ -235,7 +366,7 @@ public class ExcelReader {
 	 * @throws Exception
 	 */
 	public <T> List<T> doRead(String sheetName, Class<T> clazz) throws Exception {
-		if (sheetName == null || "".equals(sheetName) || workbook.getSheet(sheetName) == null) {
+		if (sheetName == null || "".equals(sheetName) || !hasSheet(sheetName)) {
 			throw new Exception(sheetName + "表不存在");
 		}
 		if (clazz == null) {
@@ -244,9 +375,12 @@ public class ExcelReader {
 		if(columnFieldMap!=null&&!columnFieldMap.isEmpty()) {
 			throw new Exception("指定列索引和字段映射时，必须给定开始读取数据的行索引。");
 		}
+		if (streamReader != null) {
+			StreamSheet streamSheet = streamReader.getSheet(sheetName);
+			return analysisSheet(streamSheet, headStartRow(streamSheet, clazz), clazz);
+		}
 		Sheet sheet = WorkbookUtil.getSheet(workbook, sheetName);
-		int startRow = SheetUtil.templateHeadLastRowNum(sheet, clazz) + 1;
-		return analysisSheet(sheet, startRow, clazz);
+		return analysisSheet(sheet, headStartRow(sheet, clazz), clazz);
 	}
 
 	/**
@@ -260,9 +394,12 @@ public class ExcelReader {
 	 * @throws Exception
 	 */
 	public <T> List<T> doRead(String sheetName, int startRow, Class<T> clazz) throws Exception {
-		if (sheetName == null || "".equals(sheetName) || workbook.getSheet(sheetName) == null) {
+		if (sheetName == null || "".equals(sheetName) || !hasSheet(sheetName)) {
 			throw new Exception(sheetName + "表不存在");
 		}
+		if (streamReader != null) {
+			return analysisSheet(streamReader.getSheet(sheetName), startRow, clazz);
+		}
 		Sheet sheet = WorkbookUtil.getSheet(workbook, sheetName);
 
 		return analysisSheet(sheet, startRow, clazz);
@@ -276,9 +413,12 @@ public class ExcelReader {
 	 * @throws Exception
 	 */
 	public List<Map<String, Object>> doRead(int startRow) throws Exception {
-		if (workbook.getNumberOfSheets() == 0) {
+		if (numberOfSheets() == 0) {
 			throw new Exception("没有足够的sheet表可以读取");
 		}
+		if (streamReader != null) {
+			return analysisSheetToMapList(streamReader.getSheetAt(0), startRow);
+		}
 		Sheet sheet = WorkbookUtil.getSheet(workbook);
 		return analysisSheetToMapList(sheet, startRow);
 	}
@@ -292,211 +432,1051 @@ public class ExcelReader {
 	 * @throws Exception
 	 */
 	public List<Map<String, Object>> doRead(String sheetName, int startRow) throws Exception {
-		if (sheetName == null || "".equals(sheetName) || workbook.getSheet(sheetName) == null) {
+		if (sheetName == null || "".equals(sheetName) || !hasSheet(sheetName)) {
 			throw new Exception(sheetName + "表不存在");
 		}
+		if (streamReader != null) {
+			return analysisSheetToMapList(streamReader.getSheet(sheetName), startRow);
+		}
 		Sheet sheet = WorkbookUtil.getSheet(workbook, sheetName);
 		return analysisSheetToMapList(sheet, startRow);
 	}
 
 	/**
-	 * 解析sheet表,获取T类型的列表数据
+	 * 按列读取数据，默认读取第一个sheet表，指定开始读取的行号，开始行的上一行作为表头行
 	 * 
-	 * @param <T>
-	 * @param sheet
 	 * @param startRow
-	 * @param clazz
 	 * @return
 	 * @throws Exception
 	 */
-	private <T> List<T> analysisSheet(Sheet sheet, int startRow, Class<T> clazz) throws Exception {
-		List<T> result = new ArrayList<T>();
-		try {
-			if (sheet == null) {
-				logger.info("不能解析空的sheet表");
-				throw new Exception("不能解析空的sheet表");
-			}
-			int rowCount = sheet.getPhysicalNumberOfRows();
-			if (rowCount <= startRow || startRow < 0 || rowCount < 0) {
-				logger.info("没有足够的行可以读取。");
-				throw new Exception("没有足够的行可以读取。");
-			}
-			if (rowCount - startRow > MAXROW) {
-				throw new Exception("有效数据超过最大行数，当前有效数据行数为" + (rowCount - startRow) + "，单个sheet表效数据行数最大行数为" + MAXROW
-						+ "，请拆分sheet表。");
-			}
-			if (clazz == null) {
-				throw new Exception("必须指定读取数据的类");
-			}
-			
-			int rowLastNum = sheet.getLastRowNum();
-			Map<Integer, String> columnFields = this.columnFieldMap; 
-			 if(columnFieldMap==null||columnFieldMap.isEmpty()) {
-				 columnFields = SheetUtil.columnFieldMap(clazz);
-	           }
-
-			for (int i = startRow; i <= rowLastNum; i++) {
-				Row row = SheetUtil.getRow(sheet, i);
-				result.add(analysisRow(row, columnFields, clazz));
-			}
-
-		} catch (Exception e) {
-			logger.info("读取" + sheet.getSheetName() + "表出现异常");
-			e.printStackTrace();
-			throw new Exception("读取" + sheet.getSheetName() + "表出现异常");
-		} finally {
-			// 清空当前读转换器
-			converters.clearConverter();
-			// 每次读完sheet表就清空列索引和字段的映射，所以每次读sheet表之前给定列索引和字段的映射
-			if(columnFieldMap!=null) {
-				columnFieldMap.clear();
-			}
-			if (autoClose) {
-				complete();
-			}
+	public ColumnarSheet doReadColumns(int startRow) throws Exception {
+		if (numberOfSheets() == 0) {
+			throw new Exception("没有足够的sheet表可以读取");
 		}
-		return result;
-
+		if (streamReader != null) {
+			return analysisSheetToColumns(streamReader.getSheetAt(0), startRow);
+		}
+		Sheet sheet = WorkbookUtil.getSheet(workbook);
+		return analysisSheetToColumns(sheet, startRow);
 	}
 
 	/**
-	 * 解析完表格，对每一条数据执行校验方法
+	 * 按列读取数据，指定sheet表名称，指定开始读取的行号，开始行的上一行作为表头行
 	 * 
-	 * @param <T>
 	 * @param sheetName
 	 * @param startRow
-	 * @param clazz
-	 * @param dataCheck
 	 * @return
 	 * @throws Exception
 	 */
-	private <T> List<T> doReadCheck(Sheet sheet, int startRow, Class<T> clazz, Inspect<T> dataCheck) throws Exception {
-		List<T> result = new ArrayList<T>();
-		try {
-			Map<Integer, T> rowDatas = sheetDataToMap(sheet, startRow, clazz);
-			boolean mark = true;
-			for (Integer k : rowDatas.keySet()) {
-				mark &= dataCheck.check(k, rowDatas.get(k));
-				result.add(rowDatas.get(k));
-			}
-			// 有校验不通过的数据，则清空结果
-			if (!mark) {
-				result.clear();
-			}
-
-		} catch (Exception e) {
-			logger.info("发生未知异常");
-			e.printStackTrace();
-			throw new Exception(e.getMessage());
-		} finally {
-			if (autoClose) {
-				complete();
-			}
+	public ColumnarSheet doReadColumns(String sheetName, int startRow) throws Exception {
+		if (sheetName == null || "".equals(sheetName) || !hasSheet(sheetName)) {
+			throw new Exception(sheetName + "表不存在");
 		}
-		return result;
+		if (streamReader != null) {
+			return analysisSheetToColumns(streamReader.getSheet(sheetName), startRow);
+		}
+		Sheet sheet = WorkbookUtil.getSheet(workbook, sheetName);
+		return analysisSheetToColumns(sheet, startRow);
 	}
 
 	/**
-	 * 解析完表格，对每一条数据执行校验方法 默认读取第一个sheet
+	 * 默认读取第一个sheet表，每解析完一行就交给行处理器，不保留结果列表
 	 * 
 	 * @param <T>
 	 * @param clazz
-	 * @param dataCheck
-	 * @return
+	 * @param rowHandler
+	 * @return 处理的行数
 	 * @throws Exception
 	 */
-	public <T> List<T> doReadCheck(Class<T> clazz, Inspect<T> dataCheck) throws Exception {
+	public <T> int doRead(Class<T> clazz, RowHandler<T> rowHandler) throws Exception {
+		return handleRows(openRows(null, -1, clazz), rowHandler);
+	}
 
-		if (workbook.getNumberOfSheets() == 0) {
-			throw new Exception("sheet表格不存在");
-		}
-		if(clazz==null) {
-			throw new Exception("必须指定读取数据的类。");
-		}
-		if(columnFieldMap!=null&&!columnFieldMap.isEmpty()) {
-			throw new Exception("指定列索引和字段映射时，必须给定开始读取数据的行索引。");
-		}
-		Sheet sheet = WorkbookUtil.getSheet(workbook);
-		int startRow = SheetUtil.templateHeadLastRowNum(sheet, clazz) + 1;
+	/**
+	 * 默认读取第一个sheet表，从指定行开始读，每解析完一行就交给行处理器，不保留结果列表
+	 * 
+	 * @param <T>
+	 * @param startRow
+	 * @param clazz
+	 * @param rowHandler
+	 * @return 处理的行数
+	 * @throws Exception
+	 */
+	public <T> int doRead(int startRow, Class<T> clazz, RowHandler<T> rowHandler) throws Exception {
+		return handleRows(openRows(null, startRow, clazz), rowHandler);
+	}
 
-		return doReadCheck(sheet, startRow, clazz, dataCheck);
+	/**
+	 * 指定sheet表名，每解析完一行就交给行处理器，不保留结果列表
+	 * 
+	 * @param <T>
+	 * @param sheetName
+	 * @param clazz
+	 * @param rowHandler
+	 * @return 处理的行数
+	 * @throws Exception
+	 */
+	public <T> int doRead(String sheetName, Class<T> clazz, RowHandler<T> rowHandler) throws Exception {
+		return handleRows(openRows(sheetName, -1, clazz), rowHandler);
 	}
 
 	/**
-	 * 解析完表格，对每一条数据执行校验方法 默认读取第一个sheet并且从指定的行开始读取
+	 * 指定sheet表名和开始读取的行号，每解析完一行就交给行处理器，不保留结果列表
 	 * 
 	 * @param <T>
+	 * @param sheetName
 	 * @param startRow
 	 * @param clazz
-	 * @param dataCheck
-	 * @return
+	 * @param rowHandler
+	 * @return 处理的行数
 	 * @throws Exception
 	 */
-	public <T> List<T> doReadCheck(int startRow, Class<T> clazz, Inspect<T> dataCheck) throws Exception {
-		if (workbook.getNumberOfSheets() == 0) {
-			throw new Exception("sheet表格不存在");
-		}
-		Sheet sheet = WorkbookUtil.getSheet(workbook);
-
-		return doReadCheck(sheet, startRow, clazz, dataCheck);
+	public <T> int doRead(String sheetName, int startRow, Class<T> clazz, RowHandler<T> rowHandler)
+			throws Exception {
+		return handleRows(openRows(sheetName, startRow, clazz), rowHandler);
+	}
 
+	/**
+	 * 默认读取第一个sheet表，返回逐行解析的迭代器，读完最后一行自动释放资源
+	 * 
+	 * @param <T>
+	 * @param clazz
+	 * @return
+	 * @throws Exception
+	 */
+	public <T> Iterator<T> doReadIterator(Class<T> clazz) throws Exception {
+		return openRows(null, -1, clazz);
 	}
 
 	/**
-	 * 行索引和数据关系映射
+	 * 默认读取第一个sheet表，从指定行开始读，返回逐行解析的迭代器，读完最后一行自动释放资源
 	 * 
 	 * @param <T>
-	 * @param sheet
 	 * @param startRow
 	 * @param clazz
 	 * @return
 	 * @throws Exception
 	 */
-	private <T> Map<Integer, T> sheetDataToMap(Sheet sheet, int startRow, Class<T> clazz) throws Exception {
-		Map<Integer, T> result = new HashMap<Integer, T>();
-		try {
-			if (sheet == null) {
-				logger.info("不能解析空的sheet表");
-				throw new Exception("不能解析空的sheet表");
-			}
-			int rowCount = sheet.getPhysicalNumberOfRows();
-			if (rowCount <= startRow || startRow < 0 || rowCount < 0) {
-				logger.info("没有足够的行可以读取。");
-				throw new Exception("没有足够的行可以读取。");
-			}
-			if (rowCount - startRow > MAXROW) {
-				throw new Exception("有效数据超过最大行数，当前有效数据行数为" + (rowCount - startRow) + "，单个sheet表效数据行数最大行数为" + MAXROW
-						+ "，请拆分sheet表。");
-			}
-
-			int rowLastNum = sheet.getLastRowNum();
-
-			Map<Integer, String> columnFieldMap = SheetUtil.columnFieldMap(clazz);
+	public <T> Iterator<T> doReadIterator(int startRow, Class<T> clazz) throws Exception {
+		return openRows(null, startRow, clazz);
+	}
 
-			for (int i = startRow; i <= rowLastNum; i++) {
-				Row row = SheetUtil.getRow(sheet, i);
-				result.put(i, analysisRow(row, columnFieldMap, clazz));
-			}
+	/**
+	 * 指定sheet表名，返回逐行解析的迭代器，读完最后一行自动释放资源
+	 * 
+	 * @param <T>
+	 * @param sheetName
+	 * @param clazz
+	 * @return
+	 * @throws Exception
+	 */
+	public <T> Iterator<T> doReadIterator(String sheetName, Class<T> clazz) throws Exception {
+		return openRows(sheetName, -1, clazz);
+	}
 
-		} catch (Exception e) {
-			logger.info("读取" + sheet.getSheetName() + "表出现异常");
-			e.printStackTrace();
-			throw new Exception("读取" + sheet.getSheetName() + "表出现异常");
-		} finally {
-			// 清空当前读转换器
-			converters.clearConverter();
-			if (autoClose) {
-				complete();
-			}
-		}
-		return result;
+	/**
+	 * 指定sheet表名和开始读取的行号，返回逐行解析的迭代器，读完最后一行自动释放资源
+	 * 
+	 * @param <T>
+	 * @param sheetName
+	 * @param startRow
+	 * @param clazz
+	 * @return
+	 * @throws Exception
+	 */
+	public <T> Iterator<T> doReadIterator(String sheetName, int startRow, Class<T> clazz) throws Exception {
+		return openRows(sheetName, startRow, clazz);
+	}
 
+	/**
+	 * 默认读取第一个sheet表，返回逐行解析的流，提前结束时需要关闭流释放资源
+	 * 
+	 * @param <T>
+	 * @param clazz
+	 * @return
+	 * @throws Exception
+	 */
+	public <T> Stream<T> doReadStream(Class<T> clazz) throws Exception {
+		return toStream(openRows(null, -1, clazz));
 	}
 
 	/**
-	 * 解析sheet表,获取Map类型的列表数据
+	 * 默认读取第一个sheet表，从指定行开始读，返回逐行解析的流，提前结束时需要关闭流释放资源
 	 * 
-	 * @param sheet
+	 * @param <T>
+	 * @param startRow
+	 * @param clazz
+	 * @return
+	 * @throws Exception
+	 */
+	public <T> Stream<T> doReadStream(int startRow, Class<T> clazz) throws Exception {
+		return toStream(openRows(null, startRow, clazz));
+	}
+
+	/**
+	 * 指定sheet表名，返回逐行解析的流，提前结束时需要关闭流释放资源
+	 * 
+	 * @param <T>
+	 * @param sheetName
+	 * @param clazz
+	 * @return
+	 * @throws Exception
+	 */
+	public <T> Stream<T> doReadStream(String sheetName, Class<T> clazz) throws Exception {
+		return toStream(openRows(sheetName, -1, clazz));
+	}
+
+	/**
+	 * 指定sheet表名和开始读取的行号，返回逐行解析的流，提前结束时需要关闭流释放资源
+	 * 
+	 * @param <T>
+	 * @param sheetName
+	 * @param startRow
+	 * @param clazz
+	 * @return
+	 * @throws Exception
+	 */
+	public <T> Stream<T> doReadStream(String sheetName, int startRow, Class<T> clazz) throws Exception {
+		return toStream(openRows(sheetName, startRow, clazz));
+	}
+
+	/**
+	 * 并行读取多个sheet表，每个sheet表按数据类注解检测表头，返回sheet表名和数据列表的映射，顺序和参数一致。
+	 * 使用不超过CPU核数的线程池，读完后关闭线程池
+	 * 
+	 * @param sheetClassMap sheet表名和读取数据的类
+	 * @return
+	 * @throws Exception
+	 */
+	public Map<String, List<?>> doReadAll(Map<String, Class<?>> sheetClassMap) throws Exception {
+		if (sheetClassMap == null || sheetClassMap.isEmpty()) {
+			throw new Exception("必须指定读取的sheet表和数据类");
+		}
+		int threads = Math.min(sheetClassMap.size(), Runtime.getRuntime().availableProcessors());
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			return doReadAll(sheetClassMap, executor);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * 使用指定的线程池并行读取多个sheet表，返回sheet表名和数据列表的映射，顺序和参数一致。
+	 * 所有sheet表共用读取前注册的转换器快照，读完后清空转换器；线程池由调用方关闭。
+	 * 一个sheet表出错后其他sheet表停止读取，等所有任务结束后才释放资源
+	 * 
+	 * @param sheetClassMap sheet表名和读取数据的类
+	 * @param executor
+	 * @return
+	 * @throws Exception
+	 */
+	public Map<String, List<?>> doReadAll(Map<String, Class<?>> sheetClassMap, ExecutorService executor)
+			throws Exception {
+		Map<String, Future<List<?>>> futures = new LinkedHashMap<String, Future<List<?>>>();
+		// 出错后通知还在读取的sheet表停止
+		AtomicBoolean stopped = new AtomicBoolean();
+		try {
+			if (sheetClassMap == null || sheetClassMap.isEmpty()) {
+				throw new Exception("必须指定读取的sheet表和数据类");
+			}
+			if (executor == null) {
+				throw new Exception("必须指定读取sheet表的线程池");
+			}
+			if (columnFieldMap != null && !columnFieldMap.isEmpty()) {
+				throw new Exception("指定列索引和字段映射时，必须给定开始读取数据的行索引。");
+			}
+			for (Entry<String, Class<?>> entry : sheetClassMap.entrySet()) {
+				if (entry.getKey() == null || "".equals(entry.getKey()) || !hasSheet(entry.getKey())) {
+					throw new Exception(entry.getKey() + "表不存在");
+				}
+				if (entry.getValue() == null) {
+					throw new Exception("必须指定" + entry.getKey() + "表读取数据的类");
+				}
+			}
+			// 转换器快照，各sheet表并发读取时不受注册和清空转换器影响
+			Map<String, Converter<Cell, ?>> converterSnapshot = converters.snapshot();
+			for (Entry<String, Class<?>> entry : sheetClassMap.entrySet()) {
+				String sheetName = entry.getKey();
+				Class<?> clazz = entry.getValue();
+				futures.put(sheetName, executor.submit(() -> readSheet(sheetName, clazz, converterSnapshot, stopped)));
+			}
+			Map<String, List<?>> result = new LinkedHashMap<String, List<?>>();
+			for (Entry<String, Future<List<?>>> entry : futures.entrySet()) {
+				try {
+					result.put(entry.getKey(), entry.getValue().get());
+				} catch (ExecutionException e) {
+					logger.info("读取" + entry.getKey() + "表出现异常");
+					throw new Exception("读取" + entry.getKey() + "表出现异常", e.getCause());
+				}
+			}
+			return result;
+		} finally {
+			// 任务还在读取工作簿时不能释放资源
+			stopped.set(true);
+			awaitAll(futures.values());
+			// 清空当前读转换器
+			converters.clearConverter();
+			if (autoClose) {
+				complete();
+			}
+		}
+	}
+
+	/**
+	 * 等待所有任务结束，不关心任务的结果和异常；等待时被中断也要等任务结束，之后再恢复中断状态
+	 * 
+	 * @param futures
+	 */
+	private static void awaitAll(Collection<? extends Future<?>> futures) {
+		boolean interrupted = false;
+		for (Future<?> future : futures) {
+			while (true) {
+				try {
+					future.get();
+					break;
+				} catch (ExecutionException | CancellationException e) {
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * 并行读取时读取单个sheet表，按数据类注解检测表头，不清空转换器也不释放资源
+	 * 
+	 * @param <T>
+	 * @param sheetName
+	 * @param clazz
+	 * @param converterSnapshot
+	 * @param stopped           其他sheet表出错时为true，返回已读取的部分
+	 * @return
+	 * @throws Exception
+	 */
+	private <T> List<?> readSheet(String sheetName, Class<T> clazz, Map<String, Converter<Cell, ?>> converterSnapshot,
+			AtomicBoolean stopped) throws Exception {
+		List<T> result = new ArrayList<T>();
+		RowBinder<T> rowBinder = RowBinder.build(clazz, SheetUtil.columnFieldMap(clazz), converterSnapshot,
+				defaultConverter);
+		if (streamReader != null) {
+			try (StreamSheet streamSheet = streamReader.getSheet(sheetName)) {
+				int startRow = headLastRowNum(streamSheet, clazz) + 1;
+				Row row;
+				while ((row = streamSheet.nextRow()) != null && !stopped.get()) {
+					if (row.getRowNum() >= startRow) {
+						result.add(rowBinder.bind(row));
+					}
+				}
+			}
+			return result;
+		}
+		Sheet sheet = workbook.getSheet(sheetName);
+		int startRow = headLastRowNum(sheet, clazz) + 1;
+		int rowLastNum = sheet.getLastRowNum();
+		if (rowLastNum + 1 - startRow > MAXROW) {
+			throw new Exception("有效数据超过最大行数，当前有效数据行数为" + (rowLastNum + 1 - startRow) + "，单个sheet表效数据行数最大行数为"
+					+ MAXROW + "，请拆分sheet表。");
+		}
+		for (int i = startRow; i <= rowLastNum && !stopped.get(); i++) {
+			result.add(rowBinder.bind(SheetUtil.getRow(sheet, i)));
+		}
+		return result;
+	}
+
+	/**
+	 * 按数据类注解查找最后一行表头，在限定的行数内没有找到时报错
+	 * 
+	 * @param <T>
+	 * @param sheet
+	 * @param clazz
+	 * @return
+	 * @throws Exception
+	 */
+	private <T> int headLastRowNum(Sheet sheet, Class<T> clazz) throws Exception {
+		int headLastRowNum = SheetUtil.templateHeadLastRowNum(sheet, clazz, headRowHint, headScanRows);
+		if (headLastRowNum < 0) {
+			throw new Exception(sheet.getSheetName() + "表前" + headScanRows + "行没有找到表头");
+		}
+		return headLastRowNum;
+	}
+
+	/**
+	 * 流式读取时按数据类注解查找最后一行表头，在限定的行数内没有找到时报错
+	 * 
+	 * @param <T>
+	 * @param sheet
+	 * @param clazz
+	 * @return
+	 * @throws Exception
+	 */
+	private <T> int headLastRowNum(StreamSheet sheet, Class<T> clazz) throws Exception {
+		int scanRows = headRowHint < 0 ? headScanRows : Math.max(headScanRows, headRowHint + 1);
+		int headLastRowNum = SheetUtil.templateHeadLastRowNum(sheet, clazz, scanRows);
+		if (headLastRowNum < 0) {
+			throw new Exception(sheet.getSheetName() + "表前" + scanRows + "行没有找到表头");
+		}
+		return headLastRowNum;
+	}
+
+	/**
+	 * 按注解定位表头后开始读取数据的行，没有找到表头时和读取结束一样释放资源后再报错
+	 * 
+	 * @param <T>
+	 * @param sheet
+	 * @param clazz
+	 * @return
+	 * @throws Exception
+	 */
+	private <T> int headStartRow(Sheet sheet, Class<T> clazz) throws Exception {
+		try {
+			return headLastRowNum(sheet, clazz) + 1;
+		} catch (Exception e) {
+			abortRead(null);
+			throw e;
+		}
+	}
+
+	/**
+	 * 流式读取时按注解定位表头后开始读取数据的行，没有找到表头时关闭sheet表并释放资源后再报错
+	 * 
+	 * @param <T>
+	 * @param sheet
+	 * @param clazz
+	 * @return
+	 * @throws Exception
+	 */
+	private <T> int headStartRow(StreamSheet sheet, Class<T> clazz) throws Exception {
+		try {
+			return headLastRowNum(sheet, clazz) + 1;
+		} catch (Exception e) {
+			abortRead(sheet);
+			throw e;
+		}
+	}
+
+	/**
+	 * 开始解析前出错时释放资源，清空转换器和列索引映射
+	 * 
+	 * @param streamSheet 已经打开的流式sheet表，没有为null
+	 */
+	private void abortRead(StreamSheet streamSheet) {
+		try {
+			if (streamSheet != null) {
+				streamSheet.close();
+			}
+		} catch (Exception e) {
+			logger.warning("关闭" + streamSheet.getSheetName() + "表发生异常");
+		} finally {
+			// 清空当前读转换器
+			converters.clearConverter();
+			if (columnFieldMap != null) {
+				columnFieldMap.clear();
+			}
+			if (autoClose) {
+				complete();
+			}
+		}
+	}
+
+	/**
+	 * 打开sheet表的逐行解析迭代器
+	 * 
+	 * @param <T>
+	 * @param sheetName 为空时读取第一个sheet表
+	 * @param startRow  小于0时按注解表头定位开始行
+	 * @param clazz
+	 * @return
+	 * @throws Exception
+	 */
+	private <T> RowDataIterator<T> openRows(String sheetName, int startRow, Class<T> clazz) throws Exception {
+		if (sheetName == null || "".equals(sheetName)) {
+			if (numberOfSheets() == 0) {
+				throw new Exception("没有足够的sheet表可以读取");
+			}
+		} else if (!hasSheet(sheetName)) {
+			throw new Exception(sheetName + "表不存在");
+		}
+		if (clazz == null) {
+			throw new Exception("必须指定读取数据的类。");
+		}
+		if (startRow < 0 && columnFieldMap != null && !columnFieldMap.isEmpty()) {
+			throw new Exception("指定列索引和字段映射时，必须给定开始读取数据的行索引。");
+		}
+		Map<Integer, String> columnFields = columnFieldMap == null || columnFieldMap.isEmpty()
+				? SheetUtil.columnFieldMap(clazz)
+				: columnFieldMap;
+		RowBinder<T> rowBinder = rowBinder(columnFields, clazz);
+		if (streamReader != null) {
+			StreamSheet streamSheet = sheetName == null || "".equals(sheetName) ? streamReader.getSheetAt(0)
+					: streamReader.getSheet(sheetName);
+			if (startRow < 0) {
+				startRow = headStartRow(streamSheet, clazz);
+			}
+			return new RowDataIterator<T>(null, streamSheet, startRow, rowBinder);
+		}
+		Sheet sheet = WorkbookUtil.getSheet(workbook, sheetName);
+		if (startRow < 0) {
+			startRow = headStartRow(sheet, clazz);
+		}
+		return new RowDataIterator<T>(sheet, null, startRow, rowBinder);
+	}
+
+	/**
+	 * 流水线导入第一个sheet表，按注解定位表头；解析失败和校验不通过的行记录在导入结果中，其他行交给处理器
+	 * 
+	 * @param <T>
+	 * @param clazz    读取数据的类
+	 * @param inspect  数据校验，为null时不校验
+	 * @param sink     处理校验通过的数据
+	 * @param pipeline 各阶段的线程数和队列大小，为null时使用默认设置
+	 * @return
+	 * @throws Exception
+	 */
+	public <T> ImportResult doImport(Class<T> clazz, Inspect<T> inspect, RowHandler<T> sink, ImportPipeline pipeline)
+			throws Exception {
+		return importRows(openRows(null, -1, clazz), inspect, sink, pipeline);
+	}
+
+	/**
+	 * 流水线导入指定的sheet表，按注解定位表头
+	 * 
+	 * @param <T>
+	 * @param sheetName
+	 * @param clazz
+	 * @param inspect
+	 * @param sink
+	 * @param pipeline
+	 * @return
+	 * @throws Exception
+	 */
+	public <T> ImportResult doImport(String sheetName, Class<T> clazz, Inspect<T> inspect, RowHandler<T> sink,
+			ImportPipeline pipeline) throws Exception {
+		return importRows(openRows(sheetName, -1, clazz), inspect, sink, pipeline);
+	}
+
+	/**
+	 * 流水线导入指定的sheet表，从指定的行开始
+	 * 
+	 * @param <T>
+	 * @param sheetName
+	 * @param startRow
+	 * @param clazz
+	 * @param inspect
+	 * @param sink
+	 * @param pipeline
+	 * @return
+	 * @throws Exception
+	 */
+	public <T> ImportResult doImport(String sheetName, int startRow, Class<T> clazz, Inspect<T> inspect,
+			RowHandler<T> sink, ImportPipeline pipeline) throws Exception {
+		return importRows(openRows(sheetName, startRow, clazz), inspect, sink, pipeline);
+	}
+
+	/**
+	 * 按流水线导入，读取工作簿时先在当前线程补齐单元格，解析线程只读取行；流式读取的行在当前线程解析
+	 * 
+	 * @param <T>
+	 * @param rows
+	 * @param inspect
+	 * @param sink
+	 * @param pipeline
+	 * @return
+	 * @throws Exception
+	 */
+	private <T> ImportResult importRows(RowDataIterator<T> rows, Inspect<T> inspect, RowHandler<T> sink,
+			ImportPipeline pipeline) throws Exception {
+		try {
+			boolean shareRows = rows.sheet != null;
+			RowBinder<T> rowBinder = rows.rowBinder;
+			return (pipeline == null ? ImportPipeline.build() : pipeline).run(() -> {
+				Row row = rows.takeRow();
+				if (row != null && shareRows) {
+					rowBinder.prepare(row);
+				}
+				return row;
+			}, shareRows, rowBinder, inspect, sink);
+		} finally {
+			rows.close();
+		}
+	}
+
+	/**
+	 * 逐行解析并交给行处理器
+	 * 
+	 * @param <T>
+	 * @param rows
+	 * @param rowHandler
+	 * @return 处理的行数
+	 * @throws Exception
+	 */
+	private <T> int handleRows(RowDataIterator<T> rows, RowHandler<T> rowHandler) throws Exception {
+		int count = 0;
+		try {
+			while (rows.hasNext()) {
+				T t = rows.next();
+				rowHandler.handle(rows.getRowNum(), t);
+				count++;
+			}
+		} finally {
+			rows.close();
+		}
+		return count;
+	}
+
+	/**
+	 * 迭代器转成流，流关闭时释放资源
+	 * 
+	 * @param <T>
+	 * @param rows
+	 * @return
+	 */
+	private <T> Stream<T> toStream(RowDataIterator<T> rows) {
+		return StreamSupport
+				.stream(Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(rows::close);
+	}
+
+	/**
+	 * 解析sheet表,获取T类型的列表数据
+	 * 
+	 * @param <T>
+	 * @param sheet
+	 * @param startRow
+	 * @param clazz
+	 * @return
+	 * @throws Exception
+	 */
+	private <T> List<T> analysisSheet(Sheet sheet, int startRow, Class<T> clazz) throws Exception {
+		List<T> result = new ArrayList<T>();
+		try {
+			if (sheet == null) {
+				logger.info("不能解析空的sheet表");
+				throw new Exception("不能解析空的sheet表");
+			}
+			int rowCount = sheet.getPhysicalNumberOfRows();
+			if (rowCount <= startRow || startRow < 0 || rowCount < 0) {
+				logger.info("没有足够的行可以读取。");
+				throw new Exception("没有足够的行可以读取。");
+			}
+			if (rowCount - startRow > MAXROW) {
+				throw new Exception("有效数据超过最大行数，当前有效数据行数为" + (rowCount - startRow) + "，单个sheet表效数据行数最大行数为" + MAXROW
+						+ "，请拆分sheet表。");
+			}
+			if (clazz == null) {
+				throw new Exception("必须指定读取数据的类");
+			}
+			
+			int rowLastNum = sheet.getLastRowNum();
+			Map<Integer, String> columnFields = this.columnFieldMap; 
+			 if(columnFieldMap==null||columnFieldMap.isEmpty()) {
+				 columnFields = SheetUtil.columnFieldMap(clazz);
+	           }
+
+			RowBinder<T> rowBinder = rowBinder(columnFields, clazz);
+			if (parallelChunkRows > 0 && rowLastNum - startRow + 1 > parallelChunkRows) {
+				result.addAll(bindRows(sheet, startRow, rowLastNum, rowBinder));
+			} else {
+				for (int i = startRow; i <= rowLastNum; i++) {
+					Row row = SheetUtil.getRow(sheet, i);
+					result.add(bindRow(rowBinder, row));
+				}
+			}
+
+		} catch (Exception e) {
+			logger.info("读取" + sheet.getSheetName() + "表出现异常");
+			e.printStackTrace();
+			throw new Exception("读取" + sheet.getSheetName() + "表出现异常", e);
+		} finally {
+			// 清空当前读转换器
+			converters.clearConverter();
+			// 每次读完sheet表就清空列索引和字段的映射，所以每次读sheet表之前给定列索引和字段的映射
+			if(columnFieldMap!=null) {
+				columnFieldMap.clear();
+			}
+			if (autoClose) {
+				complete();
+			}
+		}
+		return result;
+
+	}
+
+	/**
+	 * 按行分段并行解析，先在当前线程补齐缺失的行和单元格，解析时只读取sheet表；
+	 * 各段按顺序合并，出现异常时报告行号最小的错误行，其他段停止解析，等所有段结束后再返回
+	 * 
+	 * @param <T>
+	 * @param sheet
+	 * @param startRow
+	 * @param rowLastNum
+	 * @param rowBinder
+	 * @return
+	 * @throws Exception
+	 */
+	private <T> List<T> bindRows(Sheet sheet, int startRow, int rowLastNum, RowBinder<T> rowBinder) throws Exception {
+		for (int i = startRow; i <= rowLastNum; i++) {
+			rowBinder.prepare(SheetUtil.getRow(sheet, i));
+		}
+		ExecutorService executor = bindExecutor == null ? ForkJoinPool.commonPool() : bindExecutor;
+		List<Future<List<T>>> futures = new ArrayList<Future<List<T>>>();
+		// 出错后通知还在解析的段停止
+		AtomicBoolean stopped = new AtomicBoolean();
+		try {
+			for (int from = startRow; from <= rowLastNum; from += parallelChunkRows) {
+				int first = from;
+				int last = Math.min(rowLastNum, from + parallelChunkRows - 1);
+				// 每个任务使用自己的解析计划副本
+				RowBinder<T> chunkBinder = rowBinder.copy();
+				futures.add(executor.submit(() -> {
+					List<T> chunk = new ArrayList<T>(last - first + 1);
+					for (int i = first; i <= last && !stopped.get(); i++) {
+						chunk.add(bindRow(chunkBinder, sheet.getRow(i)));
+					}
+					return chunk;
+				}));
+			}
+			List<T> result = new ArrayList<T>(rowLastNum - startRow + 1);
+			for (Future<List<T>> future : futures) {
+				try {
+					result.addAll(future.get());
+				} catch (ExecutionException e) {
+					// ForkJoinPool会把任务抛出的异常包装成RuntimeException，取出带行号的异常
+					Throwable cause = e.getCause();
+					while (cause instanceof RuntimeException && cause.getCause() != null) {
+						cause = cause.getCause();
+					}
+					throw new Exception(cause.getMessage(), cause);
+				}
+			}
+			return result;
+		} finally {
+			// 公共线程池的任务不响应取消，等所有段结束后才能释放资源
+			stopped.set(true);
+			awaitAll(futures);
+		}
+	}
+
+	/**
+	 * 解析一行数据，异常信息带上行号
+	 * 
+	 * @param <T>
+	 * @param rowBinder
+	 * @param row
+	 * @return
+	 * @throws Exception
+	 */
+	private static <T> T bindRow(RowBinder<T> rowBinder, Row row) throws Exception {
+		try {
+			return rowBinder.bind(row);
+		} catch (Exception e) {
+			throw new Exception("第" + (row.getRowNum() + 1) + "行数据解析出现异常，" + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * 流式解析sheet表,获取T类型的列表数据，跳过开始行之前的行
+	 * 
+	 * @param <T>
+	 * @param sheet
+	 * @param startRow
+	 * @param clazz
+	 * @return
+	 * @throws Exception
+	 */
+	private <T> List<T> analysisSheet(StreamSheet sheet, int startRow, Class<T> clazz) throws Exception {
+		List<T> result = new ArrayList<T>();
+		String sheetName = sheet == null ? null : sheet.getSheetName();
+		try {
+			if (sheet == null) {
+				logger.info("不能解析空的sheet表");
+				throw new Exception("不能解析空的sheet表");
+			}
+			if (startRow < 0) {
+				logger.info("没有足够的行可以读取。");
+				throw new Exception("没有足够的行可以读取。");
+			}
+			if (clazz == null) {
+				throw new Exception("必须指定读取数据的类");
+			}
+			Map<Integer, String> columnFields = this.columnFieldMap;
+			if (columnFieldMap == null || columnFieldMap.isEmpty()) {
+				columnFields = SheetUtil.columnFieldMap(clazz);
+			}
+			RowBinder<T> rowBinder = rowBinder(columnFields, clazz);
+			Row row;
+			while ((row = sheet.nextRow()) != null) {
+				if (row.getRowNum() >= startRow) {
+					result.add(rowBinder.bind(row));
+				}
+			}
+			if (result.isEmpty()) {
+				logger.info("没有足够的行可以读取。");
+				throw new Exception("没有足够的行可以读取。");
+			}
+		} catch (Exception e) {
+			logger.info("读取" + sheetName + "表出现异常");
+			e.printStackTrace();
+			throw new Exception("读取" + sheetName + "表出现异常");
+		} finally {
+			if (sheet != null) {
+				sheet.close();
+			}
+			// 清空当前读转换器
+			converters.clearConverter();
+			// 每次读完sheet表就清空列索引和字段的映射，所以每次读sheet表之前给定列索引和字段的映射
+			if (columnFieldMap != null) {
+				columnFieldMap.clear();
+			}
+			if (autoClose) {
+				complete();
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * 解析完表格，对每一条数据执行校验方法
+	 * 
+	 * @param <T>
+	 * @param sheetName
+	 * @param startRow
+	 * @param clazz
+	 * @param dataCheck
+	 * @return
+	 * @throws Exception
+	 */
+	private <T> List<T> doReadCheck(Sheet sheet, int startRow, Class<T> clazz, Inspect<T> dataCheck) throws Exception {
+		List<T> result = null;
+		try {
+			result = checkRowDatas(sheetDataToMap(sheet, startRow, clazz), dataCheck);
+		} catch (Exception e) {
+			logger.info("发生未知异常");
+			e.printStackTrace();
+			throw new Exception(e.getMessage());
+		} finally {
+			if (autoClose) {
+				complete();
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * 流式解析完表格，对每一条数据执行校验方法
+	 * 
+	 * @param <T>
+	 * @param sheet
+	 * @param startRow
+	 * @param clazz
+	 * @param dataCheck
+	 * @return
+	 * @throws Exception
+	 */
+	private <T> List<T> doReadCheck(StreamSheet sheet, int startRow, Class<T> clazz, Inspect<T> dataCheck)
+			throws Exception {
+		List<T> result = null;
+		try {
+			result = checkRowDatas(sheetDataToMap(sheet, startRow, clazz), dataCheck);
+		} catch (Exception e) {
+			logger.info("发生未知异常");
+			e.printStackTrace();
+			throw new Exception(e.getMessage());
+		} finally {
+			if (autoClose) {
+				complete();
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * 对每一条数据执行校验方法，有校验不通过的数据则返回空列表
+	 * 
+	 * @param <T>
+	 * @param rowDatas
+	 * @param dataCheck
+	 * @return
+	 */
+	private <T> List<T> checkRowDatas(Map<Integer, T> rowDatas, Inspect<T> dataCheck) {
+		List<T> result = new ArrayList<T>();
+		boolean mark = true;
+		for (Integer k : rowDatas.keySet()) {
+			mark &= dataCheck.check(k, rowDatas.get(k));
+			result.add(rowDatas.get(k));
+		}
+		// 有校验不通过的数据，则清空结果
+		if (!mark) {
+			result.clear();
+		}
+		return result;
+	}
+
+	/**
+	 * 解析完表格，对每一条数据执行校验方法 默认读取第一个sheet
+	 * 
+	 * @param <T>
+	 * @param clazz
+	 * @param dataCheck
+	 * @return
+	 * @throws Exception
+	 */
+	public <T> List<T> doReadCheck(Class<T> clazz, Inspect<T> dataCheck) throws Exception {
+
+		if (numberOfSheets() == 0) {
+			throw new Exception("sheet表格不存在");
+		}
+		if(clazz==null) {
+			throw new Exception("必须指定读取数据的类。");
+		}
+		if(columnFieldMap!=null&&!columnFieldMap.isEmpty()) {
+			throw new Exception("指定列索引和字段映射时，必须给定开始读取数据的行索引。");
+		}
+		if (streamReader != null) {
+			StreamSheet streamSheet = streamReader.getSheetAt(0);
+			int startRow = headStartRow(streamSheet, clazz);
+			return doReadCheck(streamSheet, startRow, clazz, dataCheck);
+		}
+		Sheet sheet = WorkbookUtil.getSheet(workbook);
+		int startRow = headStartRow(sheet, clazz);
+
+		return doReadCheck(sheet, startRow, clazz, dataCheck);
+	}
+
+	/**
+	 * 解析完表格，对每一条数据执行校验方法 默认读取第一个sheet并且从指定的行开始读取
+	 * 
+	 * @param <T>
+	 * @param startRow
+	 * @param clazz
+	 * @param dataCheck
+	 * @return
+	 * @throws Exception
+	 */
+	public <T> List<T> doReadCheck(int startRow, Class<T> clazz, Inspect<T> dataCheck) throws Exception {
+		if (numberOfSheets() == 0) {
+			throw new Exception("sheet表格不存在");
+		}
+		if (streamReader != null) {
+			return doReadCheck(streamReader.getSheetAt(0), startRow, clazz, dataCheck);
+		}
+		Sheet sheet = WorkbookUtil.getSheet(workbook);
+
+		return doReadCheck(sheet, startRow, clazz, dataCheck);
+
+	}
+
+	/**
+	 * 行索引和数据关系映射
+	 * 
+	 * @param <T>
+	 * @param sheet
+	 * @param startRow
+	 * @param clazz
+	 * @return
+	 * @throws Exception
+	 */
+	private <T> Map<Integer, T> sheetDataToMap(Sheet sheet, int startRow, Class<T> clazz) throws Exception {
+		Map<Integer, T> result = new HashMap<Integer, T>();
+		try {
+			if (sheet == null) {
+				logger.info("不能解析空的sheet表");
+				throw new Exception("不能解析空的sheet表");
+			}
+			int rowCount = sheet.getPhysicalNumberOfRows();
+			if (rowCount <= startRow || startRow < 0 || rowCount < 0) {
+				logger.info("没有足够的行可以读取。");
+				throw new Exception("没有足够的行可以读取。");
+			}
+			if (rowCount - startRow > MAXROW) {
+				throw new Exception("有效数据超过最大行数，当前有效数据行数为" + (rowCount - startRow) + "，单个sheet表效数据行数最大行数为" + MAXROW
+						+ "，请拆分sheet表。");
+			}
+
+			int rowLastNum = sheet.getLastRowNum();
+
+			Map<Integer, String> columnFieldMap = SheetUtil.columnFieldMap(clazz);
+
+			RowBinder<T> rowBinder = rowBinder(columnFieldMap, clazz);
+			for (int i = startRow; i <= rowLastNum; i++) {
+				Row row = SheetUtil.getRow(sheet, i);
+				result.put(i, rowBinder.bind(row));
+			}
+
+		} catch (Exception e) {
+			logger.info("读取" + sheet.getSheetName() + "表出现异常");
+			e.printStackTrace();
+			throw new Exception("读取" + sheet.getSheetName() + "表出现异常");
+		} finally {
+			// 清空当前读转换器
+			converters.clearConverter();
+			if (autoClose) {
+				complete();
+			}
+		}
+		return result;
+
+	}
+
+	/**
+	 * 流式读取行索引和数据关系映射
+	 * 
+	 * @param <T>
+	 * @param sheet
+	 * @param startRow
+	 * @param clazz
+	 * @return
+	 * @throws Exception
+	 */
+	private <T> Map<Integer, T> sheetDataToMap(StreamSheet sheet, int startRow, Class<T> clazz) throws Exception {
+		Map<Integer, T> result = new HashMap<Integer, T>();
+		String sheetName = sheet == null ? null : sheet.getSheetName();
+		try {
+			if (sheet == null) {
+				logger.info("不能解析空的sheet表");
+				throw new Exception("不能解析空的sheet表");
+			}
+			if (startRow < 0) {
+				logger.info("没有足够的行可以读取。");
+				throw new Exception("没有足够的行可以读取。");
+			}
+			Map<Integer, String> columnFieldMap = SheetUtil.columnFieldMap(clazz);
+			RowBinder<T> rowBinder = rowBinder(columnFieldMap, clazz);
+			Row row;
+			while ((row = sheet.nextRow()) != null) {
+				if (row.getRowNum() >= startRow) {
+					result.put(row.getRowNum(), rowBinder.bind(row));
+				}
+			}
+			if (result.isEmpty()) {
+				logger.info("没有足够的行可以读取。");
+				throw new Exception("没有足够的行可以读取。");
+			}
+		} catch (Exception e) {
+			logger.info("读取" + sheetName + "表出现异常");
+			e.printStackTrace();
+			throw new Exception("读取" + sheetName + "表出现异常");
+		} finally {
+			if (sheet != null) {
+				sheet.close();
+			}
+			// 清空当前读转换器
+			converters.clearConverter();
+			if (autoClose) {
+				complete();
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * 解析sheet表,获取Map类型的列表数据
+	 * 
+	 * @param sheet
 	 * @param startRow
 	 * @return
 	 * @throws Exception
@@ -533,9 +1513,11 @@ public class ExcelReader {
 					}
 				}
 			}
+			Map<String, Converter<Cell, ?>> converterSnapshot = converters.snapshot();
+			DateFormatCache dateFormats = DateFormatCache.of(sheet.getWorkbook());
 			for (int i = startRow; i <= rowLastNum; i++) {
 				Row row = SheetUtil.getRow(sheet, i);
-				result.add(analysisRowToMap(row, columnMap));
+				result.add(analysisRowToMap(row, columnMap, converterSnapshot, dateFormats));
 			}
 
 		} catch (Exception e) {
@@ -552,61 +1534,197 @@ public class ExcelReader {
 	}
 
 	/**
-	 * 将行数据解析成T类型数据
+	 * 解析sheet表，按列保存数据，不经过转换器
 	 * 
-	 * @param <T>
-	 * @param row
-	 * @param columnFieldMap
-	 * @param clazz
-	 * @param converters
+	 * @param sheet
+	 * @param startRow
 	 * @return
 	 * @throws Exception
 	 */
-	private <T> T analysisRow(Row row, Map<Integer, String> columnFieldMap, Class<T> clazz) throws Exception {
-		if(clazz==null) {
-			throw new Exception("必须指定读取数据的类。");
+	private ColumnarSheet analysisSheetToColumns(Sheet sheet, int startRow) throws Exception {
+		ColumnarSheet result;
+		try {
+			if (sheet == null) {
+				logger.info("不能解析空的sheet表");
+				throw new Exception("不能解析空的sheet表");
+			}
+			int rowCount = sheet.getPhysicalNumberOfRows();
+			if (rowCount <= startRow || startRow < 0 || rowCount < 0) {
+				logger.info("没有足够的行可以读取。");
+				throw new Exception("没有足够的行可以读取。");
+			}
+			if (rowCount - startRow > MAXROW) {
+				throw new Exception("有效数据超过最大行数，当前有效数据行数为" + (rowCount - startRow) + "，单个sheet表效数据行数最大行数为" + MAXROW
+						+ "，请拆分sheet表。");
+			}
+			int rowLastNum = sheet.getLastRowNum();
+			int headRowIndex = startRow - 1;
+			Row headRow = SheetUtil.getRow(sheet, headRowIndex < 0 ? 0 : headRowIndex);
+			result = ColumnarSheet.build(headColumnMap(headRow, startRow));
+			for (int i = startRow; i <= rowLastNum; i++) {
+				result.addRow(SheetUtil.getRow(sheet, i));
+			}
+		} catch (Exception e) {
+			logger.info("读取" + sheet.getSheetName() + "表出现异常");
+			e.printStackTrace();
+			throw new Exception("读取" + sheet.getSheetName() + "表出现异常", e);
+		} finally {
+			if (autoClose) {
+				complete();
+			}
 		}
-		
-		T t = clazz.getDeclaredConstructor().newInstance();
-		// 遍历给定的列和字段的映射，不用对一行的每一列进行遍历
-		for (Integer colIndex : columnFieldMap.keySet()) {
-
-			String fieldName = columnFieldMap.get(colIndex);
-			// setter方法名必须是严格的setXxx格式
-			String setterMethodName = "set" + fieldName.substring(0, 1).toUpperCase() + fieldName.substring(1);
-			Field field = clazz.getDeclaredField(fieldName);
-			field.setAccessible(true);
-			// setter方法必须只带一个参数，并且参数类型与子段类型一致
-			Method method = clazz.getDeclaredMethod(setterMethodName, field.getType());
-			method.setAccessible(true);
-			Cell cell = RowUtil.getCell(row, colIndex);
-			// 获取转换器
-			Map<String, Converter<Cell, ?>> cv = converters.getConverters();
-			if (cv != null && !cv.isEmpty() && cv.containsKey(fieldName)) {
-				((Converter<Cell, T>) cv.get(fieldName)).convert(cell, t);
+		return result;
+	}
+
+	/**
+	 * 流式解析sheet表，按列保存数据，不经过转换器，不限制最大行数
+	 * 
+	 * @param sheet
+	 * @param startRow
+	 * @return
+	 * @throws Exception
+	 */
+	private ColumnarSheet analysisSheetToColumns(StreamSheet sheet, int startRow) throws Exception {
+		ColumnarSheet result = null;
+		String sheetName = sheet == null ? null : sheet.getSheetName();
+		try {
+			if (sheet == null) {
+				logger.info("不能解析空的sheet表");
+				throw new Exception("不能解析空的sheet表");
+			}
+			if (startRow < 0) {
+				logger.info("没有足够的行可以读取。");
+				throw new Exception("没有足够的行可以读取。");
+			}
+			int headRowIndex = startRow - 1;
+			Row row;
+			while ((row = sheet.nextRow()) != null) {
+				if (row.getRowNum() == (headRowIndex < 0 ? 0 : headRowIndex)) {
+					result = ColumnarSheet.build(headColumnMap(row, startRow));
+				}
+				if (row.getRowNum() >= startRow && result != null) {
+					result.addRow(row);
+				}
+			}
+			if (result == null || result.getRowCount() == 0) {
+				logger.info("没有足够的行可以读取。");
+				throw new Exception("没有足够的行可以读取。");
+			}
+		} catch (Exception e) {
+			logger.info("读取" + sheetName + "表出现异常");
+			e.printStackTrace();
+			throw new Exception("读取" + sheetName + "表出现异常", e);
+		} finally {
+			if (sheet != null) {
+				sheet.close();
+			}
+			if (autoClose) {
+				complete();
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * 表头行的列索引和列名称映射，开始行为0时使用列索引作为列名称
+	 * 
+	 * @param headRow
+	 * @param startRow
+	 * @return
+	 */
+	private static Map<Integer, String> headColumnMap(Row headRow, int startRow) {
+		Map<Integer, String> columnMap = new HashMap<Integer, String>();
+		for (int i = 0, colLastNum = headRow.getLastCellNum(); i < colLastNum; i++) {
+			if (startRow == 0) {
+				columnMap.put(i, String.valueOf(i));
 			} else {
-				Object value = defaultConverter.defaultConvert(cell);
-				if (value == null || "".equals(value)) {
-					continue;
+				Cell cell = headRow.getCell(i);
+				if (cell != null && cell.getCellType() == CellType.STRING && !"".equals(cell.getStringCellValue())) {
+					columnMap.put(i, cell.getStringCellValue());
+				}
+			}
+		}
+		return columnMap;
+	}
+
+	/**
+	 * 流式解析sheet表,获取Map类型的列表数据，开始行的上一行作为表头行
+	 * 
+	 * @param sheet
+	 * @param startRow
+	 * @return
+	 * @throws Exception
+	 */
+	private List<Map<String, Object>> analysisSheetToMapList(StreamSheet sheet, int startRow) throws Exception {
+		List<Map<String, Object>> result = new ArrayList<Map<String, Object>>();
+		String sheetName = sheet == null ? null : sheet.getSheetName();
+		try {
+			if (sheet == null) {
+				logger.info("不能解析空的sheet表");
+				throw new Exception("不能解析空的sheet表");
+			}
+			if (startRow < 0) {
+				logger.info("没有足够的行可以读取。");
+				throw new Exception("没有足够的行可以读取。");
+			}
+			Map<Integer, String> columnMap = null;
+			int headRowIndex = startRow - 1;
+			Map<String, Converter<Cell, ?>> converterSnapshot = converters.snapshot();
+			// 流式读取的行都在sheet表的临时工作簿中，读到第一行时获取
+			DateFormatCache dateFormats = null;
+			Row row;
+			while ((row = sheet.nextRow()) != null) {
+				if (dateFormats == null) {
+					dateFormats = DateFormatCache.of(row.getSheet().getWorkbook());
 				}
-				// BigDecimal类型转其他数值类型
-				if (value != null && "BigDecimal".equals(value.getClass().getSimpleName())
-						&& !"BigDecimal".equals(field.getType().getSimpleName())) {
-					value = CellUtil.bigDecimalToNum(new BigDecimal(value.toString()), field.getType().getSimpleName());
+				if (row.getRowNum() == (headRowIndex < 0 ? 0 : headRowIndex)) {
+					columnMap = new HashMap<Integer, String>();
+					for (int i = 0, colLastNum = row.getLastCellNum(); i < colLastNum; i++) {
+						if (startRow == 0) {
+							columnMap.put(i, String.valueOf(i));
+						} else {
+							Cell cell = row.getCell(i);
+							if (cell != null && cell.getCellType() == CellType.STRING
+									&& !"".equals(cell.getStringCellValue())) {
+								columnMap.put(i, cell.getStringCellValue());
+							}
+						}
+					}
 				}
-				if (value == null || field.getType().isInstance(value) || (value instanceof Number && CellUtil
-						.isSimilarNumType(field.getType().getSimpleName(), value.getClass().getSimpleName()))) {
-					method.invoke(t, value);
-				} else {
-					String message = String.format("类型不匹配，字段%s期望的类型是%s,实际得到的是%s%n",
-							CellUtil.columnName(fieldName, clazz), field.getType().getName(),
-							value.getClass().getName());
-					throw new Exception(message);
+				if (row.getRowNum() >= startRow) {
+					result.add(analysisRowToMap(row, columnMap, converterSnapshot, dateFormats));
 				}
 			}
+			if (result.isEmpty()) {
+				logger.info("没有足够的行可以读取。");
+				throw new Exception("没有足够的行可以读取。");
+			}
+		} catch (Exception e) {
+			logger.info("读取" + sheetName + "表出现异常");
+			e.printStackTrace();
+			throw new Exception("读取" + sheetName + "表出现异常");
+		} finally {
+			if (sheet != null) {
+				sheet.close();
+			}
+			if (autoClose) {
+				complete();
+			}
 		}
+		return result;
+	}
 
-		return t;
+	/**
+	 * 创建行解析计划，字段访问器和转换器在读取前解析好
+	 * 
+	 * @param <T>
+	 * @param columnFieldMap
+	 * @param clazz
+	 * @return
+	 * @throws Exception
+	 */
+	private <T> RowBinder<T> rowBinder(Map<Integer, String> columnFieldMap, Class<T> clazz) throws Exception {
+		return RowBinder.build(clazz, columnFieldMap, converters.snapshot(), defaultConverter);
 	}
 
 	/**
@@ -614,23 +1732,221 @@ public class ExcelReader {
 	 * 
 	 * @param row
 	 * @param columnFieldMap
+	 * @param cv 读取前取到的转换器快照
+	 * @param dateFormats 行所在工作簿的日期格式缓存
 	 * @return
 	 */
-	private Map<String, Object> analysisRowToMap(Row row, Map<Integer, String> columnFieldMap) {
+	private Map<String, Object> analysisRowToMap(Row row, Map<Integer, String> columnFieldMap,
+			Map<String, Converter<Cell, ?>> cv, DateFormatCache dateFormats) {
 		Map<String, Object> result = new HashMap<String, Object>();
 		columnFieldMap.entrySet().forEach(data->{
 			Cell cell = RowUtil.getCell(row, data.getKey());
-			Map<String, Converter<Cell, ?>> cv = converters.getConverters();
 			if (cv != null && !cv.isEmpty() && cv.containsKey(data.getValue())) {
 				((Converter<Cell, Object>) cv.get(data.getValue())).convert(cell, result);
 			} else {
-				Object value = defaultConverter.defaultConvert(cell);
+				Object value = CellUtil.getCellValue(cell, dateFormats);
 				result.put(data.getValue(), value);
 			}
 		});
 		return result;
 	}
 
+	/**
+	 * sheet表数量
+	 * 
+	 * @return
+	 */
+	private int numberOfSheets() {
+		return streamReader != null ? streamReader.getNumberOfSheets() : workbook.getNumberOfSheets();
+	}
+
+	/**
+	 * sheet表是否存在
+	 * 
+	 * @param sheetName
+	 * @return
+	 */
+	private boolean hasSheet(String sheetName) {
+		return streamReader != null ? streamReader.getSheetNames().contains(sheetName)
+				: workbook.getSheet(sheetName) != null;
+	}
+
+	/**
+	 * 逐行解析sheet表的迭代器，读取工作簿和流式读取共用。
+	 * 解析完最后一行或出现异常时释放资源，释放时和列表读取一样清空转换器和列索引字段映射。
+	 * 
+	 * @param <T>
+	 */
+	private class RowDataIterator<T> implements Iterator<T>, Closeable {
+		private final Sheet sheet;
+		private final StreamSheet streamSheet;
+		private final RowBinder<T> rowBinder;
+		private final String sheetName;
+		private final int startRow;
+		// 下一个读取的行索引，读取工作簿时使用
+		private int rowIndex;
+		private int lastRowNum;
+		// 预读的行
+		private Row nextRow;
+		// 最近一次返回的行索引
+		private int rowNum = -1;
+		private boolean closed = false;
+
+		RowDataIterator(Sheet sheet, StreamSheet streamSheet, int startRow, RowBinder<T> rowBinder) {
+			this.sheet = sheet;
+			this.streamSheet = streamSheet;
+			this.startRow = startRow;
+			this.rowBinder = rowBinder;
+			this.sheetName = sheet != null ? sheet.getSheetName() : streamSheet.getSheetName();
+			this.rowIndex = startRow;
+			this.lastRowNum = sheet != null ? sheet.getLastRowNum() : -1;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (nextRow != null) {
+				return true;
+			}
+			if (closed) {
+				return false;
+			}
+			try {
+				if (sheet != null) {
+					if (rowIndex <= lastRowNum) {
+						nextRow = SheetUtil.getRow(sheet, rowIndex++);
+					}
+				} else {
+					Row row = streamSheet.nextRow();
+					// 跳过开始行之前的行
+					while (row != null && row.getRowNum() < startRow) {
+						row = streamSheet.nextRow();
+					}
+					nextRow = row;
+				}
+			} catch (Exception e) {
+				close();
+				throw new IllegalStateException("读取" + sheetName + "表出现异常", e);
+			}
+			if (nextRow == null) {
+				close();
+				return false;
+			}
+			return true;
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Row row = nextRow;
+			nextRow = null;
+			rowNum = row.getRowNum();
+			try {
+				return rowBinder.bind(row);
+			} catch (Exception e) {
+				close();
+				throw new IllegalStateException("读取" + sheetName + "表第" + (rowNum + 1) + "行出现异常", e);
+			}
+		}
+
+		/**
+		 * 读取下一行但不解析，没有更多的行返回null
+		 * 
+		 * @return
+		 */
+		Row takeRow() {
+			if (!hasNext()) {
+				return null;
+			}
+			Row row = nextRow;
+			nextRow = null;
+			rowNum = row.getRowNum();
+			return row;
+		}
+
+		/**
+		 * 最近一次返回的数据所在的行索引
+		 * 
+		 * @return
+		 */
+		int getRowNum() {
+			return rowNum;
+		}
+
+		@Override
+		public void close() {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			nextRow = null;
+			try {
+				if (streamSheet != null) {
+					streamSheet.close();
+				}
+			} catch (Exception e) {
+				logger.warning("关闭" + sheetName + "表发生异常");
+			} finally {
+				// 清空当前读转换器
+				converters.clearConverter();
+				// 每次读完sheet表就清空列索引和字段的映射，所以每次读sheet表之前给定列索引和字段的映射
+				if (columnFieldMap != null) {
+					columnFieldMap.clear();
+				}
+				if (autoClose) {
+					complete();
+				}
+			}
+		}
+	}
+
+	/**
+	 * 按注解查找表头时最多检查的行数，超出后没有找到表头直接报错，不再扫描整个sheet表
+	 * 
+	 * @param headScanRows
+	 * @return
+	 */
+	public ExcelReader withHeadScanRows(int headScanRows) {
+		this.headScanRows = headScanRows;
+		return this;
+	}
+
+	/**
+	 * 最后一行表头可能的行序号，查找表头时先检查这一行，不匹配再按行查找
+	 * 
+	 * @param headRowHint
+	 * @return
+	 */
+	public ExcelReader withHeadRowHint(int headRowHint) {
+		this.headRowHint = headRowHint;
+		return this;
+	}
+
+	/**
+	 * 开启并行解析，已加载到内存的sheet表按chunkRows行分段，在公共的ForkJoinPool中并行解析后按行顺序合并。
+	 * 只对非流式读取生效，注册的转换器会被多个线程同时调用
+	 * 
+	 * @param chunkRows 每个任务解析的行数，小于1时关闭并行解析
+	 * @return
+	 */
+	public ExcelReader withParallelBinding(int chunkRows) {
+		return withParallelBinding(chunkRows, null);
+	}
+
+	/**
+	 * 开启并行解析，在指定的线程池中并行解析；线程池由调用方关闭
+	 * 
+	 * @param chunkRows 每个任务解析的行数，小于1时关闭并行解析
+	 * @param executor  为null时使用公共的ForkJoinPool
+	 * @return
+	 */
+	public ExcelReader withParallelBinding(int chunkRows, ExecutorService executor) {
+		this.parallelChunkRows = chunkRows;
+		this.bindExecutor = executor;
+		return this;
+	}
+
 	/**
 	 * 是否自动关闭资源，默认自动关闭
 	 * 
@@ -655,11 +1971,24 @@ public class ExcelReader {
 				}
 				workbook.close();
 			}
+			if (streamReader != null) {
+				streamReader.close();
+			}
+			if (inputStream != null) {
+				inputStream.close();
+				inputStream = null;
+			}
 			logger.info("资源释放完成");
 		} catch (Exception ex) {
 			logger.warning("关闭IO资源发生异常");
 			ex.printStackTrace();
 			return false;
+		} finally {
+			// 工作簿关闭后才能删除临时文件
+			if (tempFile != null) {
+				FileUtil.deleteQuietly(tempFile);
+				tempFile = null;
+			}
 		}
 		return true;
 	}
@@ -4,16 +4,15 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.OutputStream;
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
@@ -21,19 +20,25 @@ import org.apache.poi.ss.usermodel.DataFormat;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
 import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
 import com.example.excel.util.CellUtil;
 import com.example.excel.util.Converter;
 import com.example.excel.util.Converters;
-import com.example.excel.util.Excel;
+import com.example.excel.util.ExcelClassMetadata;
 import com.example.excel.util.ColIndexFieldMap;
 import com.example.excel.util.ColumnField;
-import com.example.excel.util.FileUtil;
+import com.example.excel.util.ColumnWriter;
 import com.example.excel.util.FuncUtil;
+import com.example.excel.util.ProgressListener;
 import com.example.excel.util.RowUtil;
+import com.example.excel.util.RowWriter;
 import com.example.excel.util.SheetUtil;
+import com.example.excel.util.TemplateCache;
+import com.example.excel.util.TemplateHead;
 import com.example.excel.util.WorkbookUtil;
+import com.example.excel.util.WriteProgress;
 
 public class ExcelWriter {
 	private static final Logger logger = Logger.getLogger(ExcelWriter.class.getName());
@@ -43,12 +48,22 @@ public class ExcelWriter {
 	private boolean autoClose = true;
 	// 输出流
 	private OutputStream outputStream;
-	// 中间文件
-	private File cacheFile;
 	// 工作簿
 	private Workbook workbook;
 	// 是否是模板
 	private boolean isTemplate = false;
+	// 模板文件
+	private File templateFile;
+	// 流式写入时内存中保留的行数，超出的行刷新到临时文件，小于1时使用工作簿默认值
+	private int rowAccessWindowSize = -1;
+	// 流式写入时单个sheet表最多写入的行数（包含表头），超出后自动写入新的sheet表，小于1时使用excel格式的最大行数
+	private int maxRowsPerSheet = -1;
+	// 进度监听，没有设置监听时不做任何统计
+	private ProgressListener progressListener;
+	// 每写多少行回调一次进度
+	private int progressInterval;
+	// 写数据进度统计，第一次写数据时创建
+	private WriteProgress progress;
 	// 全局样式
 	private Map<String, CellStyle> fmtMap;
 	// 转换器集合
@@ -86,7 +101,7 @@ public class ExcelWriter {
 	 * @return
 	 */
 	public <T> ExcelWriter registerConverter(String fieldName, Converter<Cell, T> writeConverter) {
-		converters.registerConverter(fieldName, writeConverter);
+		mutableConverters().registerConverter(fieldName, writeConverter);
 		return this;
 	}
 
@@ -101,11 +116,37 @@ public class ExcelWriter {
 	public <T> ExcelWriter registerConverters(Map<String, Converter<Cell, T>> writeConverter) {
 		if (writeConverter != null && !writeConverter.isEmpty()) {
 			for (Entry<String, Converter<Cell, T>> entry : writeConverter.entrySet()) {
-				converters.registerConverter(entry.getKey(), entry.getValue());
+				mutableConverters().registerConverter(entry.getKey(), entry.getValue());
 			}
 		}
 		return this;
 	}
+
+	/**
+	 * 使用已冻结的转换器，冻结的转换器读写完不会被清空，可以在多个实例和线程间共享；
+	 * 没有冻结的转换器先冻结再使用。之后再注册转换器时复制一份再注册，不影响共享的转换器
+	 * 
+	 * @param converters
+	 * @return
+	 */
+	public ExcelWriter withConverters(Converters converters) {
+		if (converters != null) {
+			this.converters = converters.freeze();
+		}
+		return this;
+	}
+
+	/**
+	 * 可以注册的转换器，当前转换器已冻结时复制一份
+	 * 
+	 * @return
+	 */
+	private Converters mutableConverters() {
+		if (converters.isFrozen()) {
+			converters = converters.copy();
+		}
+		return converters;
+	}
 	/**
 	 * 注册列名称和字段关系信息列表
 	 * @param fieldNames
@@ -207,12 +248,9 @@ public class ExcelWriter {
 			throw new Exception(templatePath + "不是模板文件");
 		}
 		try {
-			String tempFilePath = sourceFile.getParent() + File.separator + System.currentTimeMillis()
-					+ sourceFile.getName();
-			//复制模板
-			excelWriter.cacheFile = new File(tempFilePath);
-			FileUtil.copyFile(excelWriter.cacheFile, sourceFile);
-			excelWriter.workbook = WorkbookUtil.createWorkbook(excelWriter.cacheFile);
+			// 从缓存的模板内容创建工作簿，不复制模板文件
+			excelWriter.workbook = TemplateCache.createWorkbook(sourceFile);
+			excelWriter.templateFile = sourceFile;
 			excelWriter.isTemplate = true;
 		} catch (Exception e) {
 			logger.info("创建workbook模板发生异常。");
@@ -233,6 +271,66 @@ public class ExcelWriter {
 		return this;
 	}
 
+	/**
+	 * 流式写入时内存中保留的行数，超出的行刷新到临时文件，只对默认创建的SXSSFWorkbook有效
+	 * 
+	 * @param rowAccessWindowSize
+	 * @return
+	 */
+	public ExcelWriter withRowAccessWindowSize(int rowAccessWindowSize) {
+		this.rowAccessWindowSize = rowAccessWindowSize;
+		return this;
+	}
+
+	/**
+	 * 字符串去重，重复的字符串单元格只在共享字符串表中保存一份，适合大量重复的文本列。
+	 * 共享字符串数量达到上限后新出现的字符串按行内字符串写入，内存和文件大小不随行数增长。
+	 * 只能用于新建的xlsx工作簿，必须在写数据之前设置
+	 * 
+	 * @param maxSharedStrings 最多共享的字符串数量
+	 * @return
+	 * @throws Exception
+	 */
+	public ExcelWriter withSharedStrings(int maxSharedStrings) throws Exception {
+		if (isTemplate || !(workbook instanceof SXSSFWorkbook)) {
+			throw new Exception("只有新建的xlsx工作簿可以设置字符串去重");
+		}
+		if (workbook.getNumberOfSheets() > 0) {
+			throw new Exception("必须在写数据之前设置字符串去重");
+		}
+		Workbook source = workbook;
+		workbook = WorkbookUtil.createWorkbook(maxSharedStrings);
+		((SXSSFWorkbook) source).dispose();
+		source.close();
+		return this;
+	}
+
+	/**
+	 * 设置写数据进度监听，每写interval行回调一次，每写完一个sheet表和写出文件时再各回调一次
+	 * 
+	 * @param progressListener
+	 * @param interval 小于1时只在写完sheet表和写出文件时回调
+	 * @return
+	 */
+	public ExcelWriter withProgressListener(ProgressListener progressListener, int interval) {
+		this.progressListener = progressListener;
+		this.progressInterval = interval;
+		this.progress = null;
+		return this;
+	}
+
+	/**
+	 * 流式写入时单个sheet表最多写入的行数（包含表头），超出后自动创建新的sheet表并重写表头，
+	 * 不能超过excel格式的最大行数
+	 * 
+	 * @param maxRowsPerSheet
+	 * @return
+	 */
+	public ExcelWriter withMaxRowsPerSheet(int maxRowsPerSheet) {
+		this.maxRowsPerSheet = maxRowsPerSheet;
+		return this;
+	}
+
 	/**
 	 * 将数据写入工作簿,默认写入第一个sheet表中
 	 * 
@@ -365,6 +463,364 @@ public class ExcelWriter {
 		return this;
 	}
 
+	/**
+	 * 流式写入数据，默认写入第一个sheet表，数据逐条写入不需要全部在内存中，
+	 * 不受单个sheet表最大行数限制，写满后自动写入新的sheet表
+	 * 
+	 * @param <T>
+	 * @param dataIterator
+	 * @return
+	 * @throws Exception
+	 */
+	public <T> ExcelWriter doWrite(Iterator<T> dataIterator) throws Exception {
+		return dataToSheet(null, dataIterator);
+	}
+
+	/**
+	 * 流式写入数据，指定sheet表名字，数据逐条写入不需要全部在内存中，
+	 * 不受单个sheet表最大行数限制，写满后自动写入新的sheet表
+	 * 
+	 * @param <T>
+	 * @param sheetName
+	 * @param dataIterator
+	 * @return
+	 * @throws Exception
+	 */
+	public <T> ExcelWriter doWrite(String sheetName, Iterator<T> dataIterator) throws Exception {
+		return dataToSheet(sheetName, dataIterator);
+	}
+
+	/**
+	 * 流式写入数据，默认写入第一个sheet表，写满后自动写入新的sheet表，写完后关闭流
+	 * 
+	 * @param <T>
+	 * @param dataStream
+	 * @return
+	 * @throws Exception
+	 */
+	public <T> ExcelWriter doWrite(Stream<T> dataStream) throws Exception {
+		if (dataStream == null) {
+			throw new Exception("没有数据可以写。");
+		}
+		try {
+			return dataToSheet(null, dataStream.iterator());
+		} finally {
+			dataStream.close();
+		}
+	}
+
+	/**
+	 * 流式写入数据，指定sheet表名字，写满后自动写入新的sheet表，写完后关闭流
+	 * 
+	 * @param <T>
+	 * @param sheetName
+	 * @param dataStream
+	 * @return
+	 * @throws Exception
+	 */
+	public <T> ExcelWriter doWrite(String sheetName, Stream<T> dataStream) throws Exception {
+		if (dataStream == null) {
+			throw new Exception("没有数据可以写。");
+		}
+		try {
+			return dataToSheet(sheetName, dataStream.iterator());
+		} finally {
+			dataStream.close();
+		}
+	}
+
+	/**
+	 * 按列写入数据，默认写入第一个sheet表，第一行写表头，每一列是一个数组，写满后自动写入新的sheet表
+	 * 
+	 * @param headers 表头，和列数组一一对应
+	 * @param columns 列数组，支持long[]、int[]、double[]、String[]、LocalDate[]和Date[]，长度必须相同
+	 * @return
+	 * @throws Exception
+	 */
+	public ExcelWriter doWriteColumns(String[] headers, Object... columns) throws Exception {
+		return doWriteColumns(null, headers, columns);
+	}
+
+	/**
+	 * 按列写入数据，指定sheet表名字，第一行写表头，每一列是一个数组，写满后自动写入新的sheet表。
+	 * 基本类型数组直接写入单元格，不装箱，也不经过转换器
+	 * 
+	 * @param sheetName
+	 * @param headers   表头，和列数组一一对应
+	 * @param columns   列数组，支持long[]、int[]、double[]、String[]、LocalDate[]和Date[]，长度必须相同
+	 * @return
+	 * @throws Exception
+	 */
+	public ExcelWriter doWriteColumns(String sheetName, String[] headers, Object... columns) throws Exception {
+		if (workbook == null) {
+			logger.warning("工作簿不存在！");
+			throw new Exception("工作簿不存在！");
+		}
+		if (headers == null || columns == null || columns.length == 0) {
+			logger.warning("没有数据可以写。");
+			throw new Exception("没有数据可以写。");
+		}
+		if (headers.length != columns.length) {
+			throw new Exception("表头数量" + headers.length + "和列数量" + columns.length + "不一致");
+		}
+		ColumnWriter columnWriter = ColumnWriter.build(workbook, columns);
+		int maxRows = workbook.getSpreadsheetVersion().getMaxRows();
+		if (maxRowsPerSheet > 0 && maxRowsPerSheet < maxRows) {
+			maxRows = maxRowsPerSheet;
+		}
+		if (maxRows <= 1) {
+			throw new Exception("单个sheet表最大行数必须大于表头行数1");
+		}
+		Sheet sheet = newSheet(sheetName);
+		String baseSheetName = sheet.getSheetName();
+		int sheetCount = 1;
+		int rolloverIndex = 1;
+		writeColumnsHead(sheet, headers);
+		int rowIndex = 1;
+		WriteProgress progress = progress();
+		if (progress != null) {
+			progress.sheet(sheet.getSheetName());
+		}
+		logger.fine("开始向" + sheet.getSheetName() + "表按列写入数据。");
+		for (int i = 0, rowCount = columnWriter.getRowCount(); i < rowCount; i++) {
+			if (rowIndex >= maxRows) {
+				if (progress != null) {
+					progress.sheetDone();
+				}
+				// 当前sheet表写满，写入新的sheet表
+				sheetCount++;
+				rolloverIndex = nextRolloverIndex(baseSheetName, rolloverIndex);
+				sheet = workbook.createSheet(rolloverSheetName(baseSheetName, rolloverIndex));
+				if (progress != null) {
+					progress.sheet(sheet.getSheetName());
+				}
+				writeColumnsHead(sheet, headers);
+				rowIndex = 1;
+			}
+			columnWriter.write(SheetUtil.getRow(sheet, rowIndex++), i);
+			if (progress != null) {
+				progress.row();
+			}
+		}
+		if (progress != null) {
+			progress.sheetDone();
+		}
+		logger.fine("所有数据按列写入excel完毕，共" + sheetCount + "个sheet表。");
+		return this;
+	}
+
+	/**
+	 * 按列写入时写表头，表头写完后再设置内存中保留的行数
+	 * 
+	 * @param sheet
+	 * @param headers
+	 */
+	private void writeColumnsHead(Sheet sheet, String[] headers) {
+		Row headRow = SheetUtil.getRow(sheet, 0);
+		for (int i = 0; i < headers.length; i++) {
+			CellUtil.setCellValue(RowUtil.getCell(headRow, i), headers[i]);
+		}
+		if (rowAccessWindowSize > 0 && sheet instanceof SXSSFSheet) {
+			((SXSSFSheet) sheet).setRandomAccessWindowSize(rowAccessWindowSize);
+		}
+	}
+
+	/**
+	 * 流式向excel的sheet表写数据，sheet表写满后创建新的sheet表，重写表头后继续写入。
+	 * 使用模板时数据写在模板sheet表的表头之后，不重写表头，写满后创建的sheet表按注解或注册的列写表头
+	 * 
+	 * @param <T>
+	 * @param sheetName
+	 * @param dataIterator
+	 * @return
+	 * @throws Exception
+	 */
+	private <T> ExcelWriter dataToSheet(String sheetName, Iterator<T> dataIterator) throws Exception {
+		if (workbook == null) {
+			logger.warning("工作簿不存在！");
+			throw new Exception("工作簿不存在！");
+		}
+		if (dataIterator == null || !dataIterator.hasNext()) {
+			logger.warning("没有数据可以写。");
+			throw new Exception("没有数据可以写。");
+		}
+		try {
+			T data = dataIterator.next();
+			Class<T> clazz = (Class<T>) data.getClass();
+			Map<Integer, String> columnMap = null;
+			int headRowCount = 0;
+			if (columnFieldList != null && !columnFieldList.isEmpty()) {
+				columnMap = colIndexFieldMap.getColumnFieldMap();
+				headRowCount = SheetUtil.headRowCount(columnFieldList);
+			} else {
+				columnMap = SheetUtil.columnFieldMap(clazz);
+				headRowCount = SheetUtil.headRowCount(clazz);
+			}
+			Sheet sheet;
+			int rowIndex;
+			if (isTemplate) {
+				// sheet模板名称不存在，默认获取第一个sheet表，数据从模板表头的下一行开始写
+				sheet = WorkbookUtil.getSheet(workbook, sheetName);
+				if (columnFieldList != null && !columnFieldList.isEmpty()) {
+					rowIndex = SheetUtil.templateHeadLastRowNum(sheet, columnFieldList) + 1;
+				} else {
+					TemplateHead head = TemplateCache.getHead(templateFile, sheet, clazz);
+					columnMap = head.getColumnFieldMap();
+					rowIndex = head.getHeadLastRowNum() + 1;
+				}
+				if (rowIndex <= 0) {
+					throw new Exception(sheet.getSheetName() + "模板中没有找到表头");
+				}
+			} else {
+				sheet = newSheet(sheetName);
+				rowIndex = headRowCount;
+			}
+			if (columnMap == null || columnMap.isEmpty()) {
+				logger.warning("没有表格列和字段对应关系。");
+				throw new Exception("没有表格列和字段对应关系，不能写入数据");
+			}
+			int maxRows = workbook.getSpreadsheetVersion().getMaxRows();
+			if (maxRowsPerSheet > 0 && maxRowsPerSheet < maxRows) {
+				maxRows = maxRowsPerSheet;
+			}
+			if (maxRows <= headRowCount) {
+				throw new Exception("单个sheet表最大行数必须大于表头行数" + headRowCount);
+			}
+			withFmtMap(workbook, clazz);
+			// 列样式只计算一次，写每一行时按下标设置
+			CellStyle[] columnStyles = RowUtil.columnStyles(fmtMap, columnMap, clazz);
+			RowWriter<T> rowWriter = RowWriter.build(clazz, columnMap, converters.snapshot(), defaultConverter,
+					columnStyles, workbook);
+			String baseSheetName = sheet.getSheetName();
+			int sheetCount = 1;
+			int rolloverIndex = 1;
+			if (!isTemplate) {
+				writeStreamHead(sheet, clazz);
+			}
+			WriteProgress progress = progress();
+			if (progress != null) {
+				progress.sheet(sheet.getSheetName());
+			}
+			logger.fine("开始向" + sheet.getSheetName() + "表流式写入数据。");
+			while (true) {
+				if (rowIndex >= maxRows) {
+					if (progress != null) {
+						progress.sheetDone();
+					}
+					// 当前sheet表写满，写入新的sheet表
+					sheetCount++;
+					rolloverIndex = nextRolloverIndex(baseSheetName, rolloverIndex);
+					sheet = workbook.createSheet(rolloverSheetName(baseSheetName, rolloverIndex));
+					if (progress != null) {
+						progress.sheet(sheet.getSheetName());
+					}
+					writeStreamHead(sheet, clazz);
+					rowIndex = headRowCount;
+				}
+				Row row = SheetUtil.getRow(sheet, rowIndex++);
+				rowWriter.write(row, data);
+				if (progress != null) {
+					progress.row();
+				}
+				if (!dataIterator.hasNext()) {
+					break;
+				}
+				data = dataIterator.next();
+			}
+			if (progress != null) {
+				progress.sheetDone();
+			}
+			logger.fine("所有数据流式写入excel完毕，共" + sheetCount + "个sheet表。");
+		} finally {
+			// 每次写完sheet表就清空列索引和字段的映射，所以每次写sheet表之前给定列索引和字段的映射
+			if (colIndexFieldMap != null) {
+				colIndexFieldMap.clear();
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * 流式写入和按列写入的第一个sheet表，从第一行开始写表头。
+	 * 指定名字的sheet表已经存在或者默认的第一个sheet表已经有数据时报错，不覆盖已有的表头和已经刷新到临时文件的行
+	 * 
+	 * @param sheetName 为空时使用第一个sheet表
+	 * @return
+	 * @throws Exception
+	 */
+	private Sheet newSheet(String sheetName) throws Exception {
+		if (sheetName != null && !"".equals(sheetName)) {
+			if (workbook.getSheet(sheetName) != null) {
+				logger.warning(sheetName + "表已经存在");
+				throw new Exception(sheetName + "表已经存在，不能重复写入");
+			}
+		} else if (workbook.getNumberOfSheets() > 0 && workbook.getSheetAt(0).getPhysicalNumberOfRows() > 0) {
+			String firstSheetName = workbook.getSheetAt(0).getSheetName();
+			logger.warning(firstSheetName + "表已经有数据");
+			throw new Exception(firstSheetName + "表已经有数据，不能重复写入");
+		}
+		return WorkbookUtil.getSheet(workbook, sheetName);
+	}
+
+	/**
+	 * 下一个没有被使用的自动创建sheet表序号
+	 * 
+	 * @param baseSheetName
+	 * @param rolloverIndex 上一个使用的序号
+	 * @return
+	 */
+	private int nextRolloverIndex(String baseSheetName, int rolloverIndex) {
+		do {
+			rolloverIndex++;
+		} while (workbook.getSheet(rolloverSheetName(baseSheetName, rolloverIndex)) != null);
+		return rolloverIndex;
+	}
+
+	/**
+	 * 写数据进度统计，没有设置进度监听返回null
+	 * 
+	 * @return
+	 */
+	private WriteProgress progress() {
+		if (progress == null && progressListener != null) {
+			progress = WriteProgress.build(progressListener, progressInterval);
+		}
+		return progress;
+	}
+
+	/**
+	 * 流式写入时写表头，表头写完后再设置内存中保留的行数，避免合并单元格的表头行被提前刷新
+	 * 
+	 * @param <T>
+	 * @param sheet
+	 * @param clazz
+	 */
+	private <T> void writeStreamHead(Sheet sheet, Class<T> clazz) {
+		if (columnFieldList != null && !columnFieldList.isEmpty()) {
+			SheetUtil.writeHeadRow(sheet, columnFieldList);
+		} else {
+			SheetUtil.writeHeadRow(sheet, clazz);
+		}
+		if (rowAccessWindowSize > 0 && sheet instanceof SXSSFSheet) {
+			((SXSSFSheet) sheet).setRandomAccessWindowSize(rowAccessWindowSize);
+		}
+	}
+
+	/**
+	 * 自动创建的sheet表名字，sheet表名字最长31个字符
+	 * 
+	 * @param baseSheetName
+	 * @param sheetCount
+	 * @return
+	 */
+	private String rolloverSheetName(String baseSheetName, int sheetCount) {
+		String suffix = "_" + sheetCount;
+		if (baseSheetName.length() + suffix.length() > 31) {
+			baseSheetName = baseSheetName.substring(0, 31 - suffix.length());
+		}
+		return baseSheetName + suffix;
+	}
+
 	/**
 	 * 向excel的sheet表写数据
 	 * 
@@ -402,18 +858,28 @@ public class ExcelWriter {
 			logger.warning("sheet表数据量超出限制");
 			throw new Exception("单个sheet表最多导出" + MAXROW + "条数据，请分多个sheet表导出。");
 		}
-		Class<?> clazz = dataList.get(0).getClass();
+		Class<T> clazz = (Class<T>) dataList.get(0).getClass();
 		withFmtMap(workbook, clazz);
-		logger.info("开始向" + sheet.getSheetName() + "表写入数据。");
+		// 写入计划和列样式只创建一次，每行不再查找getter方法、转换器和格式
+		CellStyle[] columnStyles = RowUtil.columnStyles(fmtMap, columnMap, clazz);
+		RowWriter<T> rowWriter = RowWriter.build(clazz, columnMap, converters.snapshot(), defaultConverter,
+				columnStyles, workbook);
+		WriteProgress progress = progress();
+		if (progress != null) {
+			progress.sheet(sheet.getSheetName());
+		}
 		for (int i = 0, len = dataList.size(); i < len; i++) {
 			Row row = SheetUtil.getRow(sheet, i + startRow);
-			// 设置行单元格注解定义的格式
-			RowUtil.setRowCellFormat(row, fmtMap, columnMap, clazz);
-			// 数据写入到excel表行中
-			dataToRow(row, columnMap, dataList.get(i));
-			logger.info("excel的" + sheet.getSheetName() + "表第" + (startRow + i + 1) + "行数据写入完成。");
+			// 设置注解定义的格式并写入数据
+			rowWriter.write(row, dataList.get(i));
+			if (progress != null) {
+				progress.row();
+			}
 		}
-		logger.info("所有数据写入excel的 " + sheet.getSheetName() + "表完毕。");
+		if (progress != null) {
+			progress.sheetDone();
+		}
+		logger.fine("所有数据写入excel的 " + sheet.getSheetName() + "表完毕。");
 		// 每次写完sheet表就清空列索引和字段的映射，所以每次写sheet表之前给定列索引和字段的映射
 		if (colIndexFieldMap != null) {
 			colIndexFieldMap.clear();
@@ -421,42 +887,6 @@ public class ExcelWriter {
 		return this;
 	}
 
-	/**
-	 * 将数据写入到excel表行中
-	 * 
-	 * @param <T>
-	 * @param row
-	 * @param columnMap
-	 * @param data
-	 * @throws Exception
-	 */
-	private <T> void dataToRow(Row row, Map<Integer, String> columnMap, T data) throws Exception {
-		Class<T> clazz = (Class<T>) data.getClass();
-		columnMap.entrySet().forEach(v->{
-			Cell cell = RowUtil.getCell(row, v.getKey());
-			String fieldName = v.getValue();
-			Map<String, Converter<Cell, ?>> cv = converters.getConverters();
-			if (cv != null && !cv.isEmpty() && cv.containsKey(fieldName)) {
-				//如果这里写入了样式就会覆盖注解的样式
-				((Converter<Cell, T>)cv.get(fieldName)).convert(cell, data);
-			} else {
-				String getterName = "get" + fieldName.substring(0, 1).toUpperCase() + fieldName.substring(1);
-				try {
-					//必须是一个无参的getter方法
-					Method method = clazz.getDeclaredMethod(getterName);
-					method.setAccessible(true);
-					// 数据写入单元格
-					defaultConverter.defaultConvert(cell, method.invoke(data));
-				} catch (NoSuchMethodException | SecurityException | 
-						IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-					logger.warning(e.getMessage());
-					e.printStackTrace();
-				}
-			}
-		});
-	
-	}
-
 	/**
 	 * 指定模板名称写数据
 	 * @param <T>
@@ -483,8 +913,10 @@ public class ExcelWriter {
 			throw new Exception("注册列索引和字段名映射写模板时要指定开始写的行索引。");
 		}else{
 			T t = dataList.get(0);
-			columnMap = SheetUtil.templateColumnFieldMap(sheet, t.getClass());
-			startRow = SheetUtil.templateHeadLastRowNum(sheet, t.getClass()) + 1;
+			// 同一模板的表头信息只解析一次
+			TemplateHead head = TemplateCache.getHead(templateFile, sheet, t.getClass());
+			columnMap = head.getColumnFieldMap();
+			startRow = head.getHeadLastRowNum() + 1;
 		}
 		this.dataToSheet(sheet, startRow, columnMap, dataList);
 		return this;
@@ -512,7 +944,7 @@ public class ExcelWriter {
 			columnMap = colIndexFieldMap.getColumnFieldMap();
 		}else {
 			T t = dataList.get(0);
-			columnMap = SheetUtil.templateColumnFieldMap(sheet, t.getClass());
+			columnMap = TemplateCache.getHead(templateFile, sheet, t.getClass()).getColumnFieldMap();
 		}
 		
 		this.dataToSheet(sheet, startRow, columnMap, dataList);
@@ -551,9 +983,10 @@ public class ExcelWriter {
 					headColCount += 1;
 				}
 				int rowCount = mapDatas.size();
+				Map<String, Converter<Cell, ?>> converterSnapshot = converters.snapshot();
 				for (int i = 0; i < rowCount; i++) {
 					Row row = SheetUtil.getRow(sheet, i + startRow);
-					mapDataToRow(row, columnMap, mapDatas.get(i));
+					mapDataToRow(row, columnMap, mapDatas.get(i), converterSnapshot);
 				}
 			}
 		} catch (Exception e) {
@@ -570,12 +1003,13 @@ public class ExcelWriter {
 	 * @param row
 	 * @param columnMap
 	 * @param mapData
+	 * @param cv 写入前取到的转换器快照
 	 * @throws Exception
 	 */
-	private void mapDataToRow(Row row, Map<Integer, String> columnMap, Map<String, Object> mapData) throws Exception {
+	private void mapDataToRow(Row row, Map<Integer, String> columnMap, Map<String, Object> mapData,
+			Map<String, Converter<Cell, ?>> cv) throws Exception {
 		columnMap.entrySet().forEach(data->{
 			Cell cell = RowUtil.getCell(row, data.getKey());
-			Map<String, Converter<Cell, ?>> cv = converters.getConverters();
 			if (cv != null && !cv.isEmpty() && cv.containsKey(data.getValue())) {
 				((Converter<Cell, Map<String, Object>>)cv.get(data.getValue())).convert(cell, mapData);
 			} else {
@@ -608,8 +1042,16 @@ public class ExcelWriter {
 	 */
 	public ExcelWriter writeOut(OutputStream outputStream) {
 		try {
-			workbook.write(outputStream);
-			outputStream.flush();
+			if (progress != null) {
+				// 统计写出的字节数，不关闭包装流，原输出流由complete关闭
+				OutputStream countStream = progress.count(outputStream);
+				workbook.write(countStream);
+				countStream.flush();
+				progress.finish();
+			} else {
+				workbook.write(outputStream);
+				outputStream.flush();
+			}
 		} catch (Exception e) {
 			logger.warning("写excel文件发生异常，" + e.getMessage());
 			e.printStackTrace();
@@ -639,15 +1081,11 @@ public class ExcelWriter {
 				outputStream.close();
 			}
 
-			logger.info("资源释放完成");
+			logger.fine("资源释放完成");
 		} catch (Exception e) {
 			logger.warning("关闭IO资源发生异常");
 			e.printStackTrace();
 			return false;
-		} finally {
-			if (cacheFile != null) {
-				cacheFile.delete();
-			}
 		}
 		return true;
 	}
@@ -664,20 +1102,9 @@ public class ExcelWriter {
 			fmtMap = new HashMap<String, CellStyle>();
 		}
 		fmtMap.clear();
-		Field[] fields = clazz.getDeclaredFields();
-		for (int i = 0, len = fields.length; i < len; i++) {
-			Field field = fields[i];
-			field.setAccessible(true);
-			// 判断字段是否标注Excel注解
-			if (field.isAnnotationPresent(Excel.class)) {
-				// 获取Excel注解
-				Excel ex = field.getAnnotation(Excel.class);
-				if (ex.order() > -1 && !"".equals(ex.fmt())) {
-					DataFormat dataFormat = workbook.createDataFormat();
-					fmtMap.computeIfAbsent(ex.fmt(), k -> workbook.createCellStyle())
-							.setDataFormat(dataFormat.getFormat(ex.fmt()));
-				}
-			}
+		DataFormat dataFormat = workbook.createDataFormat();
+		for (String fmt : ExcelClassMetadata.of(clazz).getFmts()) {
+			fmtMap.computeIfAbsent(fmt, k -> workbook.createCellStyle()).setDataFormat(dataFormat.getFormat(fmt));
 		}
 	}
 }
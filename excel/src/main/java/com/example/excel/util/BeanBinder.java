@@ -0,0 +1,527 @@
+package com.example.excel.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 数据类的字段访问器，每个类只在第一次使用时解析一次构造方法、setter和getter方法，
+ * 生成MethodHandle后缓存，读写数据时不再反射查找方法和比较类型名称。
+ *
+ * @param <T>
+ */
+public final class BeanBinder<T> {
+	private static final ClassValue<BeanBinder<?>> BINDERS = new ClassValue<BeanBinder<?>>() {
+		@Override
+		protected BeanBinder<?> computeValue(Class<?> type) {
+			return new BeanBinder<>(type);
+		}
+	};
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+	// 数值字段类型
+	static final int NUM_NONE = 0;
+	static final int NUM_INT = 1;
+	static final int NUM_LONG = 2;
+	static final int NUM_DOUBLE = 3;
+	static final int NUM_FLOAT = 4;
+	static final int NUM_SHORT = 5;
+	static final int NUM_BYTE = 6;
+	static final int NUM_BIG_DECIMAL = 7;
+
+	private final Class<T> clazz;
+	// 无参构造方法，类型为()Object
+	private final MethodHandle constructor;
+	// 字段名和字段访问器
+	private final Map<String, FieldBinder> fields;
+
+	private BeanBinder(Class<T> clazz) {
+		this.clazz = clazz;
+		this.constructor = constructorHandle(clazz);
+		Map<String, FieldBinder> map = new HashMap<String, FieldBinder>();
+		for (Field field : clazz.getDeclaredFields()) {
+			MethodHandle setter = setterHandle(clazz, field);
+			MethodHandle getter = getterHandle(clazz, field);
+			if (setter != null || getter != null) {
+				Method getterMethod = getter != null ? getterMethod(clazz, field) : null;
+				map.put(field.getName(), new FieldBinder(field.getName(), field.getType(),
+						getterMethod != null ? getterMethod.getReturnType() : null, setter, getter,
+						numberSetterHandle(clazz, field), doubleGetterHandle(clazz, field)));
+			}
+		}
+		this.fields = Collections.unmodifiableMap(map);
+	}
+
+	/**
+	 * 获取类的字段访问器，每个类只创建一次
+	 *
+	 * @param <T>
+	 * @param clazz
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> BeanBinder<T> of(Class<T> clazz) {
+		return (BeanBinder<T>) BINDERS.get(clazz);
+	}
+
+	/**
+	 * 使用无参构造方法创建实例
+	 *
+	 * @return
+	 * @throws Exception
+	 */
+	@SuppressWarnings("unchecked")
+	public T newInstance() throws Exception {
+		if (constructor == null) {
+			throw new Exception(clazz.getName() + "没有无参构造方法");
+		}
+		try {
+			return (T) constructor.invokeExact();
+		} catch (Exception | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new Exception(e);
+		}
+	}
+
+	/**
+	 * 获取字段访问器，字段不存在或者既没有setter方法也没有getter方法返回null
+	 *
+	 * @param fieldName
+	 * @return
+	 */
+	public FieldBinder field(String fieldName) {
+		return fields.get(fieldName);
+	}
+
+	/**
+	 * 数据类
+	 *
+	 * @return
+	 */
+	public Class<T> getType() {
+		return clazz;
+	}
+
+	/**
+	 * 无参构造方法
+	 *
+	 * @param clazz
+	 * @return
+	 */
+	private static MethodHandle constructorHandle(Class<?> clazz) {
+		try {
+			Constructor<?> constructor = clazz.getDeclaredConstructor();
+			constructor.setAccessible(true);
+			return LOOKUP.unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+		} catch (NoSuchMethodException | IllegalAccessException | SecurityException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * setter方法必须是严格的setXxx格式，只带一个参数，并且参数类型与字段类型一致
+	 *
+	 * @param clazz
+	 * @param field
+	 * @return
+	 */
+	private static Method setterMethod(Class<?> clazz, Field field) {
+		String fieldName = field.getName();
+		String setterMethodName = "set" + fieldName.substring(0, 1).toUpperCase() + fieldName.substring(1);
+		try {
+			Method method = clazz.getDeclaredMethod(setterMethodName, field.getType());
+			method.setAccessible(true);
+			return method;
+		} catch (NoSuchMethodException | SecurityException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * setter方法，类型为(Object,Object)void
+	 *
+	 * @param clazz
+	 * @param field
+	 * @return
+	 */
+	private static MethodHandle setterHandle(Class<?> clazz, Field field) {
+		Method method = setterMethod(clazz, field);
+		if (method == null) {
+			return null;
+		}
+		try {
+			return LOOKUP.unreflect(method).asType(MethodType.methodType(void.class, Object.class, Object.class));
+		} catch (IllegalAccessException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * 数值字段的setter方法，类型为(Object,基本类型)void，包装类型的字段自动装箱，
+	 * 赋值时不需要先转成BigDecimal；不是数值字段或者没有setter方法返回null
+	 *
+	 * @param clazz
+	 * @param field
+	 * @return
+	 */
+	private static MethodHandle numberSetterHandle(Class<?> clazz, Field field) {
+		Class<?> primitiveType = MethodType.methodType(field.getType()).unwrap().returnType();
+		if (!primitiveType.isPrimitive() || primitiveType == boolean.class || primitiveType == char.class
+				|| primitiveType == void.class) {
+			return null;
+		}
+		Method method = setterMethod(clazz, field);
+		if (method == null) {
+			return null;
+		}
+		try {
+			return LOOKUP.unreflect(method).asType(MethodType.methodType(void.class, Object.class, primitiveType));
+		} catch (IllegalAccessException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * getter方法必须是严格的getXxx格式，不带参数
+	 *
+	 * @param clazz
+	 * @param field
+	 * @return
+	 */
+	private static Method getterMethod(Class<?> clazz, Field field) {
+		String fieldName = field.getName();
+		String getterMethodName = "get" + fieldName.substring(0, 1).toUpperCase() + fieldName.substring(1);
+		try {
+			Method method = clazz.getDeclaredMethod(getterMethodName);
+			method.setAccessible(true);
+			return method;
+		} catch (NoSuchMethodException | SecurityException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * getter方法，类型为(Object)Object
+	 *
+	 * @param clazz
+	 * @param field
+	 * @return
+	 */
+	private static MethodHandle getterHandle(Class<?> clazz, Field field) {
+		Method method = getterMethod(clazz, field);
+		if (method == null) {
+			return null;
+		}
+		try {
+			return LOOKUP.unreflect(method).asType(MethodType.methodType(Object.class, Object.class));
+		} catch (IllegalAccessException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * 基本数值类型字段的getter方法，类型为(Object)double，取值时不装箱；
+	 * float字段按十进制字面值写入，不转double，返回null
+	 *
+	 * @param clazz
+	 * @param field
+	 * @return
+	 */
+	private static MethodHandle doubleGetterHandle(Class<?> clazz, Field field) {
+		Class<?> type = field.getType();
+		if (!type.isPrimitive() || type == boolean.class || type == char.class || type == float.class) {
+			return null;
+		}
+		Method method = getterMethod(clazz, field);
+		if (method == null || method.getReturnType() != type) {
+			return null;
+		}
+		try {
+			return LOOKUP.unreflect(method).asType(MethodType.methodType(double.class, Object.class));
+		} catch (IllegalAccessException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * 单个字段的访问器，字段类型在创建时解析好
+	 */
+	public static final class FieldBinder {
+		// 字段名
+		private final String name;
+		// 字段类型
+		private final Class<?> type;
+		// getter方法的返回类型，可能和字段类型不同，没有getter为null
+		private final Class<?> getterType;
+		// 基本类型对应的包装类型，用于判断值是否可以赋给字段
+		private final Class<?> boxedType;
+		// 数值类型
+		private final int numKind;
+		// setter方法，类型为(Object,Object)void，没有为null
+		private final MethodHandle setter;
+		// getter方法，类型为(Object)Object，没有为null
+		private final MethodHandle getter;
+		// 数值字段的setter方法，类型为(Object,基本类型)void，不是数值字段为null
+		private final MethodHandle numberSetter;
+		// 基本数值类型字段的getter方法，类型为(Object)double，不是基本数值类型为null
+		private final MethodHandle doubleGetter;
+
+		private FieldBinder(String name, Class<?> type, Class<?> getterType, MethodHandle setter,
+				MethodHandle getter, MethodHandle numberSetter, MethodHandle doubleGetter) {
+			this.name = name;
+			this.type = type;
+			this.getterType = getterType;
+			this.boxedType = box(type);
+			this.numKind = numKind(boxedType);
+			this.setter = setter;
+			this.getter = getter;
+			this.numberSetter = numberSetter;
+			this.doubleGetter = doubleGetter;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public Class<?> getType() {
+			return type;
+		}
+
+		/**
+		 * getter方法的返回类型，写入时按这个类型取值，没有getter为null
+		 *
+		 * @return
+		 */
+		public Class<?> getGetterType() {
+			return getterType;
+		}
+
+		public boolean hasSetter() {
+			return setter != null;
+		}
+
+		public boolean hasGetter() {
+			return getter != null;
+		}
+
+		/**
+		 * 是否可以直接用单元格的数值赋值，BigDecimal字段不可以
+		 *
+		 * @return
+		 */
+		public boolean isPrimitiveNumber() {
+			return numberSetter != null;
+		}
+
+		/**
+		 * 单元格的数值直接转换成字段的数值类型赋值，不创建BigDecimal。
+		 * 整数类型和读成BigDecimal（保留12位小数）再取整的结果一致，浮点类型使用单元格保存的数值
+		 *
+		 * @param bean
+		 * @param value
+		 * @throws Exception
+		 */
+		public void setNumber(Object bean, double value) throws Exception {
+			try {
+				switch (numKind) {
+				case NUM_INT:
+					numberSetter.invokeExact(bean, (int) CellUtil.numericToLong(value));
+					break;
+				case NUM_LONG:
+					numberSetter.invokeExact(bean, CellUtil.numericToLong(value));
+					break;
+				case NUM_DOUBLE:
+					numberSetter.invokeExact(bean, CellUtil.numericToDouble(value));
+					break;
+				case NUM_FLOAT:
+					numberSetter.invokeExact(bean, (float) CellUtil.numericToDouble(value));
+					break;
+				case NUM_SHORT:
+					numberSetter.invokeExact(bean, (short) CellUtil.numericToLong(value));
+					break;
+				default:
+					numberSetter.invokeExact(bean, (byte) CellUtil.numericToLong(value));
+					break;
+				}
+			} catch (Exception | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new Exception(e);
+			}
+		}
+
+		/**
+		 * 是否是long或Long字段，这类字段可以用setLong赋值，不经过double
+		 *
+		 * @return
+		 */
+		public boolean isLongNumber() {
+			return numKind == NUM_LONG && numberSetter != null;
+		}
+
+		/**
+		 * 整数直接赋给long或Long字段，超过2^53的整数不丢失精度
+		 *
+		 * @param bean
+		 * @param value
+		 * @throws Exception
+		 */
+		public void setLong(Object bean, long value) throws Exception {
+			try {
+				numberSetter.invokeExact(bean, value);
+			} catch (Exception | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new Exception(e);
+			}
+		}
+
+		/**
+		 * 单元格读出的BigDecimal转换成字段的数值类型，其他值原样返回
+		 *
+		 * @param value
+		 * @return
+		 */
+		public Object adapt(Object value) {
+			if (!(value instanceof BigDecimal) || numKind == NUM_NONE || numKind == NUM_BIG_DECIMAL) {
+				return value;
+			}
+			BigDecimal bigDecimal = (BigDecimal) value;
+			switch (numKind) {
+			case NUM_INT:
+				return bigDecimal.intValue();
+			case NUM_LONG:
+				return bigDecimal.longValue();
+			case NUM_DOUBLE:
+				return bigDecimal.doubleValue();
+			case NUM_FLOAT:
+				return bigDecimal.floatValue();
+			case NUM_SHORT:
+				return bigDecimal.shortValue();
+			default:
+				return bigDecimal.byteValue();
+			}
+		}
+
+		/**
+		 * 值是否可以赋给字段
+		 *
+		 * @param value
+		 * @return
+		 */
+		public boolean accepts(Object value) {
+			return value == null ? !type.isPrimitive() : boxedType.isInstance(value);
+		}
+
+		/**
+		 * 调用setter方法赋值
+		 *
+		 * @param bean
+		 * @param value
+		 * @throws Exception
+		 */
+		public void set(Object bean, Object value) throws Exception {
+			try {
+				setter.invokeExact(bean, value);
+			} catch (Exception | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new Exception(e);
+			}
+		}
+
+		/**
+		 * 调用getter方法取值
+		 *
+		 * @param bean
+		 * @return
+		 * @throws Exception
+		 */
+		public Object get(Object bean) throws Exception {
+			try {
+				return (Object) getter.invokeExact(bean);
+			} catch (Exception | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new Exception(e);
+			}
+		}
+
+		/**
+		 * 是否可以不装箱直接取double值
+		 *
+		 * @return
+		 */
+		public boolean hasDoubleGetter() {
+			return doubleGetter != null;
+		}
+
+		/**
+		 * 调用getter方法取基本数值类型字段的值
+		 *
+		 * @param bean
+		 * @return
+		 * @throws Exception
+		 */
+		public double getDouble(Object bean) throws Exception {
+			try {
+				return (double) doubleGetter.invokeExact(bean);
+			} catch (Exception | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new Exception(e);
+			}
+		}
+
+		/**
+		 * 基本类型转包装类型
+		 *
+		 * @param type
+		 * @return
+		 */
+		private static Class<?> box(Class<?> type) {
+			if (!type.isPrimitive()) {
+				return type;
+			}
+			return MethodType.methodType(type).wrap().returnType();
+		}
+
+		/**
+		 * 数值类型
+		 *
+		 * @param boxedType
+		 * @return
+		 */
+		private static int numKind(Class<?> boxedType) {
+			if (boxedType == Integer.class) {
+				return NUM_INT;
+			}
+			if (boxedType == Long.class) {
+				return NUM_LONG;
+			}
+			if (boxedType == Double.class) {
+				return NUM_DOUBLE;
+			}
+			if (boxedType == Float.class) {
+				return NUM_FLOAT;
+			}
+			if (boxedType == Short.class) {
+				return NUM_SHORT;
+			}
+			if (boxedType == Byte.class) {
+				return NUM_BYTE;
+			}
+			if (boxedType == BigDecimal.class) {
+				return NUM_BIG_DECIMAL;
+			}
+			return NUM_NONE;
+		}
+	}
+}
@@ -1,14 +1,15 @@
 package com.example.excel.util;
 
-import java.lang.reflect.Field;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.logging.Logger;
 
-import org.apache.poi.hssf.usermodel.HSSFDateUtil;
 import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.ClientAnchor;
 import org.apache.poi.ss.usermodel.Comment;
 import org.apache.poi.ss.usermodel.Drawing;
@@ -17,6 +18,18 @@ import org.apache.poi.xssf.usermodel.XSSFRichTextString;
 
 public final class CellUtil {
 	private static final Logger logger = Logger.getLogger(CellUtil.class.getName());
+	// 保留12位小数时进位的最小差值0.5E-12，取不大于它的最大double
+	private static final double HALF_SCALE = halfScale();
+	// 写入单元格的值类型
+	public static final int VALUE_OBJECT = 0;
+	public static final int VALUE_NUMBER = 1;
+	public static final int VALUE_FLOAT = 2;
+	public static final int VALUE_STRING = 3;
+	public static final int VALUE_BOOLEAN = 4;
+	public static final int VALUE_DATE = 5;
+	public static final int VALUE_CALENDAR = 6;
+	public static final int VALUE_LOCAL_DATE = 7;
+	public static final int VALUE_LOCAL_DATE_TIME = 8;
 
 	private CellUtil() {
 	}
@@ -29,23 +42,88 @@ public final class CellUtil {
 	 */
 	public static void setCellValue(Cell cell, Object obj) {
 		if (obj != null) {
-			logger.config("数据类型转换并写入单元格");
-			if (obj instanceof Date) {
-				cell.setCellValue((Date) obj);
-			} else if (obj instanceof Calendar) {
-				cell.setCellValue((Calendar) obj);
-			} else if (obj instanceof Boolean) {
-				cell.setCellValue((Boolean) obj);
-			} else if (obj instanceof Integer || obj instanceof Byte || obj instanceof Character || obj instanceof Short
-					|| obj instanceof Double || obj instanceof Float) {
-				cell.setCellValue(Double.valueOf(String.valueOf(obj)));
-			} else if (obj instanceof BigDecimal) {
-				BigDecimal bg = (BigDecimal) obj;
-				cell.setCellValue(bg.doubleValue());
-			} else {
-				cell.setCellValue(String.valueOf(obj));
-			}
+			setCellValue(cell, obj, valueKind(obj.getClass()));
+		}
+	}
+
+	/**
+	 * 按写入前解析好的值类型写入单元格，不做类型判断和字符串转换
+	 * 
+	 * @param cell
+	 * @param obj
+	 * @param valueKind 见{@link #valueKind(Class)}
+	 */
+	public static void setCellValue(Cell cell, Object obj, int valueKind) {
+		if (obj == null) {
+			return;
+		}
+		switch (valueKind) {
+		case VALUE_NUMBER:
+			cell.setCellValue(((Number) obj).doubleValue());
+			break;
+		case VALUE_FLOAT:
+			// float按十进制字面值写入，避免1.1f写成1.100000023841858
+			cell.setCellValue(Double.parseDouble(obj.toString()));
+			break;
+		case VALUE_STRING:
+			cell.setCellValue((String) obj);
+			break;
+		case VALUE_BOOLEAN:
+			cell.setCellValue((Boolean) obj);
+			break;
+		case VALUE_DATE:
+			cell.setCellValue((Date) obj);
+			break;
+		case VALUE_CALENDAR:
+			cell.setCellValue((Calendar) obj);
+			break;
+		case VALUE_LOCAL_DATE:
+			cell.setCellValue(DateTimeUtil.toDate((LocalDate) obj));
+			break;
+		case VALUE_LOCAL_DATE_TIME:
+			cell.setCellValue(DateTimeUtil.toDate((LocalDateTime) obj));
+			break;
+		default:
+			cell.setCellValue(String.valueOf(obj));
+			break;
+		}
+	}
+
+	/**
+	 * 写入单元格的值类型，按字段类型解析一次，每个单元格按类型直接写入。
+	 * 数值（包括Long和BigDecimal）写成数值单元格，Date、Calendar、LocalDate和LocalDateTime写成日期单元格，
+	 * 其他类型写成字符串
+	 * 
+	 * @param type
+	 * @return
+	 */
+	public static int valueKind(Class<?> type) {
+		if (type == String.class) {
+			return VALUE_STRING;
+		}
+		if (type == float.class || type == Float.class) {
+			return VALUE_FLOAT;
+		}
+		if (type == int.class || type == long.class || type == double.class || type == short.class
+				|| type == byte.class || Number.class.isAssignableFrom(type)) {
+			return VALUE_NUMBER;
+		}
+		if (type == boolean.class || type == Boolean.class) {
+			return VALUE_BOOLEAN;
+		}
+		if (Date.class.isAssignableFrom(type)) {
+			return VALUE_DATE;
+		}
+		if (Calendar.class.isAssignableFrom(type)) {
+			return VALUE_CALENDAR;
+		}
+		if (type == LocalDate.class) {
+			return VALUE_LOCAL_DATE;
+		}
+		if (type == LocalDateTime.class) {
+			return VALUE_LOCAL_DATE_TIME;
 		}
+		return VALUE_OBJECT;
 	}
 
 	/**
@@ -55,13 +133,31 @@ public final class CellUtil {
 	 * @return
 	 */
 	public static Object getCellValue(Cell cell) {
+		if (cell == null) {
+			return null;
+		}
+		// 只有数值单元格需要日期格式缓存
+		DateFormatCache dateFormats = cell.getCellType() == CellType.NUMERIC
+				? DateFormatCache.of(cell.getSheet().getWorkbook())
+				: null;
+		return getCellValue(cell, dateFormats);
+	}
+
+	/**
+	 * 单元格的值获取，使用调用方按sheet表取好的日期格式缓存，逐个单元格读取时不再查找工作簿的缓存
+	 * 
+	 * @param cell
+	 * @param dateFormats 单元格所在工作簿的日期格式缓存，单元格不是数值时可以为null
+	 * @return
+	 */
+	public static Object getCellValue(Cell cell, DateFormatCache dateFormats) {
 		if (cell == null) {
 			return null;
 		}
 		Object obj = null;
 		switch (cell.getCellType()) {
 		case NUMERIC: {
-			if (HSSFDateUtil.isCellDateFormatted(cell)) {
+			if (dateFormats.isDate(cell)) {
 				// 日期
 				obj = cell.getDateCellValue();
 			} else {
@@ -98,6 +194,36 @@ public final class CellUtil {
 		return obj;
 	}
 
+	/**
+	 * 数值取整，结果和new BigDecimal(value).setScale(12, RoundingMode.HALF_UP).longValue()一致，
+	 * 只有超出long范围的数值才创建BigDecimal
+	 * 
+	 * @param value
+	 * @return
+	 */
+	public static long numericToLong(double value) {
+		if (Math.abs(value) >= 9.0E18 || Double.isNaN(value)) {
+			return new BigDecimal(value).setScale(12, RoundingMode.HALF_UP).longValue();
+		}
+		double integer = value < 0 ? Math.ceil(value) : Math.floor(value);
+		// 小数部分保留12位后进位到下一个整数
+		if (1 - Math.abs(value - integer) <= HALF_SCALE) {
+			integer += value < 0 ? -1 : 1;
+		}
+		return (long) integer;
+	}
+
+	/**
+	 * 单元格数值转double，和整数的差小于保留12位小数的精度时取整数，其他返回单元格保存的数值
+	 * 
+	 * @param value
+	 * @return
+	 */
+	public static double numericToDouble(double value) {
+		double integer = Math.rint(value);
+		return Math.abs(value - integer) < HALF_SCALE ? integer : value;
+	}
+
 	/**
 	 * BigDecimal类型转其他数字类型
 	 * 
@@ -161,21 +287,13 @@ public final class CellUtil {
 	 * @return
 	 */
     public static <T> int columnIndex(String fieldName,Class<T> clazz) throws Exception{
-    	int result = -1;
-    	try {
-			Field field = clazz.getDeclaredField(fieldName);
-			field.setAccessible(true);
-			if(field.isAnnotationPresent(Excel.class)) {
-				Excel ex = field.getAnnotation(Excel.class);
-				result = ex.order();
-			}
-		} catch (NoSuchFieldException | SecurityException e) {
+		Integer result = ExcelClassMetadata.of(clazz).getColumnIndex(fieldName);
+		if (result == null) {
 			logger.warning("无法获取该字段所在单元格列序号");
-			e.printStackTrace();
 			throw new Exception("无法获取该字段所在单元格列序号");
 		}
-    	return result;
-    }
+		return result;
+	}
     /**
      * 获取字段所在列的名字，如果是复杂表头则返回最后一行表头列的名字。
      * @param <T>
@@ -184,25 +302,13 @@ public final class CellUtil {
      * @return
      */
     public static <T> String columnName(String fieldName,Class<T> clazz) throws Exception {
-    	String result = "";
-    	try {
-    		Field field = clazz.getDeclaredField(fieldName);
-    		field.setAccessible(true);
-			if(field.isAnnotationPresent(Excel.class)) {
-				Excel ex = field.getAnnotation(Excel.class);
-				String[] names = ex.name();
-				if(names!=null&&names.length > 0) {
-					result = names[names.length-1];
-				}
-				
-			}
-		} catch (Exception e) {
+		String result = ExcelClassMetadata.of(clazz).getColumnName(fieldName);
+		if (result == null) {
 			logger.warning("无法获取该字段所在列的名字");
-			e.printStackTrace();
 			throw new Exception("无法获取该字段所在列的名字");
 		}
-    	return result;
-    }
+		return result;
+	}
 	/**
 	 * 设置单元格批注
 	 * 
@@ -263,4 +369,17 @@ public final class CellUtil {
 		}
 		return false;
 	}
+
+	/**
+	 * 不大于0.5E-12的最大double
+	 * 
+	 * @return
+	 */
+	private static double halfScale() {
+		double value = 0.5E-12;
+		if (new BigDecimal(value).compareTo(new BigDecimal("0.5E-12")) > 0) {
+			value = Math.nextDown(value);
+		}
+		return value;
+	}
 }
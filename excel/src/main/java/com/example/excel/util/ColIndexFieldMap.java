@@ -1,6 +1,5 @@
 package com.example.excel.util;
 
-import java.lang.reflect.Field;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -107,15 +106,9 @@ public class ColIndexFieldMap {
 		if (fieldName == null || "".equals(fieldName) || clazz == null) {
 			return -1;
 		}
-		try {
-			Field field = clazz.getDeclaredField(fieldName);
-			field.setAccessible(true);
-			if (field.isAnnotationPresent(Excel.class)) {
-				Excel excel = field.getAnnotation(Excel.class);
-				return excel.order();
-			}
-		} catch (NoSuchFieldException | SecurityException e) {
-			e.printStackTrace();
+		Integer colIndex = ExcelClassMetadata.of(clazz).getColumnIndex(fieldName);
+		if (colIndex != null) {
+			return colIndex;
 		}
 		return -1;
 	}
@@ -0,0 +1,186 @@
+package com.example.excel.util;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+/**
+ * 按列写入的写入计划，每一列是一个数组，支持long[]、int[]、double[]、String[]、LocalDate[]和Date[]。
+ * 每一列在写入前解析成对应类型的写入器，写每个单元格时直接读取数组元素，基本类型数组不装箱。
+ * 引用类型数组中的null写成空单元格。
+ */
+public final class ColumnWriter {
+	// 日期列的格式
+	private static final String DATE_FMT = "yyyy-MM-dd";
+	// 日期时间列的格式
+	private static final String DATE_TIME_FMT = "yyyy-MM-dd HH:mm:ss";
+	// 1970-01-01在1900日期系统中的序号
+	private static final int EPOCH_DAY_1900 = 25569;
+	// 1904日期系统和1900日期系统相差的天数
+	private static final int DAYS_1904 = 1462;
+	// 每一列的写入器
+	private CellWriter[] cellWriters;
+	// 每一列的样式，没有样式为null
+	private CellStyle[] cellStyles;
+	// 行数
+	private int rowCount;
+
+	/**
+	 * 不给外部提供创建实例
+	 */
+	private ColumnWriter() {
+	}
+
+	/**
+	 * 创建按列写入计划，所有列的长度必须相同
+	 *
+	 * @param workbook 写入的工作簿，用于创建日期列的样式
+	 * @param columns  列数组
+	 * @return
+	 * @throws Exception 列类型不支持或者列长度不一致
+	 */
+	public static ColumnWriter build(Workbook workbook, Object... columns) throws Exception {
+		ColumnWriter columnWriter = FuncUtil.create(ColumnWriter::new);
+		int size = columns.length;
+		columnWriter.cellWriters = new CellWriter[size];
+		columnWriter.cellStyles = new CellStyle[size];
+		columnWriter.rowCount = -1;
+		CellStyle dateStyle = null;
+		CellStyle dateTimeStyle = null;
+		int dateOffset = EPOCH_DAY_1900 - (isDate1904(workbook) ? DAYS_1904 : 0);
+		for (int i = 0; i < size; i++) {
+			Object column = columns[i];
+			int length;
+			if (column instanceof long[]) {
+				long[] values = (long[]) column;
+				length = values.length;
+				columnWriter.cellWriters[i] = (cell, index) -> cell.setCellValue(values[index]);
+			} else if (column instanceof int[]) {
+				int[] values = (int[]) column;
+				length = values.length;
+				columnWriter.cellWriters[i] = (cell, index) -> cell.setCellValue(values[index]);
+			} else if (column instanceof double[]) {
+				double[] values = (double[]) column;
+				length = values.length;
+				columnWriter.cellWriters[i] = (cell, index) -> cell.setCellValue(values[index]);
+			} else if (column instanceof String[]) {
+				String[] values = (String[]) column;
+				length = values.length;
+				columnWriter.cellWriters[i] = (cell, index) -> {
+					if (values[index] != null) {
+						cell.setCellValue(values[index]);
+					}
+				};
+			} else if (column instanceof LocalDate[]) {
+				LocalDate[] values = (LocalDate[]) column;
+				length = values.length;
+				// 按日期序号直接写入数值，不经过Date和Calendar转换
+				columnWriter.cellWriters[i] = (cell, index) -> {
+					if (values[index] != null) {
+						cell.setCellValue((double) (values[index].toEpochDay() + dateOffset));
+					}
+				};
+				if (dateStyle == null) {
+					dateStyle = dateStyle(workbook, DATE_FMT);
+				}
+				columnWriter.cellStyles[i] = dateStyle;
+			} else if (column instanceof Date[]) {
+				Date[] values = (Date[]) column;
+				length = values.length;
+				columnWriter.cellWriters[i] = (cell, index) -> {
+					if (values[index] != null) {
+						cell.setCellValue(values[index]);
+					}
+				};
+				if (dateTimeStyle == null) {
+					dateTimeStyle = dateStyle(workbook, DATE_TIME_FMT);
+				}
+				columnWriter.cellStyles[i] = dateTimeStyle;
+			} else {
+				throw new Exception("第" + (i + 1) + "列的类型不支持，只支持long[]、int[]、double[]、String[]、LocalDate[]和Date[]");
+			}
+			if (columnWriter.rowCount >= 0 && columnWriter.rowCount != length) {
+				throw new Exception("第" + (i + 1) + "列的长度" + length + "和第1列的长度" + columnWriter.rowCount + "不一致");
+			}
+			columnWriter.rowCount = length;
+		}
+		if (columnWriter.rowCount < 0) {
+			columnWriter.rowCount = 0;
+		}
+		return columnWriter;
+	}
+
+	/**
+	 * 每一列的行数
+	 *
+	 * @return
+	 */
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * 列数
+	 *
+	 * @return
+	 */
+	public int getColumnCount() {
+		return cellWriters.length;
+	}
+
+	/**
+	 * 把每一列数组中指定下标的元素写入到一行，第i列写入到第i个单元格
+	 *
+	 * @param row
+	 * @param index 数组下标
+	 */
+	public void write(Row row, int index) {
+		for (int i = 0; i < cellWriters.length; i++) {
+			Cell cell = row.createCell(i);
+			if (cellStyles[i] != null) {
+				cell.setCellStyle(cellStyles[i]);
+			}
+			cellWriters[i].write(cell, index);
+		}
+	}
+
+	private static CellStyle dateStyle(Workbook workbook, String fmt) {
+		CellStyle style = workbook.createCellStyle();
+		style.setDataFormat(workbook.createDataFormat().getFormat(fmt));
+		return style;
+	}
+
+	/**
+	 * 工作簿是否使用1904日期系统
+	 *
+	 * @param workbook
+	 * @return
+	 */
+	private static boolean isDate1904(Workbook workbook) {
+		if (workbook instanceof SXSSFWorkbook) {
+			return ((SXSSFWorkbook) workbook).getXSSFWorkbook().isDate1904();
+		}
+		if (workbook instanceof XSSFWorkbook) {
+			return ((XSSFWorkbook) workbook).isDate1904();
+		}
+		if (workbook instanceof HSSFWorkbook) {
+			return ((HSSFWorkbook) workbook).getInternalWorkbook().isUsing1904DateWindowing();
+		}
+		return false;
+	}
+
+	/**
+	 * 一列的单元格写入器
+	 */
+	@FunctionalInterface
+	private interface CellWriter {
+		void write(Cell cell, int index);
+	}
+}
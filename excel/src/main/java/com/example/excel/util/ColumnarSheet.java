@@ -0,0 +1,480 @@
+package com.example.excel.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+
+/**
+ * 按列保存的sheet表数据，每一列用一个long数组保存，不为每一行创建对象。
+ * 数值列保存double的二进制位，日期列保存毫秒数，布尔列保存0和1，字符串列保存字典编码，相同的字符串只保存一份。
+ * 同一列出现不同类型的值时改为按对象保存。空单元格记录为null。
+ */
+public final class ColumnarSheet {
+	// 没有值的列
+	public static final int NONE = 0;
+	// 数值列
+	public static final int NUMBER = 1;
+	// 日期列
+	public static final int DATE = 2;
+	// 布尔列
+	public static final int BOOLEAN = 3;
+	// 字符串列
+	public static final int STRING = 4;
+	// 多种类型的列
+	public static final int OBJECT = 5;
+	// 初始行容量
+	private static final int INITIAL_CAPACITY = 1024;
+
+	// 列名称
+	private final String[] names;
+	// 列对应的sheet表列索引
+	private final int[] colIndexes;
+	// 列名称和列序号映射
+	private final Map<String, Integer> nameIndexes;
+	private final Column[] columns;
+	// 行数
+	private int rowCount;
+	// 当前行容量
+	private int capacity = INITIAL_CAPACITY;
+	// 上一次追加的行所在的工作簿和它的日期格式缓存
+	private Workbook workbook;
+	private DateFormatCache dateFormats;
+
+	/**
+	 * 不给外部提供创建实例
+	 */
+	private ColumnarSheet(Map<Integer, String> columnMap) {
+		Map<Integer, String> sorted = new TreeMap<Integer, String>(columnMap);
+		int size = sorted.size();
+		this.names = new String[size];
+		this.colIndexes = new int[size];
+		this.columns = new Column[size];
+		this.nameIndexes = new HashMap<String, Integer>();
+		int i = 0;
+		for (Map.Entry<Integer, String> entry : sorted.entrySet()) {
+			colIndexes[i] = entry.getKey();
+			names[i] = entry.getValue();
+			nameIndexes.putIfAbsent(entry.getValue(), i);
+			columns[i] = new Column(capacity);
+			i++;
+		}
+	}
+
+	/**
+	 * 创建空的列数据
+	 *
+	 * @param columnMap sheet表列索引和列名称映射
+	 * @return
+	 */
+	public static ColumnarSheet build(Map<Integer, String> columnMap) {
+		return new ColumnarSheet(columnMap);
+	}
+
+	/**
+	 * 追加一行数据，只读取有列名称的单元格
+	 *
+	 * @param row
+	 */
+	public void addRow(Row row) {
+		if (rowCount == capacity) {
+			capacity = capacity * 2;
+			for (Column column : columns) {
+				column.grow(capacity);
+			}
+		}
+		DateFormatCache dateFormats = dateFormats(row);
+		for (int i = 0; i < columns.length; i++) {
+			columns[i].add(rowCount, row.getCell(colIndexes[i]), dateFormats);
+		}
+		rowCount++;
+	}
+
+	/**
+	 * 行所在工作簿的日期格式缓存，同一个sheet表的行来自同一个工作簿，只在工作簿变化时重新获取
+	 *
+	 * @param row
+	 * @return
+	 */
+	private DateFormatCache dateFormats(Row row) {
+		Workbook rowWorkbook = row.getSheet().getWorkbook();
+		if (rowWorkbook != workbook) {
+			workbook = rowWorkbook;
+			dateFormats = DateFormatCache.of(rowWorkbook);
+		}
+		return dateFormats;
+	}
+
+	/**
+	 * 行数
+	 *
+	 * @return
+	 */
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * 列数
+	 *
+	 * @return
+	 */
+	public int getColumnCount() {
+		return columns.length;
+	}
+
+	/**
+	 * 列名称
+	 *
+	 * @param col
+	 * @return
+	 */
+	public String getColumnName(int col) {
+		return names[col];
+	}
+
+	/**
+	 * 列名称对应的列序号，重名时取第一列
+	 *
+	 * @param name
+	 * @return 没有这一列返回-1
+	 */
+	public int getColumnIndex(String name) {
+		Integer index = nameIndexes.get(name);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * 列的类型，{@link #NUMBER}、{@link #DATE}、{@link #BOOLEAN}、{@link #STRING}、{@link #OBJECT}或者{@link #NONE}
+	 *
+	 * @param col
+	 * @return
+	 */
+	public int getColumnType(int col) {
+		return columns[col].type;
+	}
+
+	/**
+	 * 单元格是否为空
+	 *
+	 * @param col
+	 * @param row
+	 * @return
+	 */
+	public boolean isNull(int col, int row) {
+		checkRow(row);
+		return !columns[col].present.get(row);
+	}
+
+	/**
+	 * 数值，空单元格返回0
+	 *
+	 * @param col
+	 * @param row
+	 * @return
+	 */
+	public double getDouble(int col, int row) {
+		Column column = column(col, row, NUMBER);
+		if (column.type == OBJECT) {
+			Object value = column.objects[row];
+			return value == null ? 0 : ((Number) value).doubleValue();
+		}
+		return Double.longBitsToDouble(column.values[row]);
+	}
+
+	/**
+	 * 整数，和读取数据到long字段的取整方式一致，空单元格返回0
+	 *
+	 * @param col
+	 * @param row
+	 * @return
+	 */
+	public long getLong(int col, int row) {
+		return CellUtil.numericToLong(getDouble(col, row));
+	}
+
+	/**
+	 * 布尔值，空单元格返回false
+	 *
+	 * @param col
+	 * @param row
+	 * @return
+	 */
+	public boolean getBoolean(int col, int row) {
+		Column column = column(col, row, BOOLEAN);
+		if (column.type == OBJECT) {
+			return Boolean.TRUE.equals(column.objects[row]);
+		}
+		return column.values[row] != 0;
+	}
+
+	/**
+	 * 日期，空单元格返回null
+	 *
+	 * @param col
+	 * @param row
+	 * @return
+	 */
+	public Date getDate(int col, int row) {
+		Column column = column(col, row, DATE);
+		if (column.type == OBJECT) {
+			return (Date) column.objects[row];
+		}
+		return column.present.get(row) ? new Date(column.values[row]) : null;
+	}
+
+	/**
+	 * 字符串，字符串列从字典中取值，其他类型的列转成字符串，空单元格返回null
+	 *
+	 * @param col
+	 * @param row
+	 * @return
+	 */
+	public String getString(int col, int row) {
+		checkRow(row);
+		Column column = columns[col];
+		if (!column.present.get(row)) {
+			return null;
+		}
+		if (column.type == STRING) {
+			return column.dictionary.get((int) column.values[row]);
+		}
+		return String.valueOf(getValue(col, row));
+	}
+
+	/**
+	 * 字符串列的字典编码，同一列中相同的字符串编码相同
+	 *
+	 * @param col
+	 * @param row
+	 * @return 空单元格返回-1
+	 */
+	public int getStringCode(int col, int row) {
+		Column column = column(col, row, STRING);
+		return column.present.get(row) ? (int) column.values[row] : -1;
+	}
+
+	/**
+	 * 字符串列的字典，下标即字典编码
+	 *
+	 * @param col
+	 * @return
+	 */
+	public List<String> getDictionary(int col) {
+		Column column = columns[col];
+		if (column.type != STRING) {
+			throw new IllegalStateException(names[col] + "列不是字符串列");
+		}
+		return Collections.unmodifiableList(column.dictionary);
+	}
+
+	/**
+	 * 单元格的值，数值和读取map数据一致返回BigDecimal，空单元格返回null
+	 *
+	 * @param col
+	 * @param row
+	 * @return
+	 */
+	public Object getValue(int col, int row) {
+		checkRow(row);
+		Column column = columns[col];
+		if (!column.present.get(row)) {
+			return null;
+		}
+		return column.value(row);
+	}
+
+	private void checkRow(int row) {
+		if (row < 0 || row >= rowCount) {
+			throw new IndexOutOfBoundsException("行序号" + row + "超出范围，总行数" + rowCount);
+		}
+	}
+
+	/**
+	 * 按类型取列，类型不一致时报错
+	 *
+	 * @param col
+	 * @param row
+	 * @param type
+	 * @return
+	 */
+	private Column column(int col, int row, int type) {
+		checkRow(row);
+		Column column = columns[col];
+		if (column.type != type && column.type != OBJECT && column.type != NONE) {
+			throw new IllegalStateException(names[col] + "列的类型不能按" + typeName(type) + "读取");
+		}
+		return column;
+	}
+
+	private static String typeName(int type) {
+		switch (type) {
+		case NUMBER:
+			return "数值";
+		case DATE:
+			return "日期";
+		case BOOLEAN:
+			return "布尔";
+		case STRING:
+			return "字符串";
+		default:
+			return "对象";
+		}
+	}
+
+	/**
+	 * 一列数据
+	 */
+	private static final class Column {
+		private int type = NONE;
+		// 数值、日期、布尔和字符串编码
+		private long[] values;
+		// 多种类型时按对象保存
+		private Object[] objects;
+		// 不为空的行
+		private final BitSet present = new BitSet();
+		// 字符串字典
+		private List<String> dictionary;
+		private Map<String, Integer> codes;
+
+		private Column(int capacity) {
+			values = new long[capacity];
+		}
+
+		private void grow(int capacity) {
+			if (objects != null) {
+				objects = Arrays.copyOf(objects, capacity);
+			} else {
+				values = Arrays.copyOf(values, capacity);
+			}
+		}
+
+		/**
+		 * 保存单元格的值，公式单元格取缓存的结果
+		 *
+		 * @param row
+		 * @param cell
+		 * @param dateFormats 单元格所在工作簿的日期格式缓存
+		 */
+		private void add(int row, Cell cell, DateFormatCache dateFormats) {
+			if (cell == null) {
+				return;
+			}
+			CellType cellType = cell.getCellType();
+			if (cellType == CellType.FORMULA) {
+				cellType = cell.getCachedFormulaResultType();
+			}
+			switch (cellType) {
+			case NUMERIC:
+				if (dateFormats.isDate(cell)) {
+					Date date = cell.getDateCellValue();
+					set(row, DATE, date.getTime(), date);
+				} else {
+					double value = cell.getNumericCellValue();
+					set(row, NUMBER, Double.doubleToRawLongBits(value), null);
+				}
+				break;
+			case STRING:
+				String text = cell.getStringCellValue();
+				if (type == STRING || type == NONE) {
+					set(row, STRING, code(text), null);
+				} else {
+					set(row, STRING, 0, text);
+				}
+				break;
+			case BOOLEAN:
+				boolean bool = cell.getBooleanCellValue();
+				set(row, BOOLEAN, bool ? 1 : 0, bool);
+				break;
+			default:
+			}
+		}
+
+		/**
+		 * 保存值，类型和列不一致时改为按对象保存
+		 *
+		 * @param row
+		 * @param valueType
+		 * @param bits   按列类型保存的值
+		 * @param object 按对象保存时的值，为null时从bits还原
+		 */
+		private void set(int row, int valueType, long bits, Object object) {
+			if (type == NONE) {
+				type = valueType;
+			} else if (type != valueType && type != OBJECT) {
+				toObjects();
+			}
+			present.set(row);
+			if (type == OBJECT) {
+				objects[row] = object != null ? object : value(valueType, bits);
+			} else {
+				values[row] = bits;
+			}
+		}
+
+		/**
+		 * 字符串的字典编码，第一次出现时加入字典
+		 *
+		 * @param text
+		 * @return
+		 */
+		private int code(String text) {
+			if (dictionary == null) {
+				dictionary = new ArrayList<String>();
+				codes = new HashMap<String, Integer>();
+			}
+			Integer code = codes.get(text);
+			if (code == null) {
+				code = dictionary.size();
+				dictionary.add(text);
+				codes.put(text, code);
+			}
+			return code;
+		}
+
+		/**
+		 * 改为按对象保存，已保存的值转成对象
+		 */
+		private void toObjects() {
+			objects = new Object[values.length];
+			for (int i = present.nextSetBit(0); i >= 0; i = present.nextSetBit(i + 1)) {
+				objects[i] = value(i);
+			}
+			type = OBJECT;
+			values = null;
+			dictionary = null;
+			codes = null;
+		}
+
+		private Object value(int row) {
+			return type == OBJECT ? objects[row] : value(type, values[row]);
+		}
+
+		private Object value(int valueType, long bits) {
+			switch (valueType) {
+			case NUMBER:
+				return new BigDecimal(Double.longBitsToDouble(bits)).setScale(12, RoundingMode.HALF_UP);
+			case DATE:
+				return new Date(bits);
+			case BOOLEAN:
+				return bits != 0;
+			case STRING:
+				return dictionary.get((int) bits);
+			default:
+				return null;
+			}
+		}
+	}
+}
@@ -1,23 +1,27 @@
 package com.example.excel.util;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.poi.ss.usermodel.Cell;
 /**
- *读写转换器 
- *
+ *读写转换器
+ *注册和清空时整体替换只读的映射，读写时取到的映射不会再被修改。
+ *冻结后的转换器不能修改，读完或写完sheet表也不会被清空，可以在多个读写实例和线程间共享。
  */
 public class Converters{
-	private Map<String,Converter<Cell,?>> globalConverters = new HashMap<String,Converter<Cell,?>>(0);
+	private volatile Map<String,Converter<Cell,?>> globalConverters = Collections.emptyMap();
+	// 是否已冻结
+	private boolean frozen = false;
 	private Converters() {}
-	
+
 	public static Converters build() {
 		return FuncUtil.create(Converters::new);
 	}
-    
+
 	/**
-	 *  获取转换器
+	 *  获取转换器，返回的映射只读
 	 * @param <T>
 	 * @param clazz
 	 * @return
@@ -25,7 +29,16 @@ public class Converters{
 	public <T> Map<String, Converter<Cell, ?>> getConverters(){
 		return globalConverters;
 	}
-	
+
+	/**
+	 * 获取转换器的只读快照，之后注册或清空转换器不影响快照，可以在多线程间共享
+	 *
+	 * @return
+	 */
+	public Map<String, Converter<Cell, ?>> snapshot() {
+		return globalConverters;
+	}
+
 	/**
 	 *  注册转换器
 	 * @param <T>
@@ -33,14 +46,79 @@ public class Converters{
 	 * @param fieldName
 	 * @param converter
 	 */
-	public <T> void registerConverter(String fieldName,Converter<Cell, T> converter) {
-		globalConverters.put(fieldName, converter);
+	public synchronized <T> void registerConverter(String fieldName,Converter<Cell, T> converter) {
+		if (frozen) {
+			throw new UnsupportedOperationException("冻结的转换器不能再注册转换器");
+		}
+		Map<String, Converter<Cell, ?>> map = new HashMap<String, Converter<Cell, ?>>(globalConverters);
+		map.put(fieldName, converter);
+		globalConverters = Collections.unmodifiableMap(map);
+	}
+
+	/**
+	 * 清空转换器，冻结的转换器不清空
+	 */
+	public synchronized void clearConverter() {
+		if (!frozen) {
+			globalConverters = Collections.emptyMap();
+		}
+	}
+
+	/**
+	 * 冻结当前注册的转换器，返回不能修改的转换器，当前实例不受影响
+	 *
+	 * @return
+	 */
+	public Converters freeze() {
+		if (frozen) {
+			return this;
+		}
+		Converters converters = build();
+		converters.frozen = true;
+		converters.globalConverters = globalConverters;
+		return converters;
 	}
-    
+
+	/**
+	 * 复制一份可以修改的转换器
+	 *
+	 * @return
+	 */
+	public Converters copy() {
+		Converters converters = build();
+		converters.globalConverters = globalConverters;
+		return converters;
+	}
+
+	/**
+	 * 是否已冻结
+	 *
+	 * @return
+	 */
+	public boolean isFrozen() {
+		return frozen;
+	}
+
 	/**
-	 * 清空转换器
+	 * 创建每一列一个转换器的数组，没有注册转换器的列为null
+	 *
+	 * @param size
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	static Converter<Cell, Object>[] newArray(int size) {
+		return (Converter<Cell, Object>[]) new Converter<?, ?>[size];
+	}
+
+	/**
+	 * 字段注册的转换器，按Object类型调用，没有注册返回null
+	 *
+	 * @param converters
+	 * @param fieldName
+	 * @return
 	 */
-	public void clearConverter() {
-		globalConverters.clear();
+	@SuppressWarnings("unchecked")
+	static Converter<Cell, Object> get(Map<String, Converter<Cell, ?>> converters, String fieldName) {
+		return (Converter<Cell, Object>) converters.get(fieldName);
 	}
 }
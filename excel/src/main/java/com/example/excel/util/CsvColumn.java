@@ -0,0 +1,349 @@
+package com.example.excel.util;
+
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+
+/**
+ * csv文件的一列和字段的映射，读写前按字段类型解析好，和excel使用相同的注解、列索引和字段映射以及转换器。
+ * 没有注册转换器的字段直接在文本和字段值之间转换，不经过单元格；
+ * 注册了转换器的字段借助一个临时单元格调用转换器，读取时单元格中是字段的文本，写入时取转换器写入单元格的值，
+ * 临时单元格由读写器创建并在释放资源时关闭所在的工作簿。
+ */
+public final class CsvColumn {
+	// 日期时间字段默认格式
+	private static final String DATE_TIME_FMT = "yyyy-MM-dd HH:mm:ss";
+	// 日期字段默认格式
+	private static final String DATE_FMT = "yyyy-MM-dd";
+	// 列索引
+	private int colIndex;
+	private Class<?> clazz;
+	private BeanBinder.FieldBinder fieldBinder;
+	// 字段的值类型，见CellUtil.valueKind
+	private int valueKind;
+	// getter返回值的类型，返回类型可能和字段类型不同
+	private int getterKind;
+	// 日期字段的格式
+	private DateTimeFormatter formatter;
+	// getter返回日期时写入的格式，和字段类型相同时就是字段的格式
+	private DateTimeFormatter getterFormatter;
+	// 转换器，没有注册为null
+	private Converter<Cell, Object> converter;
+	// 调用转换器的临时单元格，同一次读写的列共用
+	private Cell scratchCell;
+	// 临时单元格所在工作簿的日期格式缓存
+	private DateFormatCache dateFormats;
+
+	/**
+	 * 不给外部提供创建实例
+	 */
+	private CsvColumn() {
+	}
+
+	/**
+	 * 按列索引顺序创建每一列的映射
+	 *
+	 * @param clazz          数据类
+	 * @param columnFieldMap 列索引和字段映射
+	 * @param converters     字段名和转换器映射，可以为null
+	 * @param scratchCell    提供调用转换器的临时单元格，有字段注册了转换器时才获取
+	 * @param read           是否用于读取，读取时字段必须有setter方法，和excel读取一样报错
+	 * @return
+	 * @throws Exception 字段不存在，或者读取时没有setter方法
+	 */
+	@SuppressWarnings("unchecked")
+	public static CsvColumn[] build(Class<?> clazz, Map<Integer, String> columnFieldMap,
+			Map<String, Converter<Cell, ?>> converters, Supplier<Cell> scratchCell, boolean read) throws Exception {
+		if (clazz == null) {
+			throw new Exception("必须指定读写数据的类。");
+		}
+		BeanBinder<?> beanBinder = BeanBinder.of(clazz);
+		Map<String, String> fieldFmtMap = ExcelClassMetadata.of(clazz).getFieldFmtMap();
+		CsvColumn[] columns = new CsvColumn[columnFieldMap.size()];
+		int i = 0;
+		for (Entry<Integer, String> entry : new TreeMap<Integer, String>(columnFieldMap).entrySet()) {
+			String fieldName = entry.getValue();
+			BeanBinder.FieldBinder fieldBinder = beanBinder.field(fieldName);
+			if (read && (fieldBinder == null || !fieldBinder.hasSetter())) {
+				throw new Exception(clazz.getName() + "没有" + fieldName + "字段或者没有对应的setter方法");
+			}
+			if (fieldBinder == null) {
+				throw new Exception(clazz.getName() + "没有" + fieldName + "字段");
+			}
+			CsvColumn column = FuncUtil.create(CsvColumn::new);
+			column.colIndex = entry.getKey();
+			column.clazz = clazz;
+			column.fieldBinder = fieldBinder;
+			column.valueKind = CellUtil.valueKind(fieldBinder.getType());
+			column.getterKind = fieldBinder.hasGetter() ? CellUtil.valueKind(fieldBinder.getGetterType()) : column.valueKind;
+			column.formatter = formatter(fieldFmtMap.get(fieldName), column.valueKind);
+			column.getterFormatter = column.getterKind == column.valueKind ? column.formatter
+					: formatter(fieldFmtMap.get(fieldName), column.getterKind);
+			if (converters != null && converters.get(fieldName) != null) {
+				column.converter = (Converter<Cell, Object>) converters.get(fieldName);
+				column.scratchCell = scratchCell.get();
+				column.dateFormats = DateFormatCache.of(column.scratchCell.getSheet().getWorkbook());
+			}
+			columns[i++] = column;
+		}
+		return columns;
+	}
+
+	/**
+	 * 日期字段的格式，注解没有给定或者不是java的日期格式时使用默认格式
+	 *
+	 * @param fmt
+	 * @param valueKind
+	 * @return
+	 */
+	private static DateTimeFormatter formatter(String fmt, int valueKind) {
+		if (valueKind != CellUtil.VALUE_DATE && valueKind != CellUtil.VALUE_CALENDAR
+				&& valueKind != CellUtil.VALUE_LOCAL_DATE && valueKind != CellUtil.VALUE_LOCAL_DATE_TIME) {
+			return null;
+		}
+		if (fmt != null && !"".equals(fmt)) {
+			try {
+				return DateTimeFormatter.ofPattern(fmt);
+			} catch (IllegalArgumentException e) {
+				// excel特有的格式使用默认格式
+			}
+		}
+		return DateTimeFormatter.ofPattern(valueKind == CellUtil.VALUE_LOCAL_DATE ? DATE_FMT : DATE_TIME_FMT);
+	}
+
+	/**
+	 * 列索引
+	 *
+	 * @return
+	 */
+	public int getColIndex() {
+		return colIndex;
+	}
+
+	/**
+	 * 把当前行对应列的文本赋给字段，空字段不赋值
+	 *
+	 * @param bean
+	 * @param scanner
+	 * @throws Exception 文本不能转换成字段类型
+	 */
+	public void bind(Object bean, CsvScanner scanner) throws Exception {
+		if (converter != null) {
+			if (scanner.isEmpty(colIndex)) {
+				scratchCell.setCellType(CellType.BLANK);
+			} else {
+				scratchCell.setCellValue(scanner.getString(colIndex));
+			}
+			converter.convert(scratchCell, bean);
+			return;
+		}
+		if (scanner.isEmpty(colIndex)) {
+			return;
+		}
+		try {
+			if (fieldBinder.isLongNumber()) {
+				// long字段用解析的整数赋值，超过2^53的编号经过double会丢失精度
+				fieldBinder.setLong(bean, scanner.getLong(colIndex));
+				return;
+			}
+			if (fieldBinder.isPrimitiveNumber()) {
+				// 数值字段直接用解析的数值赋值
+				fieldBinder.setNumber(bean, scanner.getDouble(colIndex));
+				return;
+			}
+			// 其他字段按文本解析，BigDecimal字段直接由文本创建，不经过double
+			Object value = parse(scanner.getString(colIndex));
+			if (fieldBinder.accepts(value)) {
+				fieldBinder.set(bean, value);
+				return;
+			}
+		} catch (NumberFormatException | DateTimeException e) {
+			// 和类型不匹配一起报错
+		}
+		throw new Exception(String.format("类型不匹配，字段%s期望的类型是%s,实际得到的是%s%n",
+				CellUtil.columnName(fieldBinder.getName(), clazz), fieldBinder.getType().getName(),
+				scanner.getString(colIndex)));
+	}
+
+	/**
+	 * 文本转换成字段类型的值，不能转换的类型返回文本
+	 *
+	 * @param text
+	 * @return
+	 */
+	private Object parse(String text) {
+		switch (valueKind) {
+		case CellUtil.VALUE_NUMBER:
+		case CellUtil.VALUE_FLOAT:
+			return fieldBinder.adapt(new BigDecimal(text.trim()));
+		case CellUtil.VALUE_BOOLEAN:
+			return Boolean.valueOf(text.trim());
+		case CellUtil.VALUE_DATE:
+			return DateTimeUtil.toDate(toLocalDateTime(text));
+		case CellUtil.VALUE_CALENDAR:
+			Calendar calendar = Calendar.getInstance();
+			calendar.setTime(DateTimeUtil.toDate(toLocalDateTime(text)));
+			return calendar;
+		case CellUtil.VALUE_LOCAL_DATE:
+			return toLocalDateTime(text).toLocalDate();
+		case CellUtil.VALUE_LOCAL_DATE_TIME:
+			return toLocalDateTime(text);
+		default:
+			return text;
+		}
+	}
+
+	/**
+	 * 按格式解析日期，只有日期部分时取当天开始
+	 *
+	 * @param text
+	 * @return
+	 */
+	private LocalDateTime toLocalDateTime(String text) {
+		TemporalAccessor temporal = formatter.parseBest(text.trim(), LocalDateTime::from, LocalDate::from);
+		return temporal instanceof LocalDateTime ? (LocalDateTime) temporal : ((LocalDate) temporal).atStartOfDay();
+	}
+
+	/**
+	 * 字段的值转换成文本，追加到当前行，包含分隔符、引号或换行的文本加引号
+	 *
+	 * @param bean
+	 * @param line
+	 * @param separator
+	 * @throws Exception
+	 */
+	public void write(Object bean, StringBuilder line, char separator) throws Exception {
+		String text;
+		if (converter != null) {
+			scratchCell.setCellType(CellType.BLANK);
+			converter.convert(scratchCell, bean);
+			text = cellText(scratchCell);
+		} else if (!fieldBinder.hasGetter()) {
+			return;
+		} else if (fieldBinder.getType() == double.class && fieldBinder.hasDoubleGetter()) {
+			text = numberText(fieldBinder.getDouble(bean));
+		} else if (fieldBinder.hasDoubleGetter() && fieldBinder.getType() != long.class) {
+			// int、short和byte转double没有精度损失
+			text = Long.toString((long) fieldBinder.getDouble(bean));
+		} else {
+			text = format(fieldBinder.get(bean));
+		}
+		appendField(line, text, separator);
+	}
+
+	/**
+	 * getter的返回值转换成文本
+	 *
+	 * @param value
+	 * @return
+	 */
+	private String format(Object value) {
+		if (value == null) {
+			return "";
+		}
+		switch (getterKind) {
+		case CellUtil.VALUE_NUMBER:
+			if (value instanceof BigDecimal) {
+				return ((BigDecimal) value).toPlainString();
+			}
+			if (value instanceof Double) {
+				return numberText((Double) value);
+			}
+			return value.toString();
+		case CellUtil.VALUE_DATE:
+			return getterFormatter.format(((Date) value).toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime());
+		case CellUtil.VALUE_CALENDAR:
+			return getterFormatter.format(((Calendar) value).toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime());
+		case CellUtil.VALUE_LOCAL_DATE:
+			return getterFormatter.format((LocalDate) value);
+		case CellUtil.VALUE_LOCAL_DATE_TIME:
+			return getterFormatter.format((LocalDateTime) value);
+		default:
+			// float按十进制字面值输出
+			return value.toString();
+		}
+	}
+
+	/**
+	 * 转换器写入单元格的值转换成文本
+	 *
+	 * @param cell
+	 * @return
+	 */
+	private String cellText(Cell cell) {
+		switch (cell.getCellType()) {
+		case STRING:
+			return cell.getStringCellValue();
+		case BOOLEAN:
+			return String.valueOf(cell.getBooleanCellValue());
+		case NUMERIC:
+			if (dateFormats.isDate(cell)) {
+				DateTimeFormatter dateFormatter = formatter != null ? formatter : DateTimeFormatter.ofPattern(DATE_TIME_FMT);
+				return dateFormatter.format(DateTimeUtil.toLocalDateTime(cell.getDateCellValue()));
+			}
+			return numberText(cell.getNumericCellValue());
+		default:
+			return "";
+		}
+	}
+
+	/**
+	 * 数值文本，整数不带小数点，不使用科学计数法
+	 *
+	 * @param value
+	 * @return
+	 */
+	private static String numberText(double value) {
+		if (value == Math.rint(value) && Math.abs(value) < 1.0E15) {
+			return Long.toString((long) value);
+		}
+		if (Double.isNaN(value) || Double.isInfinite(value)) {
+			return Double.toString(value);
+		}
+		return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+	}
+
+	/**
+	 * 追加一个字段，需要时加引号，文本中的引号转义成两个引号
+	 *
+	 * @param line
+	 * @param text
+	 * @param separator
+	 */
+	public static void appendField(StringBuilder line, String text, char separator) {
+		boolean quote = false;
+		for (int i = 0, len = text.length(); i < len; i++) {
+			char c = text.charAt(i);
+			if (c == separator || c == '"' || c == '\r' || c == '\n') {
+				quote = true;
+				break;
+			}
+		}
+		if (!quote) {
+			line.append(text);
+			return;
+		}
+		line.append('"');
+		for (int i = 0, len = text.length(); i < len; i++) {
+			char c = text.charAt(i);
+			if (c == '"') {
+				line.append('"');
+			}
+			line.append(c);
+		}
+		line.append('"');
+	}
+}
@@ -0,0 +1,333 @@
+package com.example.excel.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * csv/tsv文件的逐行扫描器，字符读入一个可以扩容的缓冲区，字段只记录在缓冲区中的开始和结束位置，不为每个字段复制字符。
+ * 带引号的字段在缓冲区中原地去掉引号和转义，字段中可以包含分隔符、引号和换行。
+ * 当前行的字段只在读取下一行之前有效。
+ */
+public final class CsvScanner implements Closeable {
+	// 默认缓冲区大小
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private Reader reader;
+	// 分隔符
+	private char separator;
+	private char[] buf = new char[BUFFER_SIZE];
+	// 缓冲区中有效字符的结束位置
+	private int limit;
+	// 下一个读取的字符位置
+	private int pos;
+	// 是否已经读到输入末尾
+	private boolean eof;
+	// 当前行在缓冲区中的开始位置
+	private int recordStart;
+	// 当前字段的开始位置和写入位置，去掉引号后写入位置落后于读取位置
+	private int fieldStart;
+	private int write;
+	// 每个字段的开始和结束位置
+	private int[] starts = new int[16];
+	private int[] ends = new int[16];
+	private int fieldCount;
+	// 当前行序号，从0开始
+	private int recordNum = -1;
+	// 最近一次从缓冲区解析出的整数
+	private long integer;
+
+	/**
+	 * 不给外部提供创建实例
+	 */
+	private CsvScanner() {
+	}
+
+	/**
+	 * 使用文件通道读取文件
+	 *
+	 * @param file
+	 * @param charset
+	 * @param separator
+	 * @return
+	 * @throws IOException
+	 */
+	public static CsvScanner build(File file, Charset charset, char separator) throws IOException {
+		FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		Reader reader = Channels.newReader(channel, charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE), -1);
+		return build(reader, separator);
+	}
+
+	/**
+	 * 读取输入流
+	 *
+	 * @param inputStream
+	 * @param charset
+	 * @param separator
+	 * @return
+	 * @throws IOException
+	 */
+	public static CsvScanner build(InputStream inputStream, Charset charset, char separator) throws IOException {
+		return build(new InputStreamReader(inputStream, charset), separator);
+	}
+
+	/**
+	 * 读取字符流，扫描器自带缓冲区，不需要再包装成BufferedReader
+	 *
+	 * @param reader
+	 * @param separator
+	 * @return
+	 * @throws IOException
+	 */
+	public static CsvScanner build(Reader reader, char separator) throws IOException {
+		CsvScanner scanner = FuncUtil.create(CsvScanner::new);
+		scanner.reader = reader;
+		scanner.separator = separator;
+		// 跳过utf-8的BOM
+		if (scanner.fill() && scanner.buf[0] == '\uFEFF') {
+			scanner.pos = 1;
+		}
+		return scanner;
+	}
+
+	/**
+	 * 读取下一行
+	 *
+	 * @return 没有更多的行返回false
+	 * @throws IOException 引号没有闭合
+	 */
+	public boolean nextRecord() throws IOException {
+		fieldCount = 0;
+		recordStart = pos;
+		if (pos >= limit && !fill()) {
+			return false;
+		}
+		recordNum++;
+		fieldStart = write = pos;
+		boolean inQuotes = false;
+		while (true) {
+			if (pos >= limit && !fill()) {
+				if (inQuotes) {
+					throw new IOException("第" + (recordNum + 1) + "行的引号没有闭合");
+				}
+				endField();
+				return true;
+			}
+			char c = buf[pos++];
+			if (inQuotes) {
+				if (c != '"') {
+					buf[write++] = c;
+				} else if ((pos < limit || fill()) && buf[pos] == '"') {
+					// 两个引号转义成一个引号
+					buf[write++] = '"';
+					pos++;
+				} else {
+					inQuotes = false;
+				}
+			} else if (c == separator) {
+				endField();
+				fieldStart = write = pos;
+			} else if (c == '\n') {
+				endField();
+				return true;
+			} else if (c == '\r') {
+				endField();
+				if ((pos < limit || fill()) && buf[pos] == '\n') {
+					pos++;
+				}
+				return true;
+			} else if (c == '"' && write == fieldStart) {
+				inQuotes = true;
+			} else {
+				buf[write++] = c;
+			}
+		}
+	}
+
+	/**
+	 * 记录当前字段的位置
+	 */
+	private void endField() {
+		if (fieldCount == starts.length) {
+			starts = Arrays.copyOf(starts, fieldCount * 2);
+			ends = Arrays.copyOf(ends, fieldCount * 2);
+		}
+		starts[fieldCount] = fieldStart;
+		ends[fieldCount] = write;
+		fieldCount++;
+	}
+
+	/**
+	 * 读入更多字符，当前行移动到缓冲区开头，缓冲区放不下一行时扩容
+	 *
+	 * @return 已经读到输入末尾返回false
+	 * @throws IOException
+	 */
+	private boolean fill() throws IOException {
+		if (eof) {
+			return false;
+		}
+		int shift = recordStart;
+		if (shift > 0) {
+			System.arraycopy(buf, shift, buf, 0, limit - shift);
+			limit -= shift;
+			pos -= shift;
+			fieldStart -= shift;
+			write -= shift;
+			for (int i = 0; i < fieldCount; i++) {
+				starts[i] -= shift;
+				ends[i] -= shift;
+			}
+			recordStart = 0;
+		}
+		if (limit == buf.length) {
+			buf = Arrays.copyOf(buf, buf.length * 2);
+		}
+		int n = reader.read(buf, limit, buf.length - limit);
+		if (n < 0) {
+			eof = true;
+			return false;
+		}
+		limit += n;
+		return true;
+	}
+
+	/**
+	 * 当前行序号，从0开始
+	 *
+	 * @return
+	 */
+	public int getRecordNum() {
+		return recordNum;
+	}
+
+	/**
+	 * 当前行的字段数
+	 *
+	 * @return
+	 */
+	public int getFieldCount() {
+		return fieldCount;
+	}
+
+	/**
+	 * 当前行是否是空行
+	 *
+	 * @return
+	 */
+	public boolean isBlankRecord() {
+		return fieldCount == 1 && ends[0] == starts[0];
+	}
+
+	/**
+	 * 字段是否为空，超出字段数的字段为空
+	 *
+	 * @param index
+	 * @return
+	 */
+	public boolean isEmpty(int index) {
+		return index >= fieldCount || ends[index] == starts[index];
+	}
+
+	/**
+	 * 字段的字符串，超出字段数的字段返回空字符串
+	 *
+	 * @param index
+	 * @return
+	 */
+	public String getString(int index) {
+		if (index >= fieldCount) {
+			return "";
+		}
+		return new String(buf, starts[index], ends[index] - starts[index]);
+	}
+
+	/**
+	 * 字段的数值，不超过18位的整数直接从缓冲区解析，不创建字符串
+	 *
+	 * @param index
+	 * @return
+	 * @throws NumberFormatException 字段不是数值
+	 */
+	public double getDouble(int index) {
+		if (parseInteger(index)) {
+			return integer;
+		}
+		return Double.parseDouble(fieldText(index));
+	}
+
+	/**
+	 * 字段的整数值，不经过double，超过2^53的整数也不丢失精度。
+	 * 不超过18位的整数直接从缓冲区解析，其他数值和读成BigDecimal（保留12位小数）再取整的结果一致
+	 *
+	 * @param index
+	 * @return
+	 * @throws NumberFormatException 字段不是数值
+	 */
+	public long getLong(int index) {
+		if (parseInteger(index)) {
+			return integer;
+		}
+		return new BigDecimal(fieldText(index)).setScale(12, RoundingMode.HALF_UP).longValue();
+	}
+
+	/**
+	 * 不超过18位的整数字段直接从缓冲区解析到integer，不会溢出
+	 *
+	 * @param index
+	 * @return 字段不是不超过18位的整数返回false
+	 */
+	private boolean parseInteger(int index) {
+		if (index >= fieldCount) {
+			return false;
+		}
+		int i = starts[index];
+		int end = ends[index];
+		boolean negative = false;
+		if (i < end && (buf[i] == '-' || buf[i] == '+')) {
+			negative = buf[i] == '-';
+			i++;
+		}
+		if (i == end || end - i > 18) {
+			return false;
+		}
+		long value = 0;
+		for (; i < end; i++) {
+			char c = buf[i];
+			if (c < '0' || c > '9') {
+				return false;
+			}
+			value = value * 10 + (c - '0');
+		}
+		integer = negative ? -value : value;
+		return true;
+	}
+
+	/**
+	 * 去掉首尾空白的字段文本，用于解析数值
+	 *
+	 * @param index
+	 * @return
+	 */
+	private String fieldText(int index) {
+		return getString(index).trim();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (reader != null) {
+			reader.close();
+		}
+	}
+}
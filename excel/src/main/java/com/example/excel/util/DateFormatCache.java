@@ -0,0 +1,107 @@
+package com.example.excel.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Workbook;
+
+/**
+ * 工作簿样式索引对应的日期格式缓存，每个样式只解析一次格式字符串，
+ * 之后判断数值单元格是否是日期只需要按样式索引查数组。
+ * 读取工作簿和流式读取的临时工作簿都按工作簿缓存，工作簿被回收后缓存随之释放。
+ */
+public final class DateFormatCache {
+	private static final Map<Workbook, DateFormatCache> CACHES = Collections
+			.synchronizedMap(new WeakHashMap<Workbook, DateFormatCache>());
+	// 未解析
+	private static final byte UNKNOWN = 0;
+	// 日期格式
+	private static final byte DATE = 1;
+	// 非日期格式
+	private static final byte NOT_DATE = 2;
+
+	// 样式索引对应是否是日期格式
+	private byte[] states;
+	// 样式索引对应的格式字符串
+	private String[] formats;
+
+	/**
+	 * 不给外部提供创建实例
+	 */
+	private DateFormatCache(int styleCount) {
+		states = new byte[Math.max(styleCount, 16)];
+		formats = new String[states.length];
+	}
+
+	/**
+	 * 获取工作簿的日期格式缓存，每个工作簿只创建一次
+	 *
+	 * @param workbook
+	 * @return
+	 */
+	public static DateFormatCache of(Workbook workbook) {
+		return CACHES.computeIfAbsent(workbook, k -> new DateFormatCache(k.getNumCellStyles()));
+	}
+
+	/**
+	 * 数值单元格是否是日期，和DateUtil.isCellDateFormatted的判断一致
+	 *
+	 * @param cell
+	 * @return
+	 */
+	public boolean isDate(Cell cell) {
+		CellStyle style = cell.getCellStyle();
+		if (style == null) {
+			return false;
+		}
+		return resolve(style) == DATE && DateUtil.isValidExcelDate(cell.getNumericCellValue());
+	}
+
+	/**
+	 * 单元格样式的格式字符串
+	 *
+	 * @param cell
+	 * @return
+	 */
+	public String getFormat(Cell cell) {
+		CellStyle style = cell.getCellStyle();
+		if (style == null) {
+			return null;
+		}
+		resolve(style);
+		synchronized (this) {
+			return formats[style.getIndex() & 0xFFFF];
+		}
+	}
+
+	/**
+	 * 解析样式是否是日期格式，解析过直接返回
+	 *
+	 * @param style
+	 * @return
+	 */
+	private byte resolve(CellStyle style) {
+		int index = style.getIndex() & 0xFFFF;
+		byte[] states = this.states;
+		if (index < states.length && states[index] != UNKNOWN) {
+			return states[index];
+		}
+		String format = style.getDataFormatString();
+		byte state = format != null && DateUtil.isADateFormat(style.getDataFormat(), format) ? DATE : NOT_DATE;
+		synchronized (this) {
+			if (index >= this.states.length) {
+				int length = Math.max(index + 1, this.states.length * 2);
+				this.formats = Arrays.copyOf(this.formats, length);
+				this.states = Arrays.copyOf(this.states, length);
+			}
+			this.formats[index] = format;
+			this.states[index] = state;
+		}
+		return state;
+	}
+}
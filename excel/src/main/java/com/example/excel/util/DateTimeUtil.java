@@ -130,7 +130,7 @@ public final class DateTimeUtil {
 		} catch (Exception e) {
 			LocalDateTime localDateTime = toLocalDateTime(date);
 			result = fmt(localDateTime, fmt);
-			logger.info("LocalDateTime格式化");
+			logger.fine("LocalDateTime格式化");
 		}
 		return result;
 	}
@@ -151,7 +151,7 @@ public final class DateTimeUtil {
 		} catch (Exception e) {
 			LocalDateTime localDateTime = toLocalDateTime(date);
 			result = fmt(localDateTime, fmt, local);
-			logger.info("LocalDateTime本地格式化");
+			logger.fine("LocalDateTime本地格式化");
 		}
 		return result;
 	}
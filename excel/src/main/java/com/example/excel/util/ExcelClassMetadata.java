@@ -0,0 +1,229 @@
+package com.example.excel.util;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 数据类Excel注解信息，每个类只在第一次使用时解析一次字段和注解，之后所有工具类都从这里读取。
+ * 解析结果不可修改，可以在多线程间共享。
+ */
+public final class ExcelClassMetadata {
+	private static final ClassValue<ExcelClassMetadata> REGISTRY = new ClassValue<ExcelClassMetadata>() {
+		@Override
+		protected ExcelClassMetadata computeValue(Class<?> type) {
+			return new ExcelClassMetadata(type);
+		}
+	};
+
+	// 列索引和字段名称映射
+	private final Map<Integer, String> columnFieldMap;
+	// 字段名称和列序号映射，包含所有声明的字段，没有注解的字段为-1
+	private final Map<String, Integer> fieldOrderMap;
+	// 字段名称和最后一行表头列名称映射，包含所有声明的字段，没有注解的字段为空字符串
+	private final Map<String, String> fieldColumnNameMap;
+	// 字段名称和格式化字符串映射
+	private final Map<String, String> fieldFmtMap;
+	// 所有格式化字符串
+	private final Set<String> fmts;
+	// 最后一行表头列序号和列名称映射
+	private final Map<Integer, String> headLastRowNameMap;
+	// 最后一行表头列名称和字段名称映射
+	private final Map<String, String> headLastRowFieldMap;
+	// 表头列名称和单元格区域映射
+	private final Map<String, List<CellPos>> headColCellsMap;
+	// 表头行数
+	private final int headRowCount;
+	// 表头列数
+	private final int headColCount;
+
+	private ExcelClassMetadata(Class<?> clazz) {
+		Map<Integer, String> columnFields = new HashMap<Integer, String>();
+		Map<String, Integer> fieldOrders = new HashMap<String, Integer>();
+		Map<String, String> fieldColumnNames = new HashMap<String, String>();
+		Map<String, String> fieldFmts = new HashMap<String, String>();
+		Set<String> fmtSet = new LinkedHashSet<String>();
+		Map<Integer, String> lastRowNames = new HashMap<Integer, String>();
+		Map<String, String> lastRowFields = new HashMap<String, String>();
+		List<Field> headFields = new ArrayList<Field>();
+		int rowCount = 0;
+		int colCount = 0;
+		for (Field field : clazz.getDeclaredFields()) {
+			String fieldName = field.getName();
+			// 判断字段是否标注Excel注解
+			Excel ex = field.getAnnotation(Excel.class);
+			if (ex == null) {
+				fieldOrders.put(fieldName, -1);
+				fieldColumnNames.put(fieldName, "");
+				continue;
+			}
+			String[] names = ex.name();
+			fieldOrders.put(fieldName, ex.order());
+			fieldColumnNames.put(fieldName, names.length > 0 ? names[names.length - 1] : "");
+			if (ex.order() != -1) {
+				// 列和数据对象属性映射
+				columnFields.put(ex.order(), fieldName);
+			}
+			if (ex.order() > -1) {
+				colCount++;
+				if (!"".equals(ex.fmt())) {
+					fieldFmts.put(fieldName, ex.fmt());
+					fmtSet.add(ex.fmt());
+				}
+				if (names.length >= 1) {
+					// 当前字段最后一行表头的列名称
+					lastRowNames.put(ex.order(), names[names.length - 1]);
+					lastRowFields.put(names[names.length - 1], fieldName);
+					headFields.add(field);
+					if (names.length > rowCount) {
+						rowCount = names.length;
+					}
+				}
+			}
+		}
+		this.columnFieldMap = Collections.unmodifiableMap(columnFields);
+		this.fieldOrderMap = Collections.unmodifiableMap(fieldOrders);
+		this.fieldColumnNameMap = Collections.unmodifiableMap(fieldColumnNames);
+		this.fieldFmtMap = Collections.unmodifiableMap(fieldFmts);
+		this.fmts = Collections.unmodifiableSet(fmtSet);
+		this.headLastRowNameMap = Collections.unmodifiableMap(lastRowNames);
+		this.headLastRowFieldMap = Collections.unmodifiableMap(lastRowFields);
+		this.headRowCount = rowCount;
+		this.headColCount = colCount;
+		this.headColCellsMap = headColCellsMap(headFields, rowCount);
+	}
+
+	/**
+	 * 获取类的注解信息，每个类只解析一次
+	 *
+	 * @param clazz
+	 * @return
+	 */
+	public static ExcelClassMetadata of(Class<?> clazz) {
+		return REGISTRY.get(clazz);
+	}
+
+	/**
+	 * 表头列名称和单元格区域映射，合并单元格给出开始和结束单元格
+	 *
+	 * @param headFields
+	 * @param headRowCount
+	 * @return
+	 */
+	private static Map<String, List<CellPos>> headColCellsMap(List<Field> headFields, int headRowCount) {
+		Map<String, List<CellPos>> map = new HashMap<String, List<CellPos>>();
+		for (Field field : headFields) {
+			Excel ex = field.getAnnotation(Excel.class);
+			int colIndex = ex.order();
+			String[] names = ex.name();
+			int rows = names.length;
+			for (int r = 0; r < headRowCount; r++) {
+				String name = r < rows ? names[r] : names[rows - 1];
+				map.computeIfAbsent(name, k -> new ArrayList<CellPos>())
+						.add(CellPos.build().withRowIndex(r).withColIndex(colIndex));
+			}
+		}
+		Map<String, List<CellPos>> result = new HashMap<String, List<CellPos>>();
+		for (Map.Entry<String, List<CellPos>> entry : SheetUtil.headColCellsMapHandle(map).entrySet()) {
+			result.put(entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+		}
+		return Collections.unmodifiableMap(result);
+	}
+
+	/**
+	 * 列索引和字段名称映射
+	 *
+	 * @return
+	 */
+	public Map<Integer, String> getColumnFieldMap() {
+		return columnFieldMap;
+	}
+
+	/**
+	 * 字段所在列序号，没有注解返回-1，字段不存在返回null
+	 *
+	 * @param fieldName
+	 * @return
+	 */
+	public Integer getColumnIndex(String fieldName) {
+		return fieldOrderMap.get(fieldName);
+	}
+
+	/**
+	 * 字段所在列最后一行表头的名字，没有注解返回空字符串，字段不存在返回null
+	 *
+	 * @param fieldName
+	 * @return
+	 */
+	public String getColumnName(String fieldName) {
+		return fieldColumnNameMap.get(fieldName);
+	}
+
+	/**
+	 * 字段名称和格式化字符串映射
+	 *
+	 * @return
+	 */
+	public Map<String, String> getFieldFmtMap() {
+		return fieldFmtMap;
+	}
+
+	/**
+	 * 注解中用到的所有格式化字符串
+	 *
+	 * @return
+	 */
+	public Set<String> getFmts() {
+		return fmts;
+	}
+
+	/**
+	 * 最后一行表头列序号和列名称映射
+	 *
+	 * @return
+	 */
+	public Map<Integer, String> getHeadLastRowNameMap() {
+		return headLastRowNameMap;
+	}
+
+	/**
+	 * 最后一行表头列名称和字段名称映射
+	 *
+	 * @return
+	 */
+	public Map<String, String> getHeadLastRowFieldMap() {
+		return headLastRowFieldMap;
+	}
+
+	/**
+	 * 表头列名称和单元格区域映射
+	 *
+	 * @return
+	 */
+	public Map<String, List<CellPos>> getHeadColCellsMap() {
+		return headColCellsMap;
+	}
+
+	/**
+	 * 表头行数
+	 *
+	 * @return
+	 */
+	public int getHeadRowCount() {
+		return headRowCount;
+	}
+
+	/**
+	 * 表头列数
+	 *
+	 * @return
+	 */
+	public int getHeadColCount() {
+		return headColCount;
+	}
+}
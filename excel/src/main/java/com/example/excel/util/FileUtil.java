@@ -1,16 +1,20 @@
 package com.example.excel.util;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.logging.Logger;
 
 public final class FileUtil {
 	private static final Logger logger = Logger.getLogger(FileUtil.class.getName());
-	private static final int WRITE_BUFF_SIZE = 1024;
+	// 输入流复制出的临时文件名前缀
+	public static final String SPOOL_PREFIX = "excel-spool";
 
 	/**
 	 * 不给外部提供创建实例
@@ -24,39 +28,92 @@ public final class FileUtil {
 		copyFile(targetFile, sourceFile);
 	}
     /**
-     * copy file
+     * copy file，使用FileChannel.transferTo直接在通道间传输，不经过用户态缓冲区
      * @param targetFile
      * @param sourceFile
      * @throws Exception
      */
 	public static void copyFile(File targetFile, File sourceFile) throws Exception {
-		InputStream inputStream = null;
-		OutputStream outputStream = null;
-
-		try {
-			inputStream = new FileInputStream(sourceFile);
-			outputStream = new FileOutputStream(targetFile);
-			int bytesRead;
-			byte[] buffer = new byte[WRITE_BUFF_SIZE];
-			while ((bytesRead = inputStream.read(buffer, 0, WRITE_BUFF_SIZE)) != -1) {
-				outputStream.write(buffer, 0, bytesRead);
+		try (FileChannel source = FileChannel.open(sourceFile.toPath(), StandardOpenOption.READ);
+				FileChannel target = FileChannel.open(targetFile.toPath(), StandardOpenOption.WRITE,
+						StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			long size = source.size();
+			long position = 0;
+			// transferTo一次可能传输不完，循环到全部传输
+			while (position < size) {
+				position += source.transferTo(position, size - position, target);
 			}
-			logger.info("文件复制完成");
-		} catch (Exception e) {
+			logger.fine("文件复制完成");
+		} catch (IOException e) {
 			e.printStackTrace();
 			throw new Exception("不能拷贝文件");
-		} finally {
-			try {
-				if (outputStream != null) {
-					outputStream.close();
-				}
-				if (inputStream != null) {
-					inputStream.close();
-				}
-			} catch (IOException e) {
-				throw new Exception("不能关闭输入流或输出流");
+		}
+	}
+
+	/**
+	 * 一次读取整个文件内容
+	 * 
+	 * @param file
+	 * @return
+	 * @throws Exception
+	 */
+	public static byte[] readFile(File file) throws Exception {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new Exception(file.getName() + "文件太大，不能读入内存");
+			}
+			ByteBuffer buffer = ByteBuffer.allocate((int) size);
+			while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+			}
+			return buffer.array();
+		} catch (IOException e) {
+			e.printStackTrace();
+			throw new Exception("不能读取文件" + file.getName());
+		}
+	}
+
+	/**
+	 * 输入流复制到临时文件，读到输入流末尾，不关闭输入流。临时文件由调用方删除
+	 * 
+	 * @param inputStream
+	 * @param suffix 临时文件后缀
+	 * @return
+	 * @throws Exception
+	 */
+	public static File spool(InputStream inputStream, String suffix) throws Exception {
+		File file = File.createTempFile(SPOOL_PREFIX, suffix);
+		try (FileChannel target = FileChannel.open(file.toPath(), StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			ReadableByteChannel source = Channels.newChannel(inputStream);
+			long position = 0;
+			long count;
+			// 每次最多传输8M，读到输入流末尾时传输0字节
+			while ((count = target.transferFrom(source, position, 8 * 1024 * 1024)) > 0) {
+				position += count;
 			}
+			logger.fine("输入流复制到临时文件" + file.getName() + "，共" + position + "字节");
+		} catch (IOException e) {
+			Files.deleteIfExists(file.toPath());
+			e.printStackTrace();
+			throw new Exception("不能复制输入流到临时文件");
 		}
+		return file;
 	}
 
+	/**
+	 * 删除临时文件，删除失败只记录日志
+	 * 
+	 * @param file
+	 */
+	public static void deleteQuietly(File file) {
+		if (file == null) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(file.toPath());
+		} catch (IOException e) {
+			logger.warning("不能删除临时文件" + file.getPath());
+		}
+	}
 }
@@ -0,0 +1,370 @@
+package com.example.excel.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+import org.apache.poi.ss.usermodel.Row;
+
+/**
+ * 流水线导入，读取、解析、校验和处理器分成几个阶段，阶段之间用有界队列连接。
+ * 队列满时上游阶段等待，内存中最多只保留队列大小的数据；解析失败和校验不通过的行记录到导入结果中，不影响其他行。
+ * 处理器抛出异常时中止整个导入。每个阶段的线程数可以设置，多于1个线程时行的处理顺序不固定。
+ */
+public final class ImportPipeline {
+	private static final Logger logger = Logger.getLogger(ImportPipeline.class.getName());
+	// 队列结束标记
+	private static final Item<?> END = new Item<Object>(-1, null, null);
+	// 解析线程数
+	private int parseThreads = 1;
+	// 校验线程数
+	private int checkThreads = 1;
+	// 处理器线程数
+	private int sinkThreads = 1;
+	// 阶段之间的队列大小
+	private int queueSize = 1024;
+
+	/**
+	 * 不给外部提供创建实例
+	 */
+	private ImportPipeline() {
+	}
+
+	public static ImportPipeline build() {
+		return FuncUtil.create(ImportPipeline::new);
+	}
+
+	/**
+	 * 解析线程数，只对读取工作簿生效；流式读取的行不能跨线程使用，在读取线程中解析
+	 *
+	 * @param parseThreads
+	 * @return
+	 */
+	public ImportPipeline withParseThreads(int parseThreads) {
+		this.parseThreads = parseThreads;
+		return this;
+	}
+
+	/**
+	 * 校验线程数
+	 *
+	 * @param checkThreads
+	 * @return
+	 */
+	public ImportPipeline withCheckThreads(int checkThreads) {
+		this.checkThreads = checkThreads;
+		return this;
+	}
+
+	/**
+	 * 处理器线程数
+	 *
+	 * @param sinkThreads
+	 * @return
+	 */
+	public ImportPipeline withSinkThreads(int sinkThreads) {
+		this.sinkThreads = sinkThreads;
+		return this;
+	}
+
+	/**
+	 * 阶段之间的队列大小
+	 *
+	 * @param queueSize
+	 * @return
+	 */
+	public ImportPipeline withQueueSize(int queueSize) {
+		this.queueSize = queueSize;
+		return this;
+	}
+
+	/**
+	 * 行数据来源，在调用导入的线程中逐行读取
+	 */
+	@FunctionalInterface
+	public interface RowSource {
+		/**
+		 * 读取下一行，没有更多的行返回null
+		 *
+		 * @return
+		 * @throws Exception
+		 */
+		Row nextRow() throws Exception;
+	}
+
+	/**
+	 * 执行导入，读取阶段在当前线程执行，其他阶段各自使用线程池，导入完成后关闭线程池
+	 *
+	 * @param <T>
+	 * @param source    行数据来源
+	 * @param shareRows 读取的行是否可以交给其他线程解析
+	 * @param rowBinder 行解析计划
+	 * @param inspect   数据校验，为null时不校验
+	 * @param sink      处理校验通过的数据
+	 * @return
+	 * @throws Exception 读取或者处理器出现异常
+	 */
+	public <T> ImportResult run(RowSource source, boolean shareRows, RowBinder<T> rowBinder, Inspect<T> inspect,
+			RowHandler<T> sink) throws Exception {
+		if (source == null || rowBinder == null) {
+			throw new Exception("没有可以导入的数据");
+		}
+		if (sink == null) {
+			throw new Exception("必须指定导入数据的处理器");
+		}
+		if (parseThreads < 1 || checkThreads < 1 || sinkThreads < 1 || queueSize < 1) {
+			throw new Exception("导入的线程数和队列大小必须大于0");
+		}
+		return new Run<T>(shareRows ? parseThreads : 0, rowBinder, inspect, sink).execute(source);
+	}
+
+	/**
+	 * 一次导入的队列和状态
+	 *
+	 * @param <T>
+	 */
+	private final class Run<T> {
+		private final int parsers;
+		private final RowBinder<T> rowBinder;
+		private final Inspect<T> inspect;
+		private final RowHandler<T> sink;
+		private final BlockingQueue<Item<T>> parseQueue;
+		private final BlockingQueue<Item<T>> checkQueue;
+		private final BlockingQueue<Item<T>> sinkQueue;
+		// 各阶段还在运行的线程数，最后一个线程结束时通知下一个阶段
+		private final AtomicInteger runningParsers;
+		private final AtomicInteger runningCheckers;
+		// 第一个导致导入中止的异常
+		private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		private final ImportResult result = ImportResult.build();
+		private ExecutorService executor;
+
+		private Run(int parsers, RowBinder<T> rowBinder, Inspect<T> inspect, RowHandler<T> sink) {
+			this.parsers = parsers;
+			this.rowBinder = rowBinder;
+			this.inspect = inspect;
+			this.sink = sink;
+			this.parseQueue = parsers > 0 ? new ArrayBlockingQueue<Item<T>>(queueSize) : null;
+			this.checkQueue = new ArrayBlockingQueue<Item<T>>(queueSize);
+			this.sinkQueue = new ArrayBlockingQueue<Item<T>>(queueSize);
+			this.runningParsers = new AtomicInteger(parsers);
+			this.runningCheckers = new AtomicInteger(checkThreads);
+		}
+
+		private ImportResult execute(RowSource source) throws Exception {
+			executor = Executors.newFixedThreadPool(parsers + checkThreads + sinkThreads);
+			List<Future<?>> futures = new ArrayList<Future<?>>();
+			try {
+				for (int i = 0; i < parsers; i++) {
+					// 每个解析线程使用自己的解析计划副本
+					RowBinder<T> binder = rowBinder.copy();
+					futures.add(executor.submit(() -> stage(() -> parse(binder))));
+				}
+				for (int i = 0; i < checkThreads; i++) {
+					futures.add(executor.submit(() -> stage(this::check)));
+				}
+				for (int i = 0; i < sinkThreads; i++) {
+					futures.add(executor.submit(() -> stage(this::sink)));
+				}
+				read(source);
+			} catch (Exception e) {
+				fail(e);
+			}
+			try {
+				for (Future<?> future : futures) {
+					try {
+						future.get();
+					} catch (ExecutionException e) {
+						fail(e.getCause());
+					}
+				}
+			} finally {
+				executor.shutdownNow();
+			}
+			Throwable cause = failure.get();
+			if (cause != null) {
+				logger.info("导入数据出现异常");
+				throw new Exception("导入数据出现异常，" + cause.getMessage(), cause);
+			}
+			return result;
+		}
+
+		/**
+		 * 读取阶段，不能跨线程的行直接在当前线程解析
+		 *
+		 * @param source
+		 * @throws Exception
+		 */
+		private void read(RowSource source) throws Exception {
+			Row row;
+			while ((row = source.nextRow()) != null) {
+				result.read();
+				if (parsers > 0) {
+					put(parseQueue, new Item<T>(row.getRowNum(), row, null));
+				} else {
+					parseRow(rowBinder, row);
+				}
+			}
+			if (parsers > 0) {
+				end(parseQueue, parsers);
+			} else {
+				end(checkQueue, checkThreads);
+			}
+		}
+
+		/**
+		 * 解析阶段，解析失败的行记录错误后继续
+		 *
+		 * @param binder
+		 * @throws Exception
+		 */
+		private void parse(RowBinder<T> binder) throws Exception {
+			Item<T> item;
+			while ((item = parseQueue.take()) != END) {
+				parseRow(binder, item.row);
+			}
+			if (runningParsers.decrementAndGet() == 0) {
+				end(checkQueue, checkThreads);
+			}
+		}
+
+		private void parseRow(RowBinder<T> binder, Row row) throws Exception {
+			T t;
+			try {
+				t = binder.bind(row);
+			} catch (Exception e) {
+				result.error(row.getRowNum(), String.valueOf(e.getMessage()).trim());
+				return;
+			}
+			put(checkQueue, new Item<T>(row.getRowNum(), null, t));
+		}
+
+		/**
+		 * 校验阶段，校验不通过的行记录错误后继续
+		 *
+		 * @throws Exception
+		 */
+		private void check() throws Exception {
+			Item<T> item;
+			while ((item = checkQueue.take()) != END) {
+				boolean passed;
+				try {
+					passed = inspect == null || inspect.check(item.rowIndex, item.data);
+				} catch (RuntimeException e) {
+					result.error(item.rowIndex, String.valueOf(e.getMessage()).trim());
+					continue;
+				}
+				if (passed) {
+					put(sinkQueue, item);
+				} else {
+					result.error(item.rowIndex, "数据校验不通过");
+				}
+			}
+			if (runningCheckers.decrementAndGet() == 0) {
+				end(sinkQueue, sinkThreads);
+			}
+		}
+
+		/**
+		 * 处理器阶段，处理器出现异常时中止导入
+		 *
+		 * @throws Exception
+		 */
+		private void sink() throws Exception {
+			Item<T> item;
+			while ((item = sinkQueue.take()) != END) {
+				sink.handle(item.rowIndex, item.data);
+				result.imported();
+			}
+		}
+
+		/**
+		 * 执行一个阶段，出现异常时中止导入
+		 *
+		 * @param stage
+		 * @return
+		 */
+		private Void stage(Stage stage) {
+			try {
+				stage.run();
+			} catch (Exception e) {
+				fail(e);
+			}
+			return null;
+		}
+
+		/**
+		 * 放入下游队列，队列满时等待，导入中止后不再等待
+		 *
+		 * @param queue
+		 * @param item
+		 * @throws Exception
+		 */
+		private void put(BlockingQueue<Item<T>> queue, Item<T> item) throws Exception {
+			while (!queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+				if (failure.get() != null) {
+					throw new Exception("导入已中止");
+				}
+			}
+		}
+
+		/**
+		 * 通知下游阶段的每个线程结束
+		 *
+		 * @param queue
+		 * @param threads
+		 * @throws Exception
+		 */
+		@SuppressWarnings("unchecked")
+		private void end(BlockingQueue<Item<T>> queue, int threads) throws Exception {
+			for (int i = 0; i < threads; i++) {
+				put(queue, (Item<T>) END);
+			}
+		}
+
+		/**
+		 * 记录第一个异常并中断所有阶段
+		 *
+		 * @param e
+		 */
+		private void fail(Throwable e) {
+			if (failure.compareAndSet(null, e)) {
+				executor.shutdownNow();
+			}
+		}
+	}
+
+	/**
+	 * 阶段执行的任务
+	 */
+	@FunctionalInterface
+	private interface Stage {
+		void run() throws Exception;
+	}
+
+	/**
+	 * 阶段之间传递的行数据
+	 *
+	 * @param <T>
+	 */
+	private static final class Item<T> {
+		private final int rowIndex;
+		private final Row row;
+		private final T data;
+
+		private Item(int rowIndex, Row row, T data) {
+			this.rowIndex = rowIndex;
+			this.row = row;
+			this.data = data;
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package com.example.excel.util;
+
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 导入结果，记录读取的行数、交给处理器的行数和每一行的错误信息
+ */
+public final class ImportResult {
+	// 读取的数据行数
+	private final AtomicInteger readRows = new AtomicInteger();
+	// 交给处理器处理完成的行数
+	private final AtomicInteger importedRows = new AtomicInteger();
+	// 行索引和错误信息，按行索引排序
+	private final ConcurrentSkipListMap<Integer, String> errors = new ConcurrentSkipListMap<Integer, String>();
+
+	/**
+	 * 不给外部提供创建实例
+	 */
+	private ImportResult() {
+	}
+
+	static ImportResult build() {
+		return FuncUtil.create(ImportResult::new);
+	}
+
+	void read() {
+		readRows.incrementAndGet();
+	}
+
+	void imported() {
+		importedRows.incrementAndGet();
+	}
+
+	void error(int rowIndex, String message) {
+		errors.put(rowIndex, message);
+	}
+
+	/**
+	 * 读取的数据行数
+	 *
+	 * @return
+	 */
+	public int getReadRows() {
+		return readRows.get();
+	}
+
+	/**
+	 * 解析和校验通过并且处理完成的行数
+	 *
+	 * @return
+	 */
+	public int getImportedRows() {
+		return importedRows.get();
+	}
+
+	/**
+	 * 解析失败或者校验不通过的行，行索引和错误信息映射，按行索引排序
+	 *
+	 * @return
+	 */
+	public SortedMap<Integer, String> getErrors() {
+		return Collections.unmodifiableSortedMap(errors);
+	}
+
+	/**
+	 * 是否有解析失败或者校验不通过的行
+	 *
+	 * @return
+	 */
+	public boolean hasErrors() {
+		return !errors.isEmpty();
+	}
+}
@@ -0,0 +1,125 @@
+package com.example.excel.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.streaming.SheetDataWriter;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+/**
+ * 字符串去重的流式工作簿，重复的字符串单元格只在共享字符串表中保存一份，单元格只写索引。
+ * 共享字符串数量达到上限后，新出现的字符串按行内字符串写入，已经共享的字符串继续共享，
+ * 所以内存和文件大小由不重复字符串的数量决定，不会随行数增长。
+ */
+public class InternedStringsWorkbook extends SXSSFWorkbook {
+	// 最多共享的字符串数量
+	private final int maxSharedStrings;
+	// 已共享的字符串和共享字符串表索引
+	private Map<String, Integer> sharedStringIndexes;
+
+	/**
+	 * 创建字符串去重的流式工作簿
+	 *
+	 * @param workbook
+	 * @param maxSharedStrings 最多共享的字符串数量
+	 */
+	public InternedStringsWorkbook(XSSFWorkbook workbook, int maxSharedStrings) {
+		super(workbook, DEFAULT_WINDOW_SIZE, false, true);
+		this.maxSharedStrings = maxSharedStrings;
+	}
+
+	/**
+	 * 已共享的字符串数量
+	 *
+	 * @return
+	 */
+	public int getSharedStringCount() {
+		return sharedStringIndexes == null ? 0 : sharedStringIndexes.size();
+	}
+
+	/**
+	 * 字符串在共享字符串表中的索引，第一次出现时加入共享字符串表；超出上限返回-1
+	 *
+	 * @param value
+	 * @return
+	 */
+	private int sharedStringIndex(String value) {
+		if (sharedStringIndexes == null) {
+			sharedStringIndexes = new HashMap<String, Integer>();
+		}
+		Integer index = sharedStringIndexes.get(value);
+		if (index == null) {
+			if (sharedStringIndexes.size() >= maxSharedStrings) {
+				return -1;
+			}
+			index = getSharedStringSource().addSharedStringItem(new XSSFRichTextString(value));
+			sharedStringIndexes.put(value, index);
+		}
+		return index;
+	}
+
+	@Override
+	protected SheetDataWriter createSheetDataWriter() throws IOException {
+		return new InternedSheetDataWriter(this);
+	}
+
+	/**
+	 * 字符串单元格优先写共享字符串索引，不能共享时按行内字符串写入
+	 */
+	private static final class InternedSheetDataWriter extends SheetDataWriter {
+		private final InternedStringsWorkbook workbook;
+		// 临时文件的写入流，父类构造方法创建
+		private Writer out;
+
+		/**
+		 * 父类不使用共享字符串表，不能共享的字符串由父类按行内字符串写入
+		 *
+		 * @param workbook
+		 * @throws IOException
+		 */
+		InternedSheetDataWriter(InternedStringsWorkbook workbook) throws IOException {
+			super();
+			this.workbook = workbook;
+		}
+
+		@Override
+		public Writer createWriter(File fd) throws IOException {
+			out = super.createWriter(fd);
+			return out;
+		}
+
+		@Override
+		public void writeCell(int columnIndex, Cell cell) throws IOException {
+			if (cell == null || cell.getCellType() != CellType.STRING) {
+				super.writeCell(columnIndex, cell);
+				return;
+			}
+			int index = workbook.sharedStringIndex(cell.getStringCellValue());
+			if (index < 0) {
+				super.writeCell(columnIndex, cell);
+				return;
+			}
+			out.write("<c r=\"");
+			out.write(new CellReference(cell.getRowIndex(), columnIndex).formatAsString());
+			out.write('"');
+			CellStyle cellStyle = cell.getCellStyle();
+			if (cellStyle != null && cellStyle.getIndex() != 0) {
+				out.write(" s=\"");
+				out.write(Integer.toString(cellStyle.getIndex() & 0xffff));
+				out.write('"');
+			}
+			out.write(" t=\"s\"><v>");
+			out.write(Integer.toString(index));
+			out.write("</v></c>");
+		}
+	}
+}
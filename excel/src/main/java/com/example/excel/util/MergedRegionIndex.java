@@ -0,0 +1,97 @@
+package com.example.excel.util;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+/**
+ * sheet表合并单元格索引，按合并区域的行边界把sheet表分成若干行段，每个行段内按开始列排序合并区域。
+ * 查找单元格所在的合并区域先按行找到行段，再按列找到区域，不需要遍历所有合并区域。
+ * 索引按sheet表缓存，合并区域数量变化后重新创建。
+ */
+public final class MergedRegionIndex {
+	private static final Map<Sheet, MergedRegionIndex> INDEXES = Collections
+			.synchronizedMap(new WeakHashMap<Sheet, MergedRegionIndex>());
+
+	// 行段开始行和行段内开始列对应的合并区域，合并区域互不重叠
+	private final TreeMap<Integer, TreeMap<Integer, CellRangeAddress>> bands;
+	// 创建索引时合并区域的数量
+	private final int regionCount;
+
+	/**
+	 * 不给外部提供创建实例
+	 */
+	private MergedRegionIndex(List<CellRangeAddress> regions) {
+		this.regionCount = regions.size();
+		this.bands = new TreeMap<Integer, TreeMap<Integer, CellRangeAddress>>();
+		// 每个合并区域的开始行和结束行的下一行都是行段边界
+		TreeSet<Integer> bounds = new TreeSet<Integer>();
+		for (CellRangeAddress region : regions) {
+			bounds.add(region.getFirstRow());
+			bounds.add(region.getLastRow() + 1);
+		}
+		for (Integer bound : bounds) {
+			bands.put(bound, new TreeMap<Integer, CellRangeAddress>());
+		}
+		for (CellRangeAddress region : regions) {
+			// 合并区域覆盖的所有行段
+			Map<Integer, TreeMap<Integer, CellRangeAddress>> covered = bands.subMap(region.getFirstRow(), true,
+					region.getLastRow(), true);
+			for (TreeMap<Integer, CellRangeAddress> band : covered.values()) {
+				band.put(region.getFirstColumn(), region);
+			}
+		}
+	}
+
+	/**
+	 * 获取sheet表的合并单元格索引，合并区域数量没有变化时复用已创建的索引
+	 *
+	 * @param sheet
+	 * @return
+	 */
+	public static MergedRegionIndex of(Sheet sheet) {
+		MergedRegionIndex index = INDEXES.get(sheet);
+		if (index == null || index.regionCount != sheet.getNumMergedRegions()) {
+			index = new MergedRegionIndex(sheet.getMergedRegions());
+			INDEXES.put(sheet, index);
+		}
+		return index;
+	}
+
+	/**
+	 * 单元格所在的合并区域
+	 *
+	 * @param rowIndex
+	 * @param colIndex
+	 * @return 不在合并区域内返回null
+	 */
+	public CellRangeAddress getRegion(int rowIndex, int colIndex) {
+		Map.Entry<Integer, TreeMap<Integer, CellRangeAddress>> band = bands.floorEntry(rowIndex);
+		if (band == null) {
+			return null;
+		}
+		Map.Entry<Integer, CellRangeAddress> entry = band.getValue().floorEntry(colIndex);
+		if (entry == null) {
+			return null;
+		}
+		CellRangeAddress region = entry.getValue();
+		return region.isInRange(rowIndex, colIndex) ? region : null;
+	}
+
+	/**
+	 * 单元格是否在合并区域内
+	 *
+	 * @param rowIndex
+	 * @param colIndex
+	 * @return
+	 */
+	public boolean isMerged(int rowIndex, int colIndex) {
+		return getRegion(rowIndex, colIndex) != null;
+	}
+}
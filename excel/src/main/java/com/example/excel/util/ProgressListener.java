@@ -0,0 +1,8 @@
+package com.example.excel.util;
+/**
+ * 写数据进度监听接口，按设定的行数间隔回调，写完一个sheet表和写出文件时各回调一次
+ */
+@FunctionalInterface
+public interface ProgressListener {
+	void onProgress(WriteProgress progress);
+}
@@ -0,0 +1,168 @@
+package com.example.excel.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+
+/**
+ * 一次读取的行解析计划，列索引、字段访问器和转换器在读取前解析成数组，
+ * 每一行只按下标遍历，不再查找字段、方法和转换器。
+ *
+ * @param <T>
+ */
+public final class RowBinder<T> {
+	private BeanBinder<T> beanBinder;
+	// 列索引
+	private int[] colIndexes;
+	// 列对应的字段访问器
+	private BeanBinder.FieldBinder[] fieldBinders;
+	// 列对应的转换器，没有注册转换器为null
+	private Converter<Cell, Object>[] cellConverters;
+	// 默认转换器
+	private Converter<Cell, Object> defaultConverter;
+	// 上一次读取的工作簿和它的日期格式缓存，同一个sheet表的行都来自同一个工作簿
+	private Workbook workbook;
+	private DateFormatCache dateFormats;
+
+	private RowBinder() {
+	}
+
+	/**
+	 * 创建行解析计划
+	 *
+	 * @param <T>
+	 * @param clazz            读取数据的类
+	 * @param columnFieldMap   列索引和字段映射
+	 * @param converters       字段名和转换器映射
+	 * @param defaultConverter 默认转换器
+	 * @return
+	 * @throws Exception 字段不存在或者没有setter方法
+	 */
+	public static <T> RowBinder<T> build(Class<T> clazz, Map<Integer, String> columnFieldMap,
+			Map<String, Converter<Cell, ?>> converters, Converter<Cell, Object> defaultConverter) throws Exception {
+		if (clazz == null) {
+			throw new Exception("必须指定读取数据的类。");
+		}
+		RowBinder<T> rowBinder = FuncUtil.create(RowBinder<T>::new);
+		rowBinder.beanBinder = BeanBinder.of(clazz);
+		rowBinder.defaultConverter = defaultConverter;
+		int size = columnFieldMap.size();
+		rowBinder.colIndexes = new int[size];
+		rowBinder.fieldBinders = new BeanBinder.FieldBinder[size];
+		rowBinder.cellConverters = Converters.newArray(size);
+		int i = 0;
+		for (Entry<Integer, String> entry : columnFieldMap.entrySet()) {
+			String fieldName = entry.getValue();
+			BeanBinder.FieldBinder fieldBinder = rowBinder.beanBinder.field(fieldName);
+			if (fieldBinder == null || !fieldBinder.hasSetter()) {
+				throw new Exception(clazz.getName() + "没有" + fieldName + "字段或者没有对应的setter方法");
+			}
+			rowBinder.colIndexes[i] = entry.getKey();
+			rowBinder.fieldBinders[i] = fieldBinder;
+			if (converters != null) {
+				rowBinder.cellConverters[i] = Converters.get(converters, fieldName);
+			}
+			i++;
+		}
+		return rowBinder;
+	}
+
+	/**
+	 * 复制一份解析计划给其他线程使用，列索引、字段访问器和转换器共享，日期格式缓存各自独立
+	 *
+	 * @return
+	 */
+	public RowBinder<T> copy() {
+		RowBinder<T> rowBinder = FuncUtil.create(RowBinder<T>::new);
+		rowBinder.beanBinder = beanBinder;
+		rowBinder.colIndexes = colIndexes;
+		rowBinder.fieldBinders = fieldBinders;
+		rowBinder.cellConverters = cellConverters;
+		rowBinder.defaultConverter = defaultConverter;
+		return rowBinder;
+	}
+
+	/**
+	 * 补齐行中要解析的单元格，多线程解析同一个sheet表前在同一个线程调用，解析时不再创建单元格
+	 *
+	 * @param row
+	 */
+	public void prepare(Row row) {
+		for (int colIndex : colIndexes) {
+			RowUtil.getCell(row, colIndex);
+		}
+	}
+
+	/**
+	 * 将行数据解析成T类型数据
+	 *
+	 * @param row
+	 * @return
+	 * @throws Exception
+	 */
+	public T bind(Row row) throws Exception {
+		T t = beanBinder.newInstance();
+		for (int i = 0, len = colIndexes.length; i < len; i++) {
+			Cell cell = RowUtil.getCell(row, colIndexes[i]);
+			if (cellConverters[i] != null) {
+				cellConverters[i].convert(cell, t);
+				continue;
+			}
+			BeanBinder.FieldBinder fieldBinder = fieldBinders[i];
+			Object value;
+			CellType cellType = cell.getCellType();
+			if (cellType == CellType.NUMERIC) {
+				if (dateFormats(cell).isDate(cell)) {
+					value = cell.getDateCellValue();
+				} else if (fieldBinder.isPrimitiveNumber()) {
+					// 数值字段直接用单元格的数值赋值
+					fieldBinder.setNumber(t, cell.getNumericCellValue());
+					continue;
+				} else {
+					value = new BigDecimal(cell.getNumericCellValue()).setScale(12, RoundingMode.HALF_UP);
+				}
+			} else if (cellType == CellType.FORMULA && fieldBinder.isPrimitiveNumber()
+					&& cell.getCachedFormulaResultType() == CellType.NUMERIC) {
+				fieldBinder.setNumber(t, cell.getNumericCellValue());
+				continue;
+			} else {
+				value = defaultConverter.defaultConvert(cell);
+			}
+			if (value == null || "".equals(value)) {
+				continue;
+			}
+			// BigDecimal类型转其他数值类型
+			value = fieldBinder.adapt(value);
+			if (fieldBinder.accepts(value)) {
+				fieldBinder.set(t, value);
+			} else {
+				String message = String.format("类型不匹配，字段%s期望的类型是%s,实际得到的是%s%n",
+						CellUtil.columnName(fieldBinder.getName(), beanBinder.getType()),
+						fieldBinder.getType().getName(), value.getClass().getName());
+				throw new Exception(message);
+			}
+		}
+		return t;
+	}
+
+	/**
+	 * 单元格所在工作簿的日期格式缓存
+	 *
+	 * @param cell
+	 * @return
+	 */
+	private DateFormatCache dateFormats(Cell cell) {
+		Workbook cellWorkbook = cell.getSheet().getWorkbook();
+		if (cellWorkbook != workbook) {
+			workbook = cellWorkbook;
+			dateFormats = DateFormatCache.of(cellWorkbook);
+		}
+		return dateFormats;
+	}
+}
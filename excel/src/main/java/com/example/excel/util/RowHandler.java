@@ -0,0 +1,9 @@
+package com.example.excel.util;
+/**
+ * 行数据处理接口，每解析完一行就回调一次，不需要保留全部结果
+ * @param <T>
+ */
+@FunctionalInterface
+public interface RowHandler<T> {
+	void handle(int rowIndex, T t) throws Exception;
+}
@@ -1,7 +1,5 @@
 package com.example.excel.util;
 
-import java.lang.reflect.Field;
-import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.poi.ss.usermodel.Cell;
@@ -24,48 +22,63 @@ public final class RowUtil {
 	 */
 	public static <T> void setRowCellFormat(Row row, Map<String, CellStyle> fmtMap, Map<Integer, String> columnMap,
 			Class<?> clazz) {
-		Map<String, String> map = getFieldFmtMap(clazz);
-		for (String fieldName : map.keySet()) {
-			if (map.get(fieldName) == null || "".equals(map.get(fieldName))) {
-				continue;
+		setRowCellFormat(row, columnStyles(fmtMap, columnMap, clazz));
+	}
+
+	/**
+	 * 使用列索引对应的样式格式化行单元格
+	 * 
+	 * @param row
+	 * @param columnStyles 列索引对应的样式，没有样式为null
+	 */
+	public static void setRowCellFormat(Row row, CellStyle[] columnStyles) {
+		for (int i = 0, len = columnStyles.length; i < len; i++) {
+			if (columnStyles[i] != null) {
+				getCell(row, i).setCellStyle(columnStyles[i]);
 			}
-			CellStyle cellStyle = fmtMap.get(map.get(fieldName));
-			int colIndex = -1;
-			for (Integer key : columnMap.keySet()) {
-				if (fieldName.equals(columnMap.get(key))) {
-					colIndex = key;
-					break;
-				}
+		}
+	}
+
+	/**
+	 * 列索引对应注解格式化的样式，数组下标为列索引，没有格式化的列为null。
+	 * 写一个sheet表之前创建一次，每一行按下标设置样式
+	 * 
+	 * @param fmtMap    存储注解格式化对应的CellStyle
+	 * @param columnMap
+	 * @param clazz
+	 * @return
+	 */
+	public static CellStyle[] columnStyles(Map<String, CellStyle> fmtMap, Map<Integer, String> columnMap,
+			Class<?> clazz) {
+		Map<String, String> fieldFmtMap = getFieldFmtMap(clazz);
+		int maxColIndex = -1;
+		for (Integer colIndex : columnMap.keySet()) {
+			if (colIndex > maxColIndex) {
+				maxColIndex = colIndex;
 			}
-			if (colIndex != -1) {
-				getCell(row, colIndex).setCellStyle(cellStyle);
+		}
+		CellStyle[] result = new CellStyle[maxColIndex + 1];
+		if (fmtMap == null || fieldFmtMap.isEmpty()) {
+			return result;
+		}
+		for (Map.Entry<Integer, String> entry : columnMap.entrySet()) {
+			String fmt = fieldFmtMap.get(entry.getValue());
+			if (entry.getKey() >= 0 && fmt != null) {
+				result[entry.getKey()] = fmtMap.get(fmt);
 			}
 		}
+		return result;
 	}
 
 	/**
-	 * 获取注解对应列的字段和格式化字符串的映射
+	 * 获取注解对应列的字段和格式化字符串的映射，返回的映射不可修改
 	 * 
 	 * @param <T>
 	 * @param clazz
 	 * @return
 	 */
 	public static <T> Map<String, String> getFieldFmtMap(Class<T> clazz) {
-		Map<String, String> result = new HashMap<String, String>();
-		Field[] fields = clazz.getDeclaredFields();
-		for (int i = 0, len = fields.length; i < len; i++) {
-			Field field = fields[i];
-			field.setAccessible(true);
-			// 判断字段是否标注Excel注解
-			if (field.isAnnotationPresent(Excel.class)) {
-				// 获取Excel注解
-				Excel ex = field.getAnnotation(Excel.class);
-				if (ex.order() > -1 && !"".equals(ex.fmt())) {
-					result.put(field.getName(), ex.fmt());
-				}
-			}
-		}
-		return result;
+		return ExcelClassMetadata.of(clazz).getFieldFmtMap();
 	}
 
 	/**
@@ -0,0 +1,158 @@
+package com.example.excel.util;
+
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.logging.Logger;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+
+/**
+ * 一次写入的行写入计划，列索引、getter访问器和转换器在写入前解析成数组，
+ * 每一行只按下标遍历，不再反射查找getter方法和转换器。
+ *
+ * @param <T>
+ */
+public final class RowWriter<T> {
+	private static final Logger logger = Logger.getLogger(RowWriter.class.getName());
+	// 没有注解格式的LocalDate列的默认格式
+	private static final String DATE_FMT = "yyyy-MM-dd";
+	// 没有注解格式的LocalDateTime列的默认格式
+	private static final String DATE_TIME_FMT = "yyyy-MM-dd HH:mm:ss";
+	// 列索引
+	private int[] colIndexes;
+	// 列对应的字段访问器，没有getter方法为null
+	private BeanBinder.FieldBinder[] fieldBinders;
+	// 列对应字段的值类型，见CellUtil.valueKind
+	private int[] valueKinds;
+	// 列对应的样式，没有样式为null
+	private CellStyle[] cellStyles;
+	// 列对应的转换器，没有注册转换器为null
+	private Converter<Cell, Object>[] cellConverters;
+	// 默认转换器
+	private Converter<Cell, Object> defaultConverter;
+
+	private RowWriter() {
+	}
+
+	/**
+	 * 创建行写入计划
+	 *
+	 * @param <T>
+	 * @param clazz            写入数据的类
+	 * @param columnMap        列索引和字段映射
+	 * @param converters       字段名和转换器映射
+	 * @param defaultConverter 默认转换器
+	 * @return
+	 */
+	public static <T> RowWriter<T> build(Class<T> clazz, Map<Integer, String> columnMap,
+			Map<String, Converter<Cell, ?>> converters, Converter<Cell, Object> defaultConverter) {
+		return build(clazz, columnMap, converters, defaultConverter, null, null);
+	}
+
+	/**
+	 * 创建行写入计划，写入数据前按列设置样式。
+	 * 没有注解格式的LocalDate和LocalDateTime列使用默认的日期格式，同一个计划的列共用样式
+	 *
+	 * @param <T>
+	 * @param clazz            写入数据的类
+	 * @param columnMap        列索引和字段映射
+	 * @param converters       字段名和转换器映射
+	 * @param defaultConverter 默认转换器
+	 * @param columnStyles     列索引对应的样式，见{@link RowUtil#columnStyles}，可以为null
+	 * @param workbook         写入的工作簿，用于创建默认的日期样式，为null时不设置默认样式
+	 * @return
+	 */
+	public static <T> RowWriter<T> build(Class<T> clazz, Map<Integer, String> columnMap,
+			Map<String, Converter<Cell, ?>> converters, Converter<Cell, Object> defaultConverter,
+			CellStyle[] columnStyles, Workbook workbook) {
+		RowWriter<T> rowWriter = FuncUtil.create(RowWriter<T>::new);
+		BeanBinder<T> beanBinder = BeanBinder.of(clazz);
+		rowWriter.defaultConverter = defaultConverter;
+		int size = columnMap.size();
+		rowWriter.colIndexes = new int[size];
+		rowWriter.fieldBinders = new BeanBinder.FieldBinder[size];
+		rowWriter.valueKinds = new int[size];
+		rowWriter.cellStyles = new CellStyle[size];
+		rowWriter.cellConverters = Converters.newArray(size);
+		CellStyle dateStyle = null;
+		CellStyle dateTimeStyle = null;
+		int i = 0;
+		for (Entry<Integer, String> entry : columnMap.entrySet()) {
+			String fieldName = entry.getValue();
+			int colIndex = entry.getKey();
+			rowWriter.colIndexes[i] = colIndex;
+			if (columnStyles != null && colIndex >= 0 && colIndex < columnStyles.length) {
+				rowWriter.cellStyles[i] = columnStyles[colIndex];
+			}
+			if (converters != null) {
+				rowWriter.cellConverters[i] = Converters.get(converters, fieldName);
+			}
+			BeanBinder.FieldBinder fieldBinder = beanBinder.field(fieldName);
+			if (fieldBinder != null && fieldBinder.hasGetter()) {
+				rowWriter.fieldBinders[i] = fieldBinder;
+				// 按getter的返回类型写入，返回类型可能和字段类型不同
+				rowWriter.valueKinds[i] = CellUtil.valueKind(fieldBinder.getGetterType());
+				// java.time的值写成日期序号，没有格式时显示成数字
+				if (rowWriter.cellStyles[i] == null && workbook != null) {
+					if (rowWriter.valueKinds[i] == CellUtil.VALUE_LOCAL_DATE) {
+						if (dateStyle == null) {
+							dateStyle = dateStyle(workbook, DATE_FMT);
+						}
+						rowWriter.cellStyles[i] = dateStyle;
+					} else if (rowWriter.valueKinds[i] == CellUtil.VALUE_LOCAL_DATE_TIME) {
+						if (dateTimeStyle == null) {
+							dateTimeStyle = dateStyle(workbook, DATE_TIME_FMT);
+						}
+						rowWriter.cellStyles[i] = dateTimeStyle;
+					}
+				}
+			} else if (rowWriter.cellConverters[i] == null) {
+				logger.warning(clazz.getName() + "没有" + fieldName + "字段的getter方法，该列不写入数据");
+			}
+			i++;
+		}
+		return rowWriter;
+	}
+
+	private static CellStyle dateStyle(Workbook workbook, String fmt) {
+		CellStyle style = workbook.createCellStyle();
+		style.setDataFormat(workbook.createDataFormat().getFormat(fmt));
+		return style;
+	}
+
+	/**
+	 * 将数据写入到excel表行中
+	 *
+	 * @param row
+	 * @param data
+	 */
+	public void write(Row row, T data) {
+		for (int i = 0, len = colIndexes.length; i < len; i++) {
+			Cell cell = RowUtil.getCell(row, colIndexes[i]);
+			if (cellStyles[i] != null) {
+				cell.setCellStyle(cellStyles[i]);
+			}
+			if (cellConverters[i] != null) {
+				// 如果这里写入了样式就会覆盖注解的样式
+				cellConverters[i].convert(cell, data);
+			} else if (fieldBinders[i] != null) {
+				try {
+					// 数据按字段类型直接写入单元格
+					if (fieldBinders[i].hasDoubleGetter()) {
+						cell.setCellValue(fieldBinders[i].getDouble(data));
+					} else if (valueKinds[i] != CellUtil.VALUE_OBJECT) {
+						CellUtil.setCellValue(cell, fieldBinders[i].get(data), valueKinds[i]);
+					} else {
+						defaultConverter.defaultConvert(cell, fieldBinders[i].get(data));
+					}
+				} catch (Exception e) {
+					logger.warning(e.getMessage());
+					e.printStackTrace();
+				}
+			}
+		}
+	}
+}
@@ -1,16 +1,18 @@
 package com.example.excel.util;
 
-import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.logging.Logger;
 
 import org.apache.poi.ss.usermodel.BorderStyle;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.FillPatternType;
 import org.apache.poi.ss.usermodel.Font;
 import org.apache.poi.ss.usermodel.HorizontalAlignment;
@@ -89,6 +91,10 @@ public final class SheetUtil {
 						int firstColIndex = list.get(i).getColIndex();
 						int lastRowIndex = list.get(i + 1).getRowIndex();
 						int lastColIndex = list.get(i + 1).getColIndex();
+						// 单个单元格的区域不需要合并
+						if (firstRowIndex == lastRowIndex && firstColIndex == lastColIndex) {
+							continue;
+						}
 						// 合并单元格
 						CellRangeAddress cellRangeAddress = new CellRangeAddress(firstRowIndex, lastRowIndex,
 								firstColIndex, lastColIndex);
@@ -112,64 +118,180 @@ public final class SheetUtil {
 	 * @param <T>
 	 * @param sheet
 	 * @param clazz
-	 * @return
+	 * @return 没有匹配的表头返回最后一行的行序号
 	 */
 	public static <T> int templateHeadLastRowNum(Sheet sheet, Class<T> clazz) {
-		int result = -1;
-		Map<Integer, String> colIndexNameMap = headLastRowNameMap(clazz);
-		int rowCount = sheet.getLastRowNum();
+		int result = templateHeadLastRowNum(sheet, clazz, -1, Integer.MAX_VALUE);
+		return result < 0 ? Math.max(sheet.getLastRowNum(), -1) : result;
+	}
+
+	/**
+	 * 读取excel表时，获取模板sheet表格上最后一行表头行序号
+	 * 
+	 * @param sheet
+	 * @param list
+	 * @return 没有匹配的表头返回最后一行的行序号
+	 */
+	public static int templateHeadLastRowNum(Sheet sheet, List<ColumnField> list) {
+		int result = templateHeadLastRowNum(sheet, list, -1, Integer.MAX_VALUE);
+		return result < 0 ? Math.max(sheet.getLastRowNum(), -1) : result;
+	}
+
+	/**
+	 * 在前scanRows行中查找最后一行表头，给定表头行提示时先检查提示的行
+	 * 
+	 * @param <T>
+	 * @param sheet
+	 * @param clazz
+	 * @param headRowHint 最后一行表头可能的行序号，小于0时不提示
+	 * @param scanRows    最多检查的行数
+	 * @return 没有匹配的表头返回-1
+	 */
+	public static <T> int templateHeadLastRowNum(Sheet sheet, Class<T> clazz, int headRowHint, int scanRows) {
+		return headLastRowNum(sheet, headLastRowNameMap(clazz), headRowHint, scanRows);
+	}
+
+	/**
+	 * 在前scanRows行中查找最后一行表头，给定表头行提示时先检查提示的行
+	 * 
+	 * @param sheet
+	 * @param list
+	 * @param headRowHint 最后一行表头可能的行序号，小于0时不提示
+	 * @param scanRows    最多检查的行数
+	 * @return 没有匹配的表头返回-1
+	 */
+	public static int templateHeadLastRowNum(Sheet sheet, List<ColumnField> list, int headRowHint, int scanRows) {
+		return headLastRowNum(sheet, headLastRowNameMap(list), headRowHint, scanRows);
+	}
+
+	/**
+	 * 查找包含所有最后一行表头列名称的行
+	 * 
+	 * @param sheet
+	 * @param colIndexNameMap
+	 * @param headRowHint
+	 * @param scanRows
+	 * @return
+	 */
+	private static int headLastRowNum(Sheet sheet, Map<Integer, String> colIndexNameMap, int headRowHint,
+			int scanRows) {
+		Set<String> names = new HashSet<String>(colIndexNameMap.values());
+		if (names.isEmpty()) {
+			return -1;
+		}
+		int lastRowNum = sheet.getLastRowNum();
+		if (headRowHint >= 0 && headRowHint <= lastRowNum && isHeadRow(sheet, headRowHint, names)) {
+			return headRowHint;
+		}
+		int rowCount = (int) Math.min(lastRowNum, scanRows - 1L);
 		for (int i = 0; i <= rowCount; i++) {
-			Row row = getRow(sheet, i);
-			int cellCount = row.getLastCellNum();
-			result = i;
-			int count = 0;
-			for (int k = 0; k < cellCount; k++) {
-				String name = RowUtil.getCell(row, k).getStringCellValue();
-				if (isMergeRegion(sheet, i, k)) {
-					name = SheetUtil.getHeadMergeRegionValue(sheet, i, k);
-				}
-				if (name != null && colIndexNameMap.containsValue(name)) {
-					count++;
+			if (i != headRowHint && isHeadRow(sheet, i, names)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * 行中是否包含所有列名称，合并单元格取合并区域的值，全部匹配后不再检查后面的单元格
+	 * 
+	 * @param sheet
+	 * @param rowIndex
+	 * @param names
+	 * @return
+	 */
+	private static boolean isHeadRow(Sheet sheet, int rowIndex, Set<String> names) {
+		Row row = sheet.getRow(rowIndex);
+		if (row == null || row.getLastCellNum() < names.size()) {
+			return false;
+		}
+		Set<String> matched = new HashSet<String>();
+		for (int k = 0, cellCount = row.getLastCellNum(); k < cellCount; k++) {
+			String name = null;
+			if (isMergeRegion(sheet, rowIndex, k)) {
+				name = SheetUtil.getHeadMergeRegionValue(sheet, rowIndex, k);
+			} else {
+				Cell cell = row.getCell(k);
+				if (cell != null && cell.getCellType() == CellType.STRING) {
+					name = cell.getStringCellValue();
 				}
 			}
-			if (count == colIndexNameMap.size()) {
-				break;
+			if (name != null && names.contains(name) && matched.add(name) && matched.size() == names.size()) {
+				return true;
 			}
 		}
-		return result;
+		return false;
 	}
 
 	/**
-	 * 读取excel表时，获取模板sheet表格上最后一行表头行序号
-	 * 
+	 * 流式读取时，获取sheet表上最后一行表头行序号，读取的行会被消耗掉，返回后流停在数据行之前。
+	 * 流式读取时合并单元格信息在sheet表数据之后，所以按列名称在各表头行累计匹配，全部匹配的行即为最后一行表头。
+	 *
+	 * @param <T>
+	 * @param sheet
+	 * @param clazz
+	 * @return 没有匹配的表头返回-1
+	 * @throws Exception
+	 */
+	public static <T> int templateHeadLastRowNum(StreamSheet sheet, Class<T> clazz) throws Exception {
+		return streamHeadLastRowNum(sheet, headLastRowNameMap(clazz), Integer.MAX_VALUE);
+	}
+
+	/**
+	 * 流式读取时，在前scanRows行中获取sheet表上最后一行表头行序号。
+	 * 流不能回退，没有匹配时已读取的行被消耗掉。
+	 *
+	 * @param <T>
+	 * @param sheet
+	 * @param clazz
+	 * @param scanRows 最多检查的行数
+	 * @return 没有匹配的表头返回-1
+	 * @throws Exception
+	 */
+	public static <T> int templateHeadLastRowNum(StreamSheet sheet, Class<T> clazz, int scanRows) throws Exception {
+		return streamHeadLastRowNum(sheet, headLastRowNameMap(clazz), scanRows);
+	}
+
+	/**
+	 * 流式读取时，获取sheet表上最后一行表头行序号，读取的行会被消耗掉，返回后流停在数据行之前。
+	 *
 	 * @param sheet
 	 * @param list
+	 * @return 没有匹配的表头返回-1
+	 * @throws Exception
+	 */
+	public static int templateHeadLastRowNum(StreamSheet sheet, List<ColumnField> list) throws Exception {
+		return streamHeadLastRowNum(sheet, headLastRowNameMap(list), Integer.MAX_VALUE);
+	}
+
+	/**
+	 * 流式读取表头，累计匹配最后一行表头的列名称
+	 *
+	 * @param sheet
+	 * @param colIndexNameMap
+	 * @param scanRows
 	 * @return
+	 * @throws Exception
 	 */
-	public static int templateHeadLastRowNum(Sheet sheet, List<ColumnField> list) {
-		int result = -1;
-		Map<Integer, String> colIndexNameMap = headLastRowNameMap(list);
-		int rowCount = sheet.getLastRowNum();
-		for (int i = 0; i <= rowCount; i++) {
-			Row row = getRow(sheet, i);
-			int cellCount = row.getLastCellNum();
-			result = i;
-			int count = 0;
-			for (int k = 0; k < cellCount; k++) {
-				String name = RowUtil.getCell(row, k).getStringCellValue();
-				if (isMergeRegion(sheet, i, k)) {
-					name = SheetUtil.getHeadMergeRegionValue(sheet, i, k);
-				}
-				if (name != null && colIndexNameMap.containsValue(name)) {
-					count++;
+	private static int streamHeadLastRowNum(StreamSheet sheet, Map<Integer, String> colIndexNameMap, int scanRows)
+			throws Exception {
+		Set<String> names = new HashSet<String>(colIndexNameMap.values());
+		Set<String> matched = new HashSet<String>();
+		Row row;
+		while ((row = sheet.nextRow()) != null) {
+			for (Cell cell : row) {
+				if (cell.getCellType() == CellType.STRING && names.contains(cell.getStringCellValue())) {
+					matched.add(cell.getStringCellValue());
 				}
 			}
-			if (count == colIndexNameMap.size()) {
+			if (!names.isEmpty() && matched.size() == names.size()) {
+				return row.getRowNum();
+			}
+			if (row.getRowNum() >= scanRows - 1L) {
 				break;
 			}
 		}
-
-		return result;
+		return -1;
 	}
 
 	/**
@@ -181,7 +303,19 @@ public final class SheetUtil {
 	 * @return
 	 */
 	public static <T> Map<Integer, String> templateColumnFieldMap(Sheet sheet, Class<T> clazz) {
-		int headLastRowNum = SheetUtil.templateHeadLastRowNum(sheet, clazz);
+		return templateColumnFieldMap(sheet, clazz, SheetUtil.templateHeadLastRowNum(sheet, clazz));
+	}
+
+	/**
+	 * 已知最后一行表头行序号时，模板列索引和字段名称映射
+	 * 
+	 * @param <T>
+	 * @param sheet
+	 * @param clazz
+	 * @param headLastRowNum
+	 * @return
+	 */
+	public static <T> Map<Integer, String> templateColumnFieldMap(Sheet sheet, Class<T> clazz, int headLastRowNum) {
 		Row row = SheetUtil.getRow(sheet, headLastRowNum);
 		int colCount = row.getLastCellNum();
 		Map<String, String> map = SheetUtil.headLastRowFieldMap(clazz);
@@ -231,28 +365,13 @@ public final class SheetUtil {
 	}
 
 	/**
-	 * 获取注解格列索引和字段名称映射
+	 * 获取注解格列索引和字段名称映射，返回的映射不可修改
 	 * 
 	 * @param clazz
 	 * @return
 	 */
 	public static <T> Map<Integer, String> columnFieldMap(Class<T> clazz) {
-		Map<Integer, String> columnMap = new HashMap<Integer, String>();
-		Field[] fileds = clazz.getDeclaredFields();
-		for (Field field : fileds) {
-			field.setAccessible(true);
-			// 判断对象属性是否存在Excel注解
-			if (field.isAnnotationPresent(Excel.class)) {
-				// 获取Excel注解
-				Excel ex = field.getAnnotation(Excel.class);
-				// 将列和字段名字放入map中
-				if (ex.order() != -1) {
-					// 列和数据对象属性映射
-					columnMap.put(ex.order(), field.getName());
-				}
-			}
-		}
-		return columnMap;
+		return ExcelClassMetadata.of(clazz).getColumnFieldMap();
 	}
 
 	/**
@@ -263,24 +382,7 @@ public final class SheetUtil {
 	 * @return
 	 */
 	private static <T> Map<String, String> headLastRowFieldMap(Class<T> clazz) {
-		Map<String, String> result = new HashMap<String, String>();
-		Field[] fields = clazz.getDeclaredFields();
-		for (int i = 0, len = fields.length; i < len; i++) {
-			Field field = fields[i];
-			field.setAccessible(true);
-			// 判断字段是否标注Excel注解
-			if (field.isAnnotationPresent(Excel.class)) {
-				// 获取Excel注解
-				Excel ex = field.getAnnotation(Excel.class);
-				if (ex.order() > -1 && ex.name().length >= 1) {
-					String[] names = ex.name();
-					int r = names.length;
-					// 获取当前字段最后一行表头的列名称
-					result.put(names[r - 1], field.getName());
-				}
-			}
-		}
-		return result;
+		return ExcelClassMetadata.of(clazz).getHeadLastRowFieldMap();
 	}
 
 	/**
@@ -311,24 +413,7 @@ public final class SheetUtil {
 	 * @return
 	 */
 	private static <T> Map<Integer, String> headLastRowNameMap(Class<T> clazz) {
-		Map<Integer, String> result = new HashMap<Integer, String>();
-		Field[] fields = clazz.getDeclaredFields();
-		for (int i = 0, len = fields.length; i < len; i++) {
-			Field field = fields[i];
-			field.setAccessible(true);
-			// 判断字段是否标注Excel注解
-			if (field.isAnnotationPresent(Excel.class)) {
-				// 获取Excel注解
-				Excel ex = field.getAnnotation(Excel.class);
-				if (ex.order() > -1 && ex.name().length >= 1) {
-					String[] names = ex.name();
-					int r = names.length;
-					// 获取当前字段最后一行表头的列名称
-					result.put(ex.order(), names[r - 1]);
-				}
-			}
-		}
-		return result;
+		return ExcelClassMetadata.of(clazz).getHeadLastRowNameMap();
 	}
 
 	/**
@@ -358,19 +443,7 @@ public final class SheetUtil {
 	 * @return
 	 */
 	public static boolean isMergeRegion(Sheet sheet, int rowIndex, int colIndex) {
-		int mergeRegionCount = sheet.getNumMergedRegions();
-		for (int i = 0; i < mergeRegionCount; i++) {
-			CellRangeAddress cellRangeAddress = sheet.getMergedRegion(i);
-			int firstRowIndex = cellRangeAddress.getFirstRow();
-			int firstColIndex = cellRangeAddress.getFirstColumn();
-			int lastRowIndex = cellRangeAddress.getLastRow();
-			int lastColIndex = cellRangeAddress.getLastColumn();
-			if (firstRowIndex <= rowIndex && rowIndex <= lastRowIndex && firstColIndex <= colIndex
-					&& colIndex <= lastColIndex) {
-				return true;
-			}
-		}
-		return false;
+		return MergedRegionIndex.of(sheet).isMerged(rowIndex, colIndex);
 	}
 
 	/**
@@ -382,22 +455,13 @@ public final class SheetUtil {
 	 * @return
 	 */
 	public static String getHeadMergeRegionValue(Sheet sheet, int rowIndex, int colIndex) {
-		int mergeRegionCount = sheet.getNumMergedRegions();
-		for (int i = 0; i < mergeRegionCount; i++) {
-			CellRangeAddress cellRangeAddress = sheet.getMergedRegion(i);
-			int firstRowIndex = cellRangeAddress.getFirstRow();
-			int firstColIndex = cellRangeAddress.getFirstColumn();
-			int lastRowIndex = cellRangeAddress.getLastRow();
-			int lastColIndex = cellRangeAddress.getLastColumn();
-			if (firstRowIndex <= rowIndex && rowIndex <= lastRowIndex && firstColIndex <= colIndex
-					&& colIndex <= lastColIndex) {
-				Row row = SheetUtil.getRow(sheet, firstRowIndex);
-				Cell cell = RowUtil.getCell(row, firstColIndex);
-
-				return cell.getStringCellValue();
-			}
+		CellRangeAddress cellRangeAddress = MergedRegionIndex.of(sheet).getRegion(rowIndex, colIndex);
+		if (cellRangeAddress == null) {
+			return null;
 		}
-		return null;
+		Row row = SheetUtil.getRow(sheet, cellRangeAddress.getFirstRow());
+		Cell cell = RowUtil.getCell(row, cellRangeAddress.getFirstColumn());
+		return cell.getStringCellValue();
 	}
 
 	/**
@@ -409,29 +473,7 @@ public final class SheetUtil {
 	 * @return
 	 */
 	private static <T> Map<String, List<CellPos>> headColCellsMap(Class<T> clazz) {
-		Map<String, List<CellPos>> result = new HashMap<String, List<CellPos>>();
-		int headRowCount = headRowCount(clazz);
-		Field[] fields = clazz.getDeclaredFields();
-		for (int i = 0, len = fields.length; i < len; i++) {
-			Field field = fields[i];
-			field.setAccessible(true);
-			// 判断字段是否标注Excel注解
-			if (field.isAnnotationPresent(Excel.class)) {
-				// 获取Excel注解
-				Excel ex = field.getAnnotation(Excel.class);
-				if (ex.order() > -1 && ex.name().length >= 1) {
-					int colIndex = ex.order();
-					String[] names = ex.name();
-					int rows = names.length;
-					for (int r = 0; r < headRowCount; r++) {
-						String name = r < rows ? names[r] : names[rows - 1];
-						result.computeIfAbsent(name, k -> new ArrayList<CellPos>())
-								.add(CellPos.build().withRowIndex(r).withColIndex(colIndex));
-					}
-				}
-			}
-		}
-		return headColCellsMapHandle(result);
+		return ExcelClassMetadata.of(clazz).getHeadColCellsMap();
 	}
 
 	/**
@@ -463,7 +505,7 @@ public final class SheetUtil {
 	 * @param headColCellsMap
 	 * @return
 	 */
-	private static Map<String, List<CellPos>> headColCellsMapHandle(Map<String, List<CellPos>> headColCellsMap) {
+	static Map<String, List<CellPos>> headColCellsMapHandle(Map<String, List<CellPos>> headColCellsMap) {
 		Map<String, List<CellPos>> result = new HashMap<String, List<CellPos>>();
 		for (Map.Entry<String, List<CellPos>> entry : headColCellsMap.entrySet()) {
 			if (entry.getValue() != null && !entry.getValue().isEmpty()) {
@@ -539,6 +581,7 @@ public final class SheetUtil {
 						} else {
 							csList.add(cList);
 							cList = new ArrayList<CellPos>();
+							cList.add(data.get(k));
 						}
 					}
 					
@@ -568,21 +611,7 @@ public final class SheetUtil {
 	 * @return
 	 */
 	public static <T> int headRowCount(Class<T> clazz) {
-		int result = 0;
-		Field[] fields = clazz.getDeclaredFields();
-		for (int i = 0, len = fields.length; i < len; i++) {
-			Field field = fields[i];
-			field.setAccessible(true);
-			// 判断字段是否标注Excel注解
-			if (field.isAnnotationPresent(Excel.class)) {
-				// 获取Excel注解
-				Excel ex = field.getAnnotation(Excel.class);
-				if (ex.order() > -1 && ex.name().length > result) {
-					result = ex.name().length;
-				}
-			}
-		}
-		return result;
+		return ExcelClassMetadata.of(clazz).getHeadRowCount();
 	}
 
 	/**
@@ -623,21 +652,7 @@ public final class SheetUtil {
 	 * @return
 	 */
 	public static <T> int headColCount(Class<T> clazz) {
-		int result = 0;
-		Field[] fields = clazz.getDeclaredFields();
-		for (int i = 0, len = fields.length; i < len; i++) {
-			Field field = fields[i];
-			field.setAccessible(true);
-			// 判断字段是否标注Excel注解
-			if (field.isAnnotationPresent(Excel.class)) {
-				// 获取Excel注解
-				Excel ex = field.getAnnotation(Excel.class);
-				if (ex.order() > -1) {
-					result += 1;
-				}
-			}
-		}
-		return result;
+		return ExcelClassMetadata.of(clazz).getHeadColCount();
 	}
 
 	/**
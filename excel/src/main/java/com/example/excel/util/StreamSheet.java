@@ -0,0 +1,315 @@
+package com.example.excel.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+/**
+ * 流式读取的sheet表，使用StAX逐行解析sheet表的xml。
+ * 每解析一行就把数据写入一个临时工作簿的行中返回，读取下一行时上一行被移除，
+ * 所以返回的行可以直接交给按单元格工作的转换器，但只在读取下一行之前有效。
+ * 中间缺失的行作为空行返回，和读取工作簿时行索引保持一致。
+ */
+public final class StreamSheet implements Closeable {
+	private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+	// sheet表名称
+	private String sheetName;
+	private InputStream inputStream;
+	private XMLStreamReader xmlReader;
+	// 共享字符串表
+	private SharedStrings sharedStrings;
+	// 样式表
+	private StylesTable stylesTable;
+	// 承载当前行的临时工作簿
+	private XSSFWorkbook scratchWorkbook;
+	private Sheet scratchSheet;
+	// 样式索引对应的临时工作簿样式，只复制数据格式
+	private CellStyle[] scratchStyles;
+	private boolean[] scratchStyleResolved;
+	// 当前返回的行
+	private Row currentRow;
+	// 下一个返回的行索引
+	private int nextRowNum = 0;
+	// 已经读到开始标签但还没有解析单元格的行索引，-1表示没有
+	private int pendingRowNum = -1;
+	// sheetData是否已经读完
+	private boolean finished = false;
+
+	/**
+	 * 不给外部提供创建实例
+	 */
+	private StreamSheet() {
+	}
+
+	/**
+	 * 创建流式sheet表
+	 *
+	 * @param sheetName
+	 * @param inputStream
+	 * @param sharedStrings
+	 * @param stylesTable
+	 * @return
+	 * @throws Exception
+	 */
+	static StreamSheet build(String sheetName, InputStream inputStream, SharedStrings sharedStrings,
+			StylesTable stylesTable) throws Exception {
+		StreamSheet streamSheet = FuncUtil.create(StreamSheet::new);
+		streamSheet.sheetName = sheetName;
+		streamSheet.inputStream = inputStream;
+		streamSheet.sharedStrings = sharedStrings;
+		streamSheet.stylesTable = stylesTable;
+		int styleCount = stylesTable == null ? 0 : stylesTable.getNumCellStyles();
+		streamSheet.scratchStyles = new CellStyle[styleCount];
+		streamSheet.scratchStyleResolved = new boolean[styleCount];
+		try {
+			streamSheet.xmlReader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream);
+			streamSheet.scratchWorkbook = new XSSFWorkbook();
+			streamSheet.scratchSheet = streamSheet.scratchWorkbook.createSheet(sheetName);
+		} catch (Exception e) {
+			streamSheet.close();
+			throw e;
+		}
+		return streamSheet;
+	}
+
+	/**
+	 * sheet表名称
+	 *
+	 * @return
+	 */
+	public String getSheetName() {
+		return sheetName;
+	}
+
+	/**
+	 * 读取下一行，没有更多的行返回null
+	 *
+	 * @return
+	 * @throws XMLStreamException
+	 */
+	public Row nextRow() throws XMLStreamException {
+		if (currentRow != null) {
+			scratchSheet.removeRow(currentRow);
+			currentRow = null;
+		}
+		if (pendingRowNum < 0 && !finished) {
+			pendingRowNum = seekRow();
+		}
+		if (pendingRowNum < 0) {
+			return null;
+		}
+		// 缺失的行作为空行返回
+		if (pendingRowNum > nextRowNum) {
+			currentRow = scratchSheet.createRow(nextRowNum++);
+			return currentRow;
+		}
+		currentRow = scratchSheet.createRow(pendingRowNum);
+		readCells(currentRow);
+		nextRowNum = pendingRowNum + 1;
+		pendingRowNum = -1;
+		return currentRow;
+	}
+
+	/**
+	 * 移动到下一个row开始标签，返回行索引；sheetData结束返回-1
+	 *
+	 * @return
+	 * @throws XMLStreamException
+	 */
+	private int seekRow() throws XMLStreamException {
+		while (xmlReader.hasNext()) {
+			int event = xmlReader.next();
+			if (event == XMLStreamConstants.START_ELEMENT && "row".equals(xmlReader.getLocalName())) {
+				String r = xmlReader.getAttributeValue(null, "r");
+				return r == null ? nextRowNum : Integer.parseInt(r) - 1;
+			}
+			if (event == XMLStreamConstants.END_ELEMENT && "sheetData".equals(xmlReader.getLocalName())) {
+				break;
+			}
+		}
+		finished = true;
+		return -1;
+	}
+
+	/**
+	 * 解析当前行的所有单元格，直到row结束标签
+	 *
+	 * @param row
+	 * @throws XMLStreamException
+	 */
+	private void readCells(Row row) throws XMLStreamException {
+		int colIndex = -1;
+		String type = null;
+		String style = null;
+		String value = null;
+		StringBuilder inlineText = null;
+		while (xmlReader.hasNext()) {
+			int event = xmlReader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				String name = xmlReader.getLocalName();
+				if ("c".equals(name)) {
+					String ref = xmlReader.getAttributeValue(null, "r");
+					colIndex = ref == null ? colIndex + 1 : columnIndex(ref);
+					type = xmlReader.getAttributeValue(null, "t");
+					style = xmlReader.getAttributeValue(null, "s");
+					value = null;
+					inlineText = null;
+				} else if ("v".equals(name)) {
+					value = xmlReader.getElementText();
+				} else if ("is".equals(name)) {
+					inlineText = new StringBuilder();
+				} else if ("t".equals(name) && inlineText != null) {
+					inlineText.append(xmlReader.getElementText());
+				} else if ("rPh".equals(name) || "f".equals(name)) {
+					// 拼音和公式不需要
+					skipElement();
+				}
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				String name = xmlReader.getLocalName();
+				if ("c".equals(name)) {
+					setCellValue(row, colIndex, type, style, inlineText == null ? value : inlineText.toString());
+				} else if ("row".equals(name)) {
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * 按单元格类型把值写入临时行
+	 *
+	 * @param row
+	 * @param colIndex
+	 * @param type
+	 * @param style
+	 * @param value
+	 */
+	private void setCellValue(Row row, int colIndex, String type, String style, String value) {
+		if (value == null) {
+			return;
+		}
+		if ("s".equals(type)) {
+			row.createCell(colIndex).setCellValue(sharedStrings.getItemAt(Integer.parseInt(value)).getString());
+		} else if ("inlineStr".equals(type) || "str".equals(type) || "d".equals(type)) {
+			row.createCell(colIndex).setCellValue(value);
+		} else if ("b".equals(type)) {
+			row.createCell(colIndex).setCellValue("1".equals(value) || "true".equalsIgnoreCase(value));
+		} else if ("e".equals(type)) {
+			// 错误单元格按空单元格处理
+			row.createCell(colIndex);
+		} else if (!value.isEmpty()) {
+			Cell cell = row.createCell(colIndex);
+			cell.setCellValue(Double.parseDouble(value));
+			CellStyle cellStyle = style == null ? null : scratchStyle(Integer.parseInt(style));
+			if (cellStyle != null) {
+				cell.setCellStyle(cellStyle);
+			}
+		}
+	}
+
+	/**
+	 * 获取样式索引对应的临时样式，只复制数据格式用于日期判断；常规格式返回null
+	 *
+	 * @param styleIndex
+	 * @return
+	 */
+	private CellStyle scratchStyle(int styleIndex) {
+		if (styleIndex < 0 || styleIndex >= scratchStyles.length) {
+			return null;
+		}
+		if (!scratchStyleResolved[styleIndex]) {
+			XSSFCellStyle source = stylesTable.getStyleAt(styleIndex);
+			if (source != null && source.getDataFormat() != 0) {
+				CellStyle cellStyle = scratchWorkbook.createCellStyle();
+				cellStyle.setDataFormat(
+						scratchWorkbook.createDataFormat().getFormat(source.getDataFormatString()));
+				scratchStyles[styleIndex] = cellStyle;
+			}
+			scratchStyleResolved[styleIndex] = true;
+		}
+		return scratchStyles[styleIndex];
+	}
+
+	/**
+	 * 跳过当前元素及其子元素
+	 *
+	 * @throws XMLStreamException
+	 */
+	private void skipElement() throws XMLStreamException {
+		int depth = 1;
+		while (depth > 0 && xmlReader.hasNext()) {
+			int event = xmlReader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+	}
+
+	/**
+	 * 单元格引用（如AB12）转列索引
+	 *
+	 * @param ref
+	 * @return
+	 */
+	private static int columnIndex(String ref) {
+		int result = 0;
+		for (int i = 0, len = ref.length(); i < len; i++) {
+			char c = ref.charAt(i);
+			if (c < 'A' || c > 'Z') {
+				break;
+			}
+			result = result * 26 + (c - 'A' + 1);
+		}
+		return result - 1;
+	}
+
+	/**
+	 * 创建StAX解析工厂，禁止外部实体
+	 *
+	 * @return
+	 */
+	private static XMLInputFactory createXmlInputFactory() {
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+		return factory;
+	}
+
+	/**
+	 * 释放资源
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			if (xmlReader != null) {
+				xmlReader.close();
+			}
+		} catch (XMLStreamException e) {
+			throw new IOException(e);
+		} finally {
+			if (inputStream != null) {
+				inputStream.close();
+			}
+			if (scratchWorkbook != null) {
+				scratchWorkbook.close();
+			}
+		}
+	}
+}
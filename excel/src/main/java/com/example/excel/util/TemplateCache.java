@@ -0,0 +1,210 @@
+package com.example.excel.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+
+/**
+ * 模板文件缓存，每个模板文件只读取一次，内容保存为不可修改的字节数组。
+ * 每次导出从字节数组打开新的工作簿，模板文件不会被修改，也不需要在模板目录下复制临时文件。
+ * 模板文件的修改时间或大小变化后重新读取。
+ * 模板sheet表的表头信息也随模板缓存，同一模板重复导出时不再分析表头。
+ * 缓存按最近使用淘汰，最多缓存的模板数量可以设置。
+ */
+public final class TemplateCache {
+	private static final Logger logger = Logger.getLogger(TemplateCache.class.getName());
+	// 默认最多缓存的模板数量
+	private static final int DEFAULT_MAX_SIZE = 32;
+	// 最多缓存的模板数量
+	private static volatile int maxSize = DEFAULT_MAX_SIZE;
+	// 模板文件路径和模板内容映射，按访问顺序排列，超出数量淘汰最久未使用的模板
+	private static final Map<String, Template> TEMPLATES = new LinkedHashMap<String, Template>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Template> eldest) {
+			return size() > maxSize;
+		}
+	};
+	// 表头信息命中缓存次数
+	private static final AtomicLong HITS = new AtomicLong();
+	// 表头信息没有命中缓存次数
+	private static final AtomicLong MISSES = new AtomicLong();
+
+	/**
+	 * 不给外部提供创建实例
+	 */
+	private TemplateCache() {
+
+	}
+
+	/**
+	 * 使用模板文件创建新的工作簿，模板内容从缓存读取
+	 *
+	 * @param file
+	 * @return
+	 * @throws Exception
+	 */
+	public static Workbook createWorkbook(File file) throws Exception {
+		Template template = get(file);
+		return WorkbookUtil.createWorkbook(template.openStream());
+	}
+
+	/**
+	 * 获取模板sheet表的表头信息，同一模板文件的同一sheet表和数据类只解析一次
+	 *
+	 * @param file 模板文件
+	 * @param sheet 从模板创建的工作簿中的sheet表
+	 * @param clazz
+	 * @return
+	 * @throws Exception
+	 */
+	public static TemplateHead getHead(File file, Sheet sheet, Class<?> clazz) throws Exception {
+		Template template = get(file);
+		String key = sheet.getSheetName() + "#" + clazz.getName();
+		TemplateHead head = template.heads.get(key);
+		if (head != null) {
+			HITS.incrementAndGet();
+			return head;
+		}
+		MISSES.incrementAndGet();
+		head = TemplateHead.of(sheet, clazz);
+		TemplateHead previous = template.heads.putIfAbsent(key, head);
+		return previous != null ? previous : head;
+	}
+
+	/**
+	 * 获取模板文件内容，没有缓存或者文件已变化时重新读取
+	 *
+	 * @param file
+	 * @return
+	 * @throws Exception
+	 */
+	private static Template get(File file) throws Exception {
+		String path = file.getCanonicalPath();
+		long lastModified = file.lastModified();
+		long length = file.length();
+		Template template;
+		synchronized (TEMPLATES) {
+			template = TEMPLATES.get(path);
+		}
+		if (template != null && template.lastModified == lastModified && template.length == length) {
+			return template;
+		}
+		template = new Template(FileUtil.readFile(file), lastModified, length);
+		synchronized (TEMPLATES) {
+			TEMPLATES.put(path, template);
+		}
+		logger.fine("缓存模板" + path);
+		return template;
+	}
+
+	/**
+	 * 设置最多缓存的模板数量，超出时淘汰最久未使用的模板
+	 *
+	 * @param size
+	 * @throws Exception
+	 */
+	public static void setMaxSize(int size) throws Exception {
+		if (size < 1) {
+			throw new Exception("最多缓存的模板数量必须大于0");
+		}
+		synchronized (TEMPLATES) {
+			maxSize = size;
+			Iterator<String> iterator = TEMPLATES.keySet().iterator();
+			while (TEMPLATES.size() > size && iterator.hasNext()) {
+				iterator.next();
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * 当前缓存的模板数量
+	 *
+	 * @return
+	 */
+	public static int size() {
+		synchronized (TEMPLATES) {
+			return TEMPLATES.size();
+		}
+	}
+
+	/**
+	 * 表头信息命中缓存次数
+	 *
+	 * @return
+	 */
+	public static long getHitCount() {
+		return HITS.get();
+	}
+
+	/**
+	 * 表头信息没有命中缓存次数
+	 *
+	 * @return
+	 */
+	public static long getMissCount() {
+		return MISSES.get();
+	}
+
+	/**
+	 * 移除模板缓存
+	 *
+	 * @param file
+	 * @throws IOException
+	 */
+	public static void remove(File file) throws IOException {
+		String path = file.getCanonicalPath();
+		synchronized (TEMPLATES) {
+			TEMPLATES.remove(path);
+		}
+	}
+
+	/**
+	 * 清空模板缓存和命中统计
+	 */
+	public static void clear() {
+		synchronized (TEMPLATES) {
+			TEMPLATES.clear();
+		}
+		HITS.set(0);
+		MISSES.set(0);
+	}
+
+	/**
+	 * 模板文件内容，创建后不再修改，表头信息按sheet表和数据类缓存
+	 */
+	private static final class Template {
+		private final byte[] bytes;
+		private final long lastModified;
+		private final long length;
+		// sheet表名称和数据类对应的表头信息
+		private final Map<String, TemplateHead> heads = new ConcurrentHashMap<String, TemplateHead>();
+
+		private Template(byte[] bytes, long lastModified, long length) {
+			this.bytes = bytes;
+			this.lastModified = lastModified;
+			this.length = length;
+		}
+
+		/**
+		 * 只读的模板内容输入流
+		 *
+		 * @return
+		 */
+		private InputStream openStream() {
+			return new ByteArrayInputStream(bytes);
+		}
+	}
+}
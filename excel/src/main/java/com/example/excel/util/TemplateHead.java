@@ -0,0 +1,54 @@
+package com.example.excel.util;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.Sheet;
+
+/**
+ * 模板sheet表的表头信息，从模板解析一次后缓存，创建后不可修改
+ */
+public final class TemplateHead {
+	// 最后一行表头行序号
+	private final int headLastRowNum;
+	// 列索引和字段名称映射
+	private final Map<Integer, String> columnFieldMap;
+
+	/**
+	 * 不给外部提供创建实例
+	 */
+	private TemplateHead(int headLastRowNum, Map<Integer, String> columnFieldMap) {
+		this.headLastRowNum = headLastRowNum;
+		this.columnFieldMap = Collections.unmodifiableMap(columnFieldMap);
+	}
+
+	/**
+	 * 解析模板sheet表的表头
+	 *
+	 * @param sheet
+	 * @param clazz
+	 * @return
+	 */
+	public static TemplateHead of(Sheet sheet, Class<?> clazz) {
+		int headLastRowNum = SheetUtil.templateHeadLastRowNum(sheet, clazz);
+		return new TemplateHead(headLastRowNum, SheetUtil.templateColumnFieldMap(sheet, clazz, headLastRowNum));
+	}
+
+	/**
+	 * 最后一行表头行序号
+	 *
+	 * @return
+	 */
+	public int getHeadLastRowNum() {
+		return headLastRowNum;
+	}
+
+	/**
+	 * 列索引和字段名称映射
+	 *
+	 * @return
+	 */
+	public Map<Integer, String> getColumnFieldMap() {
+		return columnFieldMap;
+	}
+}
@@ -14,6 +14,8 @@ public final class WorkbookUtil {
 	private final static Logger logger = Logger.getLogger(WorkbookUtil.class.getName());
 	public static final String XLS = ".xls";
 	public static final String XLSX = ".xlsx";
+	public static final String CSV = ".csv";
+	public static final String TSV = ".tsv";
 	
 	private WorkbookUtil() {}
 
@@ -36,6 +38,20 @@ public final class WorkbookUtil {
 		return workbook;
 	}
 
+	/**
+	 * 创建字符串去重的SXSSFWorkbook，重复的字符串只在共享字符串表中保存一份
+	 * 
+	 * @param maxSharedStrings 最多共享的字符串数量，超出后新的字符串按行内字符串写入
+	 * @return
+	 * @throws Exception
+	 */
+	public static Workbook createWorkbook(int maxSharedStrings) throws Exception {
+		if (maxSharedStrings < 1) {
+			throw new Exception("最多共享的字符串数量必须大于0");
+		}
+		return new InternedStringsWorkbook(new XSSFWorkbook(), maxSharedStrings);
+	}
+
 	/**
 	 * 使用文件对象创建HSSFWorkbook / XSSFWorkbook
 	 * 
@@ -52,6 +68,18 @@ public final class WorkbookUtil {
 		return WorkbookFactory.create(file);
 	}
 
+	/**
+	 * 按文件内容判断格式，只读打开HSSFWorkbook / XSSFWorkbook，不检查文件后缀，用于读取输入流复制出的临时文件。
+	 * xlsx压缩包按随机访问的方式打开，用到的部分才从文件读取，不会把整个压缩包复制到内存
+	 * 
+	 * @param file
+	 * @return
+	 * @throws Exception
+	 */
+	public static Workbook openWorkbook(File file) throws Exception {
+		return WorkbookFactory.create(file, null, true);
+	}
+
 	/**
 	 * 使用文件创建HSSFWorkbook / XSSFWorkbook
 	 * 
@@ -102,18 +130,18 @@ public final class WorkbookUtil {
 		   if(workbook.getNumberOfSheets() == 0) {
 			   sheetName = "Sheet" + (workbook.getNumberOfSheets() + 1);
 			   sheet = workbook.createSheet(sheetName);
-			   logger.info("创建默认" + sheetName + "表格");
+			   logger.fine("创建默认" + sheetName + "表格");
 		   }else {
 			   sheet = workbook.getSheetAt(0);
-			   logger.info("获取默认" + sheet.getSheetName() + "表格");
+			   logger.fine("获取默认" + sheet.getSheetName() + "表格");
 		   }
 		}else {
 			if(workbook.getSheet(sheetName) == null) {
 				sheet = workbook.createSheet(sheetName);
-				logger.info("创建" + sheetName + "表格");
+				logger.fine("创建" + sheetName + "表格");
 			}else {
 				sheet = workbook.getSheet(sheetName);
-				logger.info("获取" + sheetName + "表格");
+				logger.fine("获取" + sheetName + "表格");
 			}
 		}
 
@@ -0,0 +1,161 @@
+package com.example.excel.util;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 写数据的进度统计，同一次写入重复使用同一个实例，回调时不创建新对象。
+ * 实例只在回调期间有效，需要保留数据时自行复制。
+ */
+public final class WriteProgress {
+	// 进度监听
+	private ProgressListener listener;
+	// 每写多少行回调一次
+	private int interval;
+	// 开始时间
+	private long startNanos;
+	// 当前sheet表名称
+	private String sheetName;
+	// 已写入的数据行数
+	private long rowsWritten;
+	// 下一次回调的行数
+	private long nextReport;
+	// 已写出到输出流的字节数
+	private long bytesFlushed;
+	// 是否已经写完
+	private boolean finished;
+
+	/**
+	 * 不给外部提供创建实例
+	 */
+	private WriteProgress() {
+	}
+
+	/**
+	 * 创建进度统计
+	 *
+	 * @param listener
+	 * @param interval 每写多少行回调一次，小于1时只在写完时回调
+	 * @return
+	 */
+	public static WriteProgress build(ProgressListener listener, int interval) {
+		WriteProgress progress = FuncUtil.create(WriteProgress::new);
+		progress.listener = listener;
+		progress.interval = interval;
+		progress.startNanos = System.nanoTime();
+		progress.nextReport = interval > 0 ? interval : Long.MAX_VALUE;
+		return progress;
+	}
+
+	/**
+	 * 开始写sheet表
+	 *
+	 * @param sheetName
+	 */
+	public void sheet(String sheetName) {
+		this.sheetName = sheetName;
+	}
+
+	/**
+	 * 写完一行，到达回调间隔时回调
+	 */
+	public void row() {
+		if (++rowsWritten >= nextReport) {
+			nextReport += interval;
+			listener.onProgress(this);
+		}
+	}
+
+	/**
+	 * 写完一个sheet表，回调一次
+	 */
+	public void sheetDone() {
+		listener.onProgress(this);
+	}
+
+	/**
+	 * 包装输出流，统计写出的字节数
+	 *
+	 * @param outputStream
+	 * @return
+	 */
+	public OutputStream count(OutputStream outputStream) {
+		return new FilterOutputStream(outputStream) {
+			@Override
+			public void write(int b) throws IOException {
+				out.write(b);
+				bytesFlushed++;
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				out.write(b, off, len);
+				bytesFlushed += len;
+			}
+		};
+	}
+
+	/**
+	 * 写出文件完成，回调一次
+	 */
+	public void finish() {
+		finished = true;
+		listener.onProgress(this);
+	}
+
+	/**
+	 * 当前sheet表名称
+	 *
+	 * @return
+	 */
+	public String getSheetName() {
+		return sheetName;
+	}
+
+	/**
+	 * 已写入的数据行数，不包含表头
+	 *
+	 * @return
+	 */
+	public long getRowsWritten() {
+		return rowsWritten;
+	}
+
+	/**
+	 * 已写出到输出流的字节数，写出文件之前为0
+	 *
+	 * @return
+	 */
+	public long getBytesFlushed() {
+		return bytesFlushed;
+	}
+
+	/**
+	 * 开始写数据到现在的毫秒数
+	 *
+	 * @return
+	 */
+	public long getElapsedMillis() {
+		return (System.nanoTime() - startNanos) / 1000000L;
+	}
+
+	/**
+	 * 每秒写入的行数
+	 *
+	 * @return
+	 */
+	public double getRowsPerSecond() {
+		long nanos = System.nanoTime() - startNanos;
+		return nanos <= 0 ? 0 : rowsWritten * 1e9 / nanos;
+	}
+
+	/**
+	 * 是否已经写出文件
+	 *
+	 * @return
+	 */
+	public boolean isFinished() {
+		return finished;
+	}
+}
@@ -0,0 +1,148 @@
+package com.example.excel.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+
+/**
+ * xlsx文件流式读取，不构建整个工作簿，只按需打开sheet表的xml逐行解析。
+ * 共享字符串表和样式表在打开文件时加载一次，所有sheet表共用。
+ */
+public final class XlsxStreamReader implements Closeable {
+	private static final Logger logger = Logger.getLogger(XlsxStreamReader.class.getName());
+	// xlsx文件包
+	private OPCPackage opcPackage;
+	private XSSFReader xssfReader;
+	// 共享字符串表
+	private ReadOnlySharedStringsTable sharedStrings;
+	// 样式表
+	private StylesTable stylesTable;
+	// sheet表名称，按工作簿中的顺序
+	private List<String> sheetNames;
+
+	/**
+	 * 不给外部提供创建实例
+	 */
+	private XlsxStreamReader() {
+	}
+
+	/**
+	 * 打开xlsx文件
+	 *
+	 * @param file
+	 * @return
+	 * @throws Exception
+	 */
+	public static XlsxStreamReader build(File file) throws Exception {
+		if (file == null || !file.isFile()) {
+			throw new Exception("没有文件可以读取");
+		}
+		if (!file.getName().toLowerCase().endsWith(WorkbookUtil.XLSX.toLowerCase())) {
+			throw new Exception("流式读取只支持xlsx格式文件");
+		}
+		XlsxStreamReader reader = FuncUtil.create(XlsxStreamReader::new);
+		try {
+			reader.opcPackage = OPCPackage.open(file, PackageAccess.READ);
+			reader.xssfReader = new XSSFReader(reader.opcPackage);
+			reader.sharedStrings = new ReadOnlySharedStringsTable(reader.opcPackage);
+			reader.stylesTable = reader.xssfReader.getStylesTable();
+			reader.sheetNames = reader.readSheetNames();
+		} catch (Exception e) {
+			reader.close();
+			throw e;
+		}
+		logger.info("流式打开" + file.getName());
+		return reader;
+	}
+
+	/**
+	 * sheet表数量
+	 *
+	 * @return
+	 */
+	public int getNumberOfSheets() {
+		return sheetNames.size();
+	}
+
+	/**
+	 * 所有sheet表名称
+	 *
+	 * @return
+	 */
+	public List<String> getSheetNames() {
+		return Collections.unmodifiableList(sheetNames);
+	}
+
+	/**
+	 * 按序号打开sheet表，序号不存在返回null
+	 *
+	 * @param index
+	 * @return
+	 * @throws Exception
+	 */
+	public StreamSheet getSheetAt(int index) throws Exception {
+		if (index < 0 || index >= sheetNames.size()) {
+			return null;
+		}
+		return getSheet(sheetNames.get(index));
+	}
+
+	/**
+	 * 按名称打开sheet表，名称不存在返回null。每次调用都会重新打开一个独立的sheet表读取流。
+	 *
+	 * @param sheetName
+	 * @return
+	 * @throws Exception
+	 */
+	public StreamSheet getSheet(String sheetName) throws Exception {
+		if (sheetName == null) {
+			return null;
+		}
+		XSSFReader.SheetIterator iterator = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+		while (iterator.hasNext()) {
+			InputStream inputStream = iterator.next();
+			if (sheetName.equals(iterator.getSheetName())) {
+				return StreamSheet.build(sheetName, inputStream, sharedStrings, stylesTable);
+			}
+			inputStream.close();
+		}
+		return null;
+	}
+
+	/**
+	 * 读取工作簿中的sheet表名称
+	 *
+	 * @return
+	 * @throws Exception
+	 */
+	private List<String> readSheetNames() throws Exception {
+		List<String> result = new ArrayList<String>();
+		XSSFReader.SheetIterator iterator = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+		while (iterator.hasNext()) {
+			iterator.next().close();
+			result.add(iterator.getSheetName());
+		}
+		return result;
+	}
+
+	/**
+	 * 释放文件资源，只读打开的文件包不需要保存
+	 */
+	@Override
+	public void close() {
+		if (opcPackage != null) {
+			opcPackage.revert();
+			opcPackage = null;
+		}
+	}
+}
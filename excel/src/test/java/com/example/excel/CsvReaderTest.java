@@ -0,0 +1,142 @@
+package com.example.excel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.comm.User;
+import com.example.excel.util.DateTimeUtil;
+import com.example.excel.util.Excel;
+import com.example.excel.util.WorkbookUtil;
+
+class CsvReaderTest {
+
+	@Test
+	void testCsv() throws Exception {
+		List<User> users = new ArrayList<User>();
+		for (int i = 0; i < 300; i++) {
+			User user = new User();
+			user.setAge(20 + i);
+			user.setName("小" + i);
+			user.setIntro(i % 2 == 0 ? "积极能干" : "说\"你好\",\r\n再见");
+			user.setGraduateTime(new Date(1500000000000L + i * 86400000L));
+			users.add(user);
+		}
+		File csv = File.createTempFile("users", WorkbookUtil.CSV);
+		File tsv = File.createTempFile("users", WorkbookUtil.TSV);
+		try {
+			CsvWriter.build(csv).doWrite(users);
+			CsvWriter.build(tsv).registerConverter("age", (cell, user) -> cell.setCellValue("年龄" + ((User) user).getAge()))
+					.doWrite(users.stream());
+			List<User> list = CsvReader.build(csv).doRead(User.class);
+			assertEquals(300, list.size());
+			assertEquals("小299", list.get(299).getName());
+			assertEquals(319, list.get(299).getAge());
+			// 带分隔符、引号和换行的字段原样读回
+			assertEquals(users.get(1).getIntro(), list.get(1).getIntro());
+			assertEquals(DateTimeUtil.toDate(DateTimeUtil.toLocalDate(users.get(5).getGraduateTime())),
+					list.get(5).getGraduateTime());
+			// 按注解的列序号读取，读写转换器使用单元格中的文本
+			List<User> tsvList = CsvReader.build(tsv)
+					.registerConverter("age", (cell, user) -> ((User) user)
+							.setAge(Integer.parseInt(cell.getStringCellValue().substring(2))))
+					.doRead(1, User.class);
+			assertEquals(300, tsvList.size());
+			assertEquals(25, tsvList.get(5).getAge());
+			assertEquals(users.get(7).getIntro(), tsvList.get(7).getIntro());
+			// 类型不匹配时报告行号
+			Exception e = assertThrows(Exception.class, () -> CsvReader.build(tsv).doRead(User.class));
+			assertTrue(e.getMessage().contains("第2行"));
+		} finally {
+			csv.delete();
+			tsv.delete();
+		}
+	}
+
+	@Test
+	void testReadLongExactly() throws Exception {
+		File csv = File.createTempFile("accounts", WorkbookUtil.CSV);
+		try {
+			try (FileOutputStream out = new FileOutputStream(csv)) {
+				out.write(("编号,证件号,余额\r\n123456789012345678,9007199254740993,12345678901234567.89\r\n"
+						+ "-9223372036854775808,1.5E3,0.1\r\n").getBytes(StandardCharsets.UTF_8));
+			}
+			List<Account> accounts = CsvReader.build(csv).doRead(Account.class);
+			assertEquals(2, accounts.size());
+			// 超过2^53的整数不经过double，原样读回
+			assertEquals(123456789012345678L, accounts.get(0).getId());
+			assertEquals(Long.valueOf(9007199254740993L), accounts.get(0).getCardNo());
+			assertEquals(new BigDecimal("12345678901234567.89"), accounts.get(0).getBalance());
+			assertEquals(Long.MIN_VALUE, accounts.get(1).getId());
+			assertEquals(Long.valueOf(1500), accounts.get(1).getCardNo());
+			assertEquals(new BigDecimal("0.1"), accounts.get(1).getBalance());
+		} finally {
+			csv.delete();
+		}
+	}
+
+	@Test
+	void testFieldWithoutSetter() throws Exception {
+		File csv = File.createTempFile("measures", WorkbookUtil.CSV);
+		try {
+			ExcelReaderTest.Measure measure = new ExcelReaderTest.Measure();
+			measure.setCount(3);
+			// 写入只需要getter方法
+			CsvWriter.build(csv).registerColumnFieldList(Arrays.asList(CsvWriterTest.columnField(0, "count", "数量"),
+					CsvWriterTest.columnField(1, "code", "编码"))).doWrite(Arrays.asList(measure));
+			// 读取时字段没有setter方法和excel读取一样报错，不静默跳过这一列
+			Exception e = assertThrows(Exception.class, () -> CsvReader.build(csv)
+					.withColumnField(Arrays.asList("count", "code")).doRead(1, ExcelReaderTest.Measure.class));
+			assertTrue(e.getMessage().contains("没有code字段或者没有对应的setter方法"));
+			List<ExcelReaderTest.Measure> measures = CsvReader.build(csv).withColumnField(Arrays.asList("count"))
+					.doRead(1, ExcelReaderTest.Measure.class);
+			assertEquals(3, measures.get(0).getCount());
+		} finally {
+			csv.delete();
+		}
+	}
+
+	public static class Account {
+		@Excel(order = 0, name = "编号")
+		private long id;
+		@Excel(order = 1, name = "证件号")
+		private Long cardNo;
+		@Excel(order = 2, name = "余额")
+		private BigDecimal balance;
+
+		public long getId() {
+			return id;
+		}
+
+		public void setId(long id) {
+			this.id = id;
+		}
+
+		public Long getCardNo() {
+			return cardNo;
+		}
+
+		public void setCardNo(Long cardNo) {
+			this.cardNo = cardNo;
+		}
+
+		public BigDecimal getBalance() {
+			return balance;
+		}
+
+		public void setBalance(BigDecimal balance) {
+			this.balance = balance;
+		}
+	}
+}
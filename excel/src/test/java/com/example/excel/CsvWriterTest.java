@@ -0,0 +1,66 @@
+package com.example.excel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.comm.User;
+import com.example.excel.util.ColumnField;
+import com.example.excel.util.DateTimeUtil;
+
+class CsvWriterTest {
+
+	@Test
+	void testWriteCsv() throws Exception {
+		List<User> users = new ArrayList<User>();
+		for (int i = 0; i < 3; i++) {
+			User user = new User();
+			user.setId("10" + i);
+			user.setAge(20 + i);
+			user.setName(i == 1 ? "小\"1\",二" : "小" + i);
+			users.add(user);
+		}
+		List<ColumnField> columnFields = Arrays.asList(columnField(0, "id", "编号"), columnField(2, "name", "姓名"),
+				columnField(3, "age", "年龄"));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		CsvWriter.build(out).withBom(true).registerColumnFieldList(columnFields)
+				.registerConverter("age", (cell, user) -> cell.setCellValue(((User) user).getAge() + "岁")).doWrite(users);
+		String text = new String(out.toByteArray(), StandardCharsets.UTF_8);
+		assertEquals('\uFEFF', text.charAt(0));
+		String[] lines = text.substring(1).split("\r\n");
+		assertEquals(4, lines.length);
+		// 没有字段的列写空，转换器写入单元格的值作为字段的文本
+		assertEquals("编号,,姓名,年龄", lines[0]);
+		assertEquals("100,,小0,20岁", lines[1]);
+		// 带分隔符和引号的字段加引号，引号转义成两个引号
+		assertEquals("101,,\"小\"\"1\"\",二\",21岁", lines[2]);
+	}
+
+	@Test
+	void testWriteGetterType() throws Exception {
+		ExcelWriterTest.Ticket ticket = new ExcelWriterTest.Ticket();
+		ticket.setIssued(DateTimeUtil.toDate(LocalDate.of(2021, 3, 5)));
+		ticket.setSeat(12);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		// getter的返回类型和字段类型不同时按getter的返回类型写入
+		CsvWriter.build(out).doWrite(Arrays.asList(ticket));
+		String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\r\n");
+		assertEquals("日期,座位", lines[0]);
+		assertEquals("2021年03月05日,12排", lines[1]);
+	}
+
+	static ColumnField columnField(int colIndex, String fieldName, String colName) {
+		ColumnField columnField = ColumnField.build();
+		columnField.setColIndex(colIndex);
+		columnField.setFieldName(fieldName);
+		columnField.setColNames(new String[] { colName });
+		return columnField;
+	}
+}
@@ -1,15 +1,54 @@
 package com.example.excel;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.Test;
 
 import com.example.comm.User;
+import com.example.excel.util.CellUtil;
+import com.example.excel.util.ColumnarSheet;
+import com.example.excel.util.Converter;
+import com.example.excel.util.Converters;
+import com.example.excel.util.DateFormatCache;
+import com.example.excel.util.DateTimeUtil;
+import com.example.excel.util.ExcelClassMetadata;
+import com.example.excel.util.FileUtil;
+import com.example.excel.util.ImportPipeline;
+import com.example.excel.util.ImportResult;
+import com.example.excel.util.RowBinder;
+import com.example.excel.util.WorkbookUtil;
 
 class ExcelReaderTest {
 
@@ -59,4 +98,468 @@ class ExcelReaderTest {
 		}
 
 	}
+
+	@Test
+	void testStreaming() throws Exception {
+		File file = writeUsers(20);
+		try {
+			List<User> domList = ExcelReader.build(file).doRead(User.class);
+			List<User> streamList = ExcelReader.buildStreaming(file).doRead(User.class);
+			assertEquals(20, streamList.size());
+			assertEquals(domList.toString(), streamList.toString());
+			// 指定开始行读取
+			List<User> startRowList = ExcelReader.buildStreaming(file).doRead(12, User.class);
+			assertEquals(10, startRowList.size());
+			assertEquals("10010", startRowList.get(0).getId());
+			logger.info("streaming====>" + streamList.toString());
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	void testRowHandler() throws Exception {
+		File file = writeUsers(15);
+		try {
+			List<Integer> rowIndexes = new ArrayList<Integer>();
+			int count = ExcelReader.build(file).doRead(User.class, (rowIndex, user) -> rowIndexes.add(rowIndex));
+			assertEquals(15, count);
+			assertEquals(2, rowIndexes.get(0).intValue());
+			// 流式读取，提前结束时关闭流
+			try (Stream<User> stream = ExcelReader.buildStreaming(file).doReadStream(User.class)) {
+				assertEquals("1003", stream.skip(3).findFirst().get().getId());
+			}
+			Iterator<User> iterator = ExcelReader.buildStreaming(file).doReadIterator(User.class);
+			int size = 0;
+			while (iterator.hasNext()) {
+				assertNotNull(iterator.next().getName());
+				size++;
+			}
+			assertEquals(15, size);
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	void testReadAll() throws Exception {
+		File source = writeUsers(12);
+		File file = File.createTempFile("read_all", WorkbookUtil.XLSX);
+		try {
+			List<User> users = ExcelReader.build(source).doRead(User.class);
+			ExcelWriter.build().withAutoClose(false).doWrite("a", users).doWrite("b", users.subList(0, 5))
+					.doWrite("c", users.subList(0, 8)).writeOut(file.getPath());
+			Map<String, Class<?>> sheetClassMap = new LinkedHashMap<String, Class<?>>();
+			sheetClassMap.put("c", User.class);
+			sheetClassMap.put("a", User.class);
+			sheetClassMap.put("b", User.class);
+			Map<String, List<?>> result = ExcelReader.build(file).doReadAll(sheetClassMap);
+			assertEquals(Arrays.asList("c", "a", "b"), new ArrayList<String>(result.keySet()));
+			assertEquals(8, result.get("c").size());
+			assertEquals(12, result.get("a").size());
+			assertEquals(5, result.get("b").size());
+			assertEquals(users.toString(), result.get("a").toString());
+			// 流式读取
+			Map<String, List<?>> streamResult = ExcelReader.buildStreaming(file).doReadAll(sheetClassMap);
+			assertEquals(result.toString(), streamResult.toString());
+		} finally {
+			source.delete();
+			file.delete();
+		}
+	}
+
+	@Test
+	void testSharedConverters() throws Exception {
+		File file = writeUsers(10);
+		try {
+			Converters converters = Converters.build();
+			converters.registerConverter("age", (Cell cell, User user) -> user.setAge(1000));
+			// 冻结后的转换器在多个读取实例和线程间共享，读完不会被清空
+			Converters shared = converters.freeze();
+			List<User> users = Stream.of(0, 1, 2, 3).parallel().flatMap(i -> {
+				try {
+					return ExcelReader.buildStreaming(file).withConverters(shared).doRead(User.class).stream();
+				} catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+			}).collect(Collectors.toList());
+			assertEquals(40, users.size());
+			assertTrue(users.stream().allMatch(user -> user.getAge() == 1000));
+			assertEquals(1, shared.getConverters().size());
+			// 再注册转换器时复制一份，不影响共享的转换器
+			ExcelReader.build(file).withConverters(shared).registerConverter("name", (Cell cell, User user) -> {
+			}).doRead(User.class);
+			assertEquals(1, shared.getConverters().size());
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	void testNumericDecode() {
+		double[] values = { 0, -0.0, 1, -1, 2.9999999999995, 2.9999999999994, -2.9999999999995, 0.30000000000000004,
+				123456789.123456789, -987654321.5, 1.0E15 + 0.5, 4.5E18, 0.9999999999996 };
+		Random random = new Random(20201018L);
+		for (int i = 0; i < 10000; i++) {
+			double value = i % 2 == 0 ? random.nextInt() + random.nextDouble() : (random.nextDouble() - 0.5) * 1.0E12;
+			assertEquals(new BigDecimal(value).setScale(12, RoundingMode.HALF_UP).longValue(),
+					CellUtil.numericToLong(value));
+		}
+		for (double value : values) {
+			BigDecimal bigDecimal = new BigDecimal(value).setScale(12, RoundingMode.HALF_UP);
+			assertEquals(bigDecimal.longValue(), CellUtil.numericToLong(value));
+			assertEquals(bigDecimal.intValue(), (int) CellUtil.numericToLong(value));
+		}
+		assertEquals(3.0, CellUtil.numericToDouble(2.9999999999999996));
+		assertEquals(0.25, CellUtil.numericToDouble(0.25));
+	}
+
+	@Test
+	void testDateFormatCache() throws Exception {
+		try (Workbook workbook = new XSSFWorkbook()) {
+			CellStyle dateStyle = workbook.createCellStyle();
+			dateStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-MM-dd"));
+			CellStyle numberStyle = workbook.createCellStyle();
+			numberStyle.setDataFormat(workbook.createDataFormat().getFormat("0.00"));
+			Row row = workbook.createSheet().createRow(0);
+			Cell dateCell = row.createCell(0);
+			dateCell.setCellValue(new Date());
+			dateCell.setCellStyle(dateStyle);
+			Cell numberCell = row.createCell(1);
+			numberCell.setCellValue(12.5);
+			numberCell.setCellStyle(numberStyle);
+			DateFormatCache dateFormats = DateFormatCache.of(workbook);
+			assertTrue(dateFormats == DateFormatCache.of(workbook));
+			assertTrue(dateFormats.isDate(dateCell));
+			assertTrue(!dateFormats.isDate(numberCell));
+			assertEquals("yyyy-MM-dd", dateFormats.getFormat(dateCell));
+			assertEquals(dateCell.getDateCellValue(), CellUtil.getCellValue(dateCell));
+		}
+	}
+
+	@Test
+	void testRowBinder() throws Exception {
+		Converter<Cell, Object> defaultConverter = (cell, obj) -> {
+		};
+		// 字段没有setter方法时创建解析计划报错
+		Map<Integer, String> codeMap = new LinkedHashMap<Integer, String>();
+		codeMap.put(0, "code");
+		Exception e = assertThrows(Exception.class,
+				() -> RowBinder.build(Measure.class, codeMap, null, defaultConverter));
+		assertTrue(e.getMessage().contains("没有code字段或者没有对应的setter方法"));
+		Map<Integer, String> columnMap = new LinkedHashMap<Integer, String>();
+		String[] fields = { "count", "total", "ratio", "boxedCount", "amount", "day" };
+		for (int i = 0; i < fields.length; i++) {
+			columnMap.put(i, fields[i]);
+		}
+		RowBinder<Measure> rowBinder = RowBinder.build(Measure.class, columnMap, null, defaultConverter);
+		RowBinder<Measure> copy = rowBinder.copy();
+		double[] values = { 2.9999999999995, 2.9999999999994, -2.9999999999995, 0.30000000000000004,
+				123456789.123456789, 4.5E18 };
+		Date day = new Date(1500000000000L);
+		try (Workbook dateFirst = new XSSFWorkbook(); Workbook numberFirst = new XSSFWorkbook()) {
+			// 两个工作簿中同一个格式序号分别是日期和数值格式
+			CellStyle dateStyle = dateFirst.createCellStyle();
+			dateStyle.setDataFormat(dateFirst.createDataFormat().getFormat("yyyy-MM-dd"));
+			CellStyle numberStyle = numberFirst.createCellStyle();
+			numberStyle.setDataFormat(numberFirst.createDataFormat().getFormat("0.000"));
+			CellStyle otherDateStyle = numberFirst.createCellStyle();
+			otherDateStyle.setDataFormat(numberFirst.createDataFormat().getFormat("yyyy/MM/dd"));
+			assertEquals(dateStyle.getDataFormat(), numberStyle.getDataFormat());
+			Sheet dateSheet = dateFirst.createSheet();
+			Sheet numberSheet = numberFirst.createSheet();
+			for (int r = 0; r < values.length; r++) {
+				Row dateRow = dateSheet.createRow(r);
+				Row numberRow = numberSheet.createRow(r);
+				for (int c = 0; c < fields.length - 1; c++) {
+					dateRow.createCell(c).setCellValue(values[r]);
+					Cell numberCell = numberRow.createCell(c);
+					numberCell.setCellValue(values[r]);
+					numberCell.setCellStyle(numberStyle);
+				}
+				Cell dateCell = dateRow.createCell(fields.length - 1);
+				dateCell.setCellValue(day);
+				dateCell.setCellStyle(dateStyle);
+				dateCell = numberRow.createCell(fields.length - 1);
+				dateCell.setCellValue(day);
+				dateCell.setCellStyle(otherDateStyle);
+			}
+			for (int r = 0; r < values.length; r++) {
+				// 复制的计划共用列和字段，各自按所在工作簿判断日期格式
+				for (Measure measure : Arrays.asList(rowBinder.bind(dateSheet.getRow(r)),
+						copy.bind(numberSheet.getRow(r)), rowBinder.bind(numberSheet.getRow(r)),
+						copy.bind(dateSheet.getRow(r)))) {
+					BigDecimal bigDecimal = new BigDecimal(values[r]).setScale(12, RoundingMode.HALF_UP);
+					// 基本类型字段直接用数值赋值，和读成BigDecimal再转换的结果一致
+					assertEquals(bigDecimal.intValue(), measure.getCount());
+					assertEquals(bigDecimal.longValue(), measure.getTotal());
+					assertEquals(CellUtil.numericToDouble(values[r]), measure.getRatio());
+					assertEquals(Integer.valueOf(bigDecimal.intValue()), measure.getBoxedCount());
+					assertEquals(bigDecimal, measure.getAmount());
+					assertEquals(day, measure.getDay());
+				}
+			}
+		}
+	}
+
+	@Test
+	void testHeadScanRows() throws Exception {
+		File file = writeUsers(10);
+		File malformed = File.createTempFile("malformed", WorkbookUtil.XLSX);
+		try {
+			// 表头在第2行，给定提示直接命中
+			List<User> hinted = ExcelReader.build(file).withHeadRowHint(1).doRead(User.class);
+			assertEquals(10, hinted.size());
+			assertEquals("小9", hinted.get(9).getName());
+			// 错误的提示按行查找
+			assertEquals(10, ExcelReader.build(file).withHeadRowHint(5).doRead(User.class).size());
+			try (Workbook workbook = new XSSFWorkbook()) {
+				Sheet sheet = workbook.createSheet();
+				for (int i = 0; i < 5000; i++) {
+					sheet.createRow(i).createCell(0).setCellValue(i);
+				}
+				try (FileOutputStream out = new FileOutputStream(malformed)) {
+					workbook.write(out);
+				}
+			}
+			// 没有表头时在限定行数内报错，不扫描整个sheet表，报错前释放资源
+			try (InputStream in = new FileInputStream(malformed); InputStream streamIn = new FileInputStream(malformed)) {
+				for (ExcelReader reader : Arrays.asList(ExcelReader.build(in).withHeadScanRows(20),
+						ExcelReader.buildStreaming(streamIn).withHeadScanRows(20))) {
+					File tempFile = reader.getTempFile();
+					Exception e = assertThrows(Exception.class, () -> reader.doRead(User.class));
+					assertTrue(e.getMessage().contains("前20行没有找到表头"));
+					assertFalse(tempFile.exists());
+				}
+			}
+			Exception e = assertThrows(Exception.class,
+					() -> ExcelReader.build(malformed).withHeadScanRows(20).doReadIterator(User.class));
+			assertTrue(e.getMessage().contains("前20行没有找到表头"));
+		} finally {
+			file.delete();
+			malformed.delete();
+		}
+	}
+
+	@Test
+	void testParallelBinding() throws Exception {
+		File file = writeUsers(300);
+		try {
+			List<User> serial = ExcelReader.build(file).doRead(User.class);
+			List<User> parallel = ExcelReader.build(file).withParallelBinding(32).doRead(User.class);
+			assertEquals(serial.size(), parallel.size());
+			for (int i = 0; i < serial.size(); i++) {
+				assertEquals(serial.get(i).getName(), parallel.get(i).getName());
+				assertEquals(serial.get(i).getAge(), parallel.get(i).getAge());
+				assertEquals(serial.get(i).getGraduateTime(), parallel.get(i).getGraduateTime());
+			}
+			// 并行解析出错时报告正确的行号
+			try (XSSFWorkbook workbook = new XSSFWorkbook(new FileInputStream(file))) {
+				int ageIndex = ExcelClassMetadata.of(User.class).getColumnIndex("age");
+				workbook.getSheetAt(0).getRow(200).getCell(ageIndex).setCellValue("abc");
+				try (FileOutputStream out = new FileOutputStream(file)) {
+					workbook.write(out);
+				}
+			}
+			Exception e = assertThrows(Exception.class,
+					() -> ExcelReader.build(file).withParallelBinding(32).doRead(User.class));
+			assertTrue(e.getCause().getMessage().startsWith("第201行"));
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	void testImportPipeline() throws Exception {
+		File file = writeUsers(200);
+		try {
+			try (XSSFWorkbook workbook = new XSSFWorkbook(new FileInputStream(file))) {
+				int ageIndex = ExcelClassMetadata.of(User.class).getColumnIndex("age");
+				workbook.getSheetAt(0).getRow(50).getCell(ageIndex).setCellValue("abc");
+				try (FileOutputStream out = new FileOutputStream(file)) {
+					workbook.write(out);
+				}
+			}
+			ImportPipeline pipeline = ImportPipeline.build().withParseThreads(2).withCheckThreads(2).withSinkThreads(2)
+					.withQueueSize(8);
+			for (ExcelReader reader : Arrays.asList(ExcelReader.build(file), ExcelReader.buildStreaming(file))) {
+				Map<Integer, User> imported = new ConcurrentHashMap<Integer, User>();
+				ImportResult result = reader.doImport(User.class, (rowIndex, user) -> user.getAge() % 10 != 0,
+						(rowIndex, user) -> imported.put(rowIndex, user), pipeline);
+				// 解析失败和校验不通过的行不影响其他行
+				assertEquals(200, result.getReadRows());
+				assertEquals(179, result.getImportedRows());
+				assertEquals(179, imported.size());
+				assertEquals(21, result.getErrors().size());
+				assertTrue(result.getErrors().containsKey(50));
+				assertEquals("数据校验不通过", result.getErrors().get(2));
+				assertEquals("小9", imported.get(11).getName());
+			}
+			// 处理器出现异常时中止导入
+			Exception e = assertThrows(Exception.class, () -> ExcelReader.build(file).doImport(User.class, null,
+					(rowIndex, user) -> {
+						throw new Exception("保存失败");
+					}, pipeline));
+			assertTrue(e.getMessage().contains("保存失败"));
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	void testReadColumns() throws Exception {
+		File file = writeUsers(300);
+		try {
+			for (ExcelReader reader : Arrays.asList(ExcelReader.build(file), ExcelReader.buildStreaming(file))) {
+				ColumnarSheet columns = reader.doReadColumns(2);
+				assertEquals(300, columns.getRowCount());
+				int age = columns.getColumnIndex("年龄");
+				int school = columns.getColumnIndex("毕业院校");
+				int name = columns.getColumnIndex("姓名");
+				assertEquals(ColumnarSheet.NUMBER, columns.getColumnType(age));
+				assertEquals(ColumnarSheet.STRING, columns.getColumnType(school));
+				assertEquals(299 + 20, columns.getLong(age, 299));
+				assertEquals("小7", columns.getString(name, 7));
+				// 相同的字符串只保存一份
+				assertEquals(1, columns.getDictionary(school).size());
+				assertEquals(300, columns.getDictionary(name).size());
+				assertEquals(new BigDecimal(25).setScale(12), columns.getValue(age, 5));
+				assertThrows(IllegalStateException.class, () -> columns.getDate(age, 0));
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	void testBuildFromInputStream() throws Exception {
+		File file = writeUsers(50);
+		AtomicInteger closed = new AtomicInteger();
+		try (InputStream in = closeCounting(file, closed); InputStream streamIn = closeCounting(file, closed)) {
+			ExcelReader reader = ExcelReader.build(in);
+			File tempFile = reader.getTempFile();
+			assertTrue(tempFile.getName().startsWith(FileUtil.SPOOL_PREFIX));
+			List<User> list = reader.doRead(User.class);
+			assertEquals(50, list.size());
+			assertEquals("小49", list.get(49).getName());
+			assertFalse(tempFile.exists());
+			ExcelReader streamReader = ExcelReader.buildStreaming(streamIn);
+			// 读取过程中临时文件存在，释放资源后删除
+			File streamTempFile = streamReader.getTempFile();
+			assertTrue(streamTempFile.exists());
+			assertEquals(50, streamReader.doRead(User.class).size());
+			assertFalse(streamTempFile.exists());
+			// 两种方式都在释放资源时关闭输入流
+			assertEquals(2, closed.get());
+		} finally {
+			file.delete();
+		}
+	}
+
+	/**
+	 * 记录关闭次数的文件输入流
+	 * 
+	 * @param file
+	 * @param closed
+	 * @return
+	 * @throws Exception
+	 */
+	static InputStream closeCounting(File file, AtomicInteger closed) throws Exception {
+		return new FilterInputStream(new FileInputStream(file)) {
+			@Override
+			public void close() throws IOException {
+				closed.incrementAndGet();
+				super.close();
+			}
+		};
+	}
+
+	/**
+	 * 写入测试数据到临时文件
+	 * 
+	 * @param count
+	 * @return
+	 * @throws Exception
+	 */
+	static File writeUsers(int count) throws Exception {
+		List<User> list = new ArrayList<User>();
+		for (int i = 0; i < count; i++) {
+			User user = new User();
+			user.setAge(20 + i);
+			user.setEmail("user" + i + "@163.com");
+			user.setGraduateSchool("华中科技大学");
+			user.setGraduateTime(new Date(1500000000000L + i * 86400000L));
+			user.setIntro("积极能干");
+			user.setId("100" + i);
+			user.setName("小" + i);
+			user.setLocation("科莱亚");
+			user.setProfessional("计算机信息");
+			list.add(user);
+		}
+		File file = File.createTempFile("users", WorkbookUtil.XLSX);
+		ExcelWriter.build().doWrite(list).writeOut(file.getPath());
+		return file;
+	}
+
+	public static class Measure {
+		private int count;
+		private long total;
+		private double ratio;
+		private Integer boxedCount;
+		private BigDecimal amount;
+		private Date day;
+		private String code;
+
+		public int getCount() {
+			return count;
+		}
+
+		public void setCount(int count) {
+			this.count = count;
+		}
+
+		public long getTotal() {
+			return total;
+		}
+
+		public void setTotal(long total) {
+			this.total = total;
+		}
+
+		public double getRatio() {
+			return ratio;
+		}
+
+		public void setRatio(double ratio) {
+			this.ratio = ratio;
+		}
+
+		public Integer getBoxedCount() {
+			return boxedCount;
+		}
+
+		public void setBoxedCount(Integer boxedCount) {
+			this.boxedCount = boxedCount;
+		}
+
+		public BigDecimal getAmount() {
+			return amount;
+		}
+
+		public void setAmount(BigDecimal amount) {
+			this.amount = amount;
+		}
+
+		public Date getDay() {
+			return day;
+		}
+
+		public void setDay(Date day) {
+			this.day = day;
+		}
+
+		public String getCode() {
+			return code;
+		}
+	}
 }
@@ -1,19 +1,54 @@
 package com.example.excel;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.math.BigDecimal;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
 
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import com.example.comm.User;
+import com.example.excel.util.BeanBinder;
+import com.example.excel.util.CellUtil;
+import com.example.excel.util.ColumnarSheet;
+import com.example.excel.util.Converter;
+import com.example.excel.util.DateTimeUtil;
+import com.example.excel.util.Excel;
+import com.example.excel.util.ExcelClassMetadata;
+import com.example.excel.util.InternedStringsWorkbook;
+import com.example.excel.util.RowUtil;
+import com.example.excel.util.RowWriter;
+import com.example.excel.util.SheetUtil;
+import com.example.excel.util.TemplateCache;
+import com.example.excel.util.WorkbookUtil;
 
 class ExcelWriterTest {
 	private List<User> list = new ArrayList<User>();
@@ -94,9 +129,480 @@ class ExcelWriterTest {
 			e.printStackTrace();
 		}
 	}
-}
+	@Test
+	void testWriteIterator() throws Exception {
+		File file = File.createTempFile("write_iterator", WorkbookUtil.XLSX);
+		try {
+			// 250行数据，每个sheet表最多100行（含2行表头），自动拆分成3个sheet表
+			Iterator<User> iterator = IntStream.range(0, 250).mapToObj(i -> list.get(i % list.size())).iterator();
+			ExcelWriter.build().withRowAccessWindowSize(10).withMaxRowsPerSheet(100).doWrite("users", iterator)
+					.writeOut(file.getPath());
+			ExcelReader excelReader = ExcelReader.build(file).withAutoClose(false);
+			Workbook workbook = excelReader.getWorkbook();
+			assertEquals(3, workbook.getNumberOfSheets());
+			assertEquals("users_3", workbook.getSheetName(2));
+			assertEquals(99, workbook.getSheetAt(0).getLastRowNum());
+			// 注解格式化的列按列设置样式
+			assertEquals("yyyy-MM-dd", workbook.getSheetAt(2).getRow(2).getCell(6).getCellStyle().getDataFormatString());
+			assertEquals(250, excelReader.doRead("users", User.class).size()
+					+ excelReader.doRead("users_2", User.class).size()
+					+ excelReader.doRead("users_3", User.class).size());
+			excelReader.complete();
+		} finally {
+			file.delete();
+		}
+	}
 
+	@Test
+	void testWriteIteratorExistingSheet() throws Exception {
+		File file = File.createTempFile("write_existing", WorkbookUtil.XLSX);
+		File out = File.createTempFile("write_template", WorkbookUtil.XLSX);
+		try {
+			ExcelWriter excelWriter = ExcelWriter.build().withMaxRowsPerSheet(100);
+			excelWriter.getWorkbook().createSheet("users_2");
+			AtomicBoolean closed = new AtomicBoolean();
+			excelWriter.doWrite("users",
+					IntStream.range(0, 150).mapToObj(i -> list.get(i % list.size())).onClose(() -> closed.set(true)));
+			// 写完后关闭流，自动创建的sheet表跳过已经存在的名字
+			assertTrue(closed.get());
+			assertEquals("users_3", excelWriter.getWorkbook().getSheetName(2));
+			assertEquals(0, excelWriter.getWorkbook().getSheet("users_2").getPhysicalNumberOfRows());
+			// 已经写过的sheet表不能重复写入
+			Exception e = assertThrows(Exception.class, () -> excelWriter.doWrite("users", list.iterator()));
+			assertTrue(e.getMessage().contains("users表已经存在"));
+			e = assertThrows(Exception.class, () -> excelWriter.doWriteColumns("users_3", new String[] { "ID" },
+					new long[] { 1 }));
+			assertTrue(e.getMessage().contains("users_3表已经存在"));
+			excelWriter.writeOut(file.getPath());
+			// 使用模板时数据写在模板表头之后，不重写表头
+			ExcelWriter.build(file.getPath()).doWrite("users", list.iterator()).writeOut(out.getPath());
+			try (XSSFWorkbook workbook = new XSSFWorkbook(out)) {
+				Sheet sheet = workbook.getSheet("users");
+				assertEquals("基本信息", sheet.getRow(0).getCell(1).getStringCellValue());
+				assertEquals(list.get(0).getName(), sheet.getRow(2).getCell(1).getStringCellValue());
+				assertEquals(99, sheet.getLastRowNum());
+			}
+		} finally {
+			file.delete();
+			out.delete();
+		}
+	}
+
+	@Test
+	void testProgressListener() throws Exception {
+		File file = File.createTempFile("write_progress", WorkbookUtil.XLSX);
+		try {
+			List<Long> rows = new ArrayList<Long>();
+			long[] bytes = new long[1];
+			Iterator<User> iterator = IntStream.range(0, 250).mapToObj(i -> list.get(i % list.size())).iterator();
+			ExcelWriter.build().withProgressListener(progress -> {
+				rows.add(progress.getRowsWritten());
+				if (progress.isFinished()) {
+					bytes[0] = progress.getBytesFlushed();
+				}
+			}, 100).doWrite("users", iterator).writeOut(file.getPath());
+			// 每100行回调一次，写完sheet表和写出文件各回调一次
+			assertEquals(Arrays.asList(100L, 200L, 250L, 250L), rows);
+			assertEquals(file.length(), bytes[0]);
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	void testClassMetadata() throws Exception {
+		ExcelClassMetadata metadata = ExcelClassMetadata.of(User.class);
+		// 每个类只解析一次
+		assertTrue(metadata == ExcelClassMetadata.of(User.class));
+		assertEquals(SheetUtil.headRowCount(User.class), metadata.getHeadRowCount());
+		assertEquals(metadata.getColumnFieldMap().size(), SheetUtil.headColCount(User.class));
+		for (Map.Entry<Integer, String> entry : metadata.getColumnFieldMap().entrySet()) {
+			assertEquals(entry.getKey().intValue(), CellUtil.columnIndex(entry.getValue(), User.class));
+		}
+	}
+
+	@Test
+	void testColumnStyles() throws Exception {
+		File file = File.createTempFile("write_column_styles", WorkbookUtil.XLSX);
+		try {
+			ExcelWriter.build().doWrite(list).writeOut(file.getPath());
+			try (Workbook workbook = new XSSFWorkbook(file)) {
+				Row row = workbook.getSheetAt(0).getRow(2);
+				// 注解格式化的列设置样式，没有格式化的列不设置
+				assertEquals("yyyy-MM-dd", row.getCell(6).getCellStyle().getDataFormatString());
+				assertEquals("yyyy-MM-dd", row.getCell(12).getCellStyle().getDataFormatString());
+				assertEquals("General", row.getCell(1).getCellStyle().getDataFormatString());
+				assertEquals(0, row.getCell(1).getCellStyle().getIndex());
+			}
+			try (Workbook workbook = new XSSFWorkbook()) {
+				CellStyle dateStyle = workbook.createCellStyle();
+				Map<String, CellStyle> fmtMap = new HashMap<String, CellStyle>();
+				fmtMap.put("yyyy-MM-dd", dateStyle);
+				// 有格式但不在列映射中的字段跳过，数组只到最大的列索引
+				Map<Integer, String> columnMap = new HashMap<Integer, String>();
+				columnMap.put(0, "id");
+				columnMap.put(3, "time");
+				columnMap.put(5, "name");
+				CellStyle[] columnStyles = RowUtil.columnStyles(fmtMap, columnMap, User.class);
+				assertEquals(6, columnStyles.length);
+				assertTrue(columnStyles[3] == dateStyle);
+				for (int i : new int[] { 0, 1, 2, 4, 5 }) {
+					assertNull(columnStyles[i]);
+				}
+				// 没有格式样式时所有列都没有样式
+				assertTrue(Arrays.stream(RowUtil.columnStyles(null, columnMap, User.class))
+						.allMatch(style -> style == null));
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	void testTypedCellValue() throws Exception {
+		try (Workbook workbook = new XSSFWorkbook()) {
+			Row row = workbook.createSheet().createRow(0);
+			LocalDate localDate = LocalDate.of(2020, 1, 2);
+			LocalDateTime localDateTime = LocalDateTime.of(2020, 1, 2, 12, 30);
+			Object[] values = { 123456789012L, 1.1f, 42, localDate, localDateTime, 'x', new BigDecimal("2.5") };
+			for (int i = 0; i < values.length; i++) {
+				CellUtil.setCellValue(row.createCell(i), values[i]);
+			}
+			// Long和java.time写成数值和日期单元格，不再写成字符串
+			assertEquals(CellType.NUMERIC, row.getCell(0).getCellType());
+			assertEquals(123456789012.0, row.getCell(0).getNumericCellValue());
+			assertEquals(1.1, row.getCell(1).getNumericCellValue());
+			assertEquals(42.0, row.getCell(2).getNumericCellValue());
+			assertEquals(DateTimeUtil.toDate(localDate), row.getCell(3).getDateCellValue());
+			assertEquals(DateTimeUtil.toDate(localDateTime), row.getCell(4).getDateCellValue());
+			assertEquals("x", row.getCell(5).getStringCellValue());
+			assertEquals(2.5, row.getCell(6).getNumericCellValue());
+			assertEquals(CellUtil.VALUE_NUMBER, CellUtil.valueKind(long.class));
+			assertEquals(CellUtil.VALUE_LOCAL_DATE_TIME, CellUtil.valueKind(LocalDateTime.class));
+		}
+	}
 
+	@Test
+	void testSharedStrings() throws Exception {
+		File file = File.createTempFile("write_shared", WorkbookUtil.XLSX);
+		try {
+			Iterator<User> iterator = IntStream.range(0, 500).mapToObj(i -> list.get(i % list.size())).iterator();
+			ExcelWriter excelWriter = ExcelWriter.build().withSharedStrings(5).withAutoClose(false);
+			excelWriter.doWrite("users", iterator);
+			// 只共享前5个不重复的字符串，其他字符串按行内字符串写入
+			assertEquals(5, ((InternedStringsWorkbook) excelWriter.getWorkbook()).getSharedStringCount());
+			excelWriter.writeOut(new FileOutputStream(file)).complete();
+			try (XSSFWorkbook workbook = new XSSFWorkbook(file)) {
+				assertEquals(5, workbook.getSharedStringSource().getUniqueCount());
+			}
+			List<User> users = ExcelReader.build(file).doRead("users", User.class);
+			assertEquals(500, users.size());
+			assertEquals(list.get(3).getName(), users.get(3).getName());
+			assertEquals(list.get(3).getGraduateSchool(), users.get(3).getGraduateSchool());
+		} finally {
+			file.delete();
+		}
+	}
+	@Test
+	void testTemplateCache() throws Exception {
+		File dir = java.nio.file.Files.createTempDirectory("template").toFile();
+		File template = new File(dir, "template.xlsx");
+		File out = File.createTempFile("write_template", WorkbookUtil.XLSX);
+		try {
+			ExcelWriter.build().doWrite("users", list.subList(0, 1).iterator()).writeOut(template.getPath());
+			long length = template.length();
+			for (int i = 0; i < 2; i++) {
+				ExcelWriter.build(template.getPath()).registerColIndexFieldMap(Arrays.asList("id", "name", "age"))
+						.doWriteTemplate("users", 2, list).writeOut(out.getPath());
+			}
+			long hits = TemplateCache.getHitCount();
+			long misses = TemplateCache.getMissCount();
+			for (int i = 0; i < 3; i++) {
+				ExcelWriter.build(template.getPath()).doWriteTemplate("users", list).writeOut(out.getPath());
+			}
+			// 同一模板只分析一次表头
+			assertEquals(misses + 1, TemplateCache.getMissCount());
+			assertEquals(hits + 2, TemplateCache.getHitCount());
+			// 模板目录下不再生成临时文件，模板本身不被修改
+			assertEquals(1, dir.listFiles().length);
+			assertEquals(length, template.length());
+			try (XSSFWorkbook workbook = new XSSFWorkbook(out)) {
+				assertEquals(list.size() + 1, workbook.getSheet("users").getLastRowNum());
+				assertEquals(list.get(9).getName(), workbook.getSheet("users").getRow(11).getCell(1).getStringCellValue());
+			}
+		} finally {
+			template.delete();
+			dir.delete();
+			out.delete();
+		}
+	}
+	@Test
+	void testMergedRegionIndex() throws Exception {
+		try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+			Sheet sheet = workbook.createSheet();
+			List<CellRangeAddress> regions = Arrays.asList(new CellRangeAddress(0, 1, 0, 0),
+					new CellRangeAddress(0, 0, 1, 3), new CellRangeAddress(1, 3, 2, 3), new CellRangeAddress(2, 5, 0, 1));
+			for (CellRangeAddress region : regions) {
+				sheet.addMergedRegion(region);
+			}
+			SheetUtil.getRow(sheet, 0).createCell(1).setCellValue("基本信息");
+			// 和逐个遍历合并区域的结果一致
+			for (int r = 0; r < 7; r++) {
+				for (int c = 0; c < 5; c++) {
+					final int row = r;
+					final int col = c;
+					boolean merged = regions.stream().anyMatch(region -> region.isInRange(row, col));
+					assertEquals(merged, SheetUtil.isMergeRegion(sheet, r, c));
+				}
+			}
+			assertEquals("基本信息", SheetUtil.getHeadMergeRegionValue(sheet, 0, 3));
+			// 新增合并区域后重新创建索引
+			assertEquals(false, SheetUtil.isMergeRegion(sheet, 6, 4));
+			sheet.addMergedRegion(new CellRangeAddress(6, 6, 3, 4));
+			assertTrue(SheetUtil.isMergeRegion(sheet, 6, 4));
+		}
+	}
 
+	@Test
+	void testWriteColumns() throws Exception {
+		File file = File.createTempFile("write_columns", WorkbookUtil.XLSX);
+		try {
+			int size = 250;
+			long[] ids = new long[size];
+			double[] amounts = new double[size];
+			String[] names = new String[size];
+			LocalDate[] days = new LocalDate[size];
+			for (int i = 0; i < size; i++) {
+				ids[i] = 10000000000L + i;
+				amounts[i] = i * 1.5;
+				names[i] = i % 10 == 0 ? null : "指标" + i;
+				days[i] = LocalDate.of(2020, 1, 1).plusDays(i);
+			}
+			// 每个sheet表最多100行（含1行表头），自动拆分成3个sheet表
+			ExcelWriter.build().withRowAccessWindowSize(10).withMaxRowsPerSheet(100)
+					.doWriteColumns("metrics", new String[] { "ID", "金额", "名称", "日期" }, ids, amounts, names, days)
+					.writeOut(file.getPath());
+			ExcelReader excelReader = ExcelReader.build(file).withAutoClose(false);
+			assertEquals("metrics_3", excelReader.getWorkbook().getSheetName(2));
+			ColumnarSheet columns = excelReader.doReadColumns("metrics_3", 1);
+			assertEquals(52, columns.getRowCount());
+			assertEquals(10000000000L + 198, columns.getLong(0, 0));
+			assertEquals(198 * 1.5, columns.getDouble(1, 0));
+			assertEquals("指标199", columns.getString(2, 1));
+			assertTrue(columns.isNull(2, 2));
+			assertEquals(DateTimeUtil.toDate(LocalDate.of(2020, 1, 1).plusDays(249)), columns.getDate(3, 51));
+			excelReader.complete();
+			// 列长度不一致时报错
+			ExcelWriter writer = ExcelWriter.build();
+			Exception e = assertThrows(Exception.class,
+					() -> writer.doWriteColumns(new String[] { "a", "b" }, new long[3], new double[2]));
+			assertTrue(e.getMessage().contains("不一致"));
+			writer.complete();
+		} finally {
+			file.delete();
+		}
+	}
 
+	@Test
+	void testWriteGetterType() throws Exception {
+		File file = File.createTempFile("write_getter_type", WorkbookUtil.XLSX);
+		try {
+			Ticket ticket = new Ticket();
+			ticket.setIssued(DateTimeUtil.toDate(LocalDate.of(2021, 3, 5)));
+			ticket.setSeat(12);
+			// getter的返回类型和字段类型不同时按getter的返回类型写入
+			ExcelWriter.build().doWrite(Arrays.asList(ticket)).writeOut(file.getPath());
+			try (Workbook workbook = new XSSFWorkbook(file)) {
+				Row row = workbook.getSheetAt(0).getRow(1);
+				assertEquals("2021年03月05日", row.getCell(0).getStringCellValue());
+				assertEquals("12排", row.getCell(1).getStringCellValue());
+			}
+		} finally {
+			file.delete();
+		}
+	}
 
+	@Test
+	void testWriteLocalDateStyle() throws Exception {
+		File file = File.createTempFile("write_local_date", WorkbookUtil.XLSX);
+		try {
+			Schedule schedule = new Schedule();
+			schedule.setDay(LocalDate.of(2020, 1, 2));
+			schedule.setStart(LocalDateTime.of(2020, 1, 2, 8, 30));
+			schedule.setDue(LocalDate.of(2020, 2, 3));
+			ExcelWriter.build().doWrite(Arrays.asList(schedule, schedule)).writeOut(file.getPath());
+			try (Workbook workbook = new XSSFWorkbook(file)) {
+				Row row = workbook.getSheetAt(0).getRow(1);
+				DataFormatter formatter = new DataFormatter();
+				// 没有注解格式的java.time列使用默认日期格式，不显示成日期序号
+				assertTrue(DateUtil.isCellDateFormatted(row.getCell(0)));
+				assertEquals("yyyy-MM-dd", row.getCell(0).getCellStyle().getDataFormatString());
+				assertEquals("2020-01-02", formatter.formatCellValue(row.getCell(0)));
+				assertTrue(DateUtil.isCellDateFormatted(row.getCell(1)));
+				assertEquals("yyyy-MM-dd HH:mm:ss", row.getCell(1).getCellStyle().getDataFormatString());
+				assertEquals(DateTimeUtil.toDate(schedule.getStart()), row.getCell(1).getDateCellValue());
+				// 注解给定的格式优先
+				assertEquals("yyyy/MM/dd", row.getCell(2).getCellStyle().getDataFormatString());
+				// 同一个写入计划的列共用默认样式
+				assertEquals(row.getCell(0).getCellStyle().getIndex(),
+						workbook.getSheetAt(0).getRow(2).getCell(0).getCellStyle().getIndex());
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	void testRowWriterOrder() throws Exception {
+		File file = File.createTempFile("write_row_order", WorkbookUtil.XLSX);
+		try {
+			Reading reading = new Reading();
+			reading.setValue(36.55);
+			reading.setRaw(1234.5678);
+			reading.setNote("正常");
+			reading.setExtra(7);
+			// 注册了转换器的基本类型列由转换器写入，不走double getter
+			ExcelWriter.build()
+					.registerConverter("value", (cell, r) -> cell.setCellValue(((Reading) r).getValue() + "度"))
+					.doWrite(Arrays.asList(reading)).writeOut(file.getPath());
+			try (Workbook workbook = new XSSFWorkbook(file)) {
+				Row row = workbook.getSheetAt(0).getRow(1);
+				assertEquals(CellType.STRING, row.getCell(0).getCellType());
+				assertEquals("36.55度", row.getCell(0).getStringCellValue());
+				assertEquals(1234.5678, row.getCell(1).getNumericCellValue());
+				assertEquals("正常", row.getCell(2).getStringCellValue());
+				assertEquals(7.0, row.getCell(3).getNumericCellValue());
+			}
+			// getter类型和字段类型相同的基本数值字段才用double getter
+			assertTrue(BeanBinder.of(Reading.class).field("raw").hasDoubleGetter());
+			assertFalse(BeanBinder.of(Ticket.class).field("seat").hasDoubleGetter());
+			// 转换器、double getter、值类型都不适用时才交给默认转换器
+			List<Object> defaults = new ArrayList<Object>();
+			Converter<Cell, Object> defaultConverter = new Converter<Cell, Object>() {
+				@Override
+				public void convert(Cell cell, Object obj) {
+				}
+
+				@Override
+				public void defaultConvert(Cell cell, Object obj) {
+					defaults.add(obj);
+					cell.setCellValue("默认" + obj);
+				}
+			};
+			Map<String, Converter<Cell, ?>> converters = new HashMap<String, Converter<Cell, ?>>();
+			converters.put("value", (cell, r) -> cell.setCellValue("转换"));
+			RowWriter<Reading> rowWriter = RowWriter.build(Reading.class,
+					ExcelClassMetadata.of(Reading.class).getColumnFieldMap(), converters, defaultConverter);
+			try (Workbook workbook = new XSSFWorkbook()) {
+				Row row = workbook.createSheet().createRow(0);
+				rowWriter.write(row, reading);
+				assertEquals("转换", row.getCell(0).getStringCellValue());
+				assertEquals(1234.5678, row.getCell(1).getNumericCellValue());
+				assertEquals("正常", row.getCell(2).getStringCellValue());
+				assertEquals("默认7", row.getCell(3).getStringCellValue());
+				assertEquals(Arrays.asList((Object) 7), defaults);
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+	public static class Reading {
+		@Excel(order = 0, name = "读数")
+		private double value;
+		@Excel(order = 1, name = "原始值")
+		private double raw;
+		@Excel(order = 2, name = "备注")
+		private String note;
+		@Excel(order = 3, name = "附加")
+		private Object extra;
+
+		public double getValue() {
+			return value;
+		}
+
+		public void setValue(double value) {
+			this.value = value;
+		}
+
+		public double getRaw() {
+			return raw;
+		}
+
+		public void setRaw(double raw) {
+			this.raw = raw;
+		}
+
+		public String getNote() {
+			return note;
+		}
+
+		public void setNote(String note) {
+			this.note = note;
+		}
+
+		public Object getExtra() {
+			return extra;
+		}
+
+		public void setExtra(Object extra) {
+			this.extra = extra;
+		}
+	}
+
+	public static class Schedule {
+		@Excel(order = 0, name = "日期")
+		private LocalDate day;
+		@Excel(order = 1, name = "开始时间")
+		private LocalDateTime start;
+		@Excel(order = 2, name = "截止日期", fmt = "yyyy/MM/dd")
+		private LocalDate due;
+
+		public LocalDate getDay() {
+			return day;
+		}
+
+		public void setDay(LocalDate day) {
+			this.day = day;
+		}
+
+		public LocalDateTime getStart() {
+			return start;
+		}
+
+		public void setStart(LocalDateTime start) {
+			this.start = start;
+		}
+
+		public LocalDate getDue() {
+			return due;
+		}
+
+		public void setDue(LocalDate due) {
+			this.due = due;
+		}
+	}
+
+	public static class Ticket {
+		@Excel(order = 0, name = "日期")
+		private Date issued;
+		@Excel(order = 1, name = "座位")
+		private int seat;
+
+		public String getIssued() {
+			return new SimpleDateFormat("yyyy年MM月dd日").format(issued);
+		}
+
+		public void setIssued(Date issued) {
+			this.issued = issued;
+		}
+
+		public String getSeat() {
+			return seat + "排";
+		}
+
+		public void setSeat(int seat) {
+			this.seat = seat;
+		}
+	}
+}